@@ -0,0 +1,118 @@
+package com.resumeanalyzer.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeanalyzer.GroqAnalyzer;
+import com.resumeanalyzer.llm.GroqClientSettings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Client-side cost of an analysis: prompt preparation, request building, the HTTP exchange over
+// loopback and response parsing. A local stub answers instantly with a canned completion, so the
+// numbers contain no model latency. The response cache is off.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GroqClientBenchmark {
+
+    private static final String JOB_ROLE = "Backend Developer";
+    private static final int STREAM_CHUNK_LENGTH = 24;
+
+    @Param({"3000", "20000"})
+    public int textLength;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private GroqAnalyzer analyzer;
+    private String resumeText;
+    private byte[] completion;
+    private byte[] eventStream;
+
+    @Setup
+    public void setUp() throws IOException {
+        resumeText = SyntheticResumes.text(textLength, 42);
+        String analysis = SyntheticResumes.analysisMarkdown(6000, 7);
+        ObjectMapper mapper = new ObjectMapper();
+        completion = completion(mapper, analysis);
+        eventStream = eventStream(mapper, analysis);
+
+        // Without TCP_NODELAY the stub's small writes wait on delayed ACKs (~40 ms per exchange).
+        // The server reads this once, when the first server is created in this fork.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        serverThreads = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/openai/v1/chat/completions", this::respond);
+        server.start();
+
+        GroqClientSettings settings = GroqClientSettings.builder()
+            .endpoint("http://127.0.0.1:" + server.getAddress().getPort() + "/openai/v1/chat/completions")
+            .requestsPerMinute(Integer.MAX_VALUE)
+            .burst(Integer.MAX_VALUE)
+            .maxRetries(0)
+            .build();
+        analyzer = new GroqAnalyzer("benchmark-key", settings);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public String analyzeResume() throws IOException {
+        return analyzer.analyzeResume(resumeText, JOB_ROLE);
+    }
+
+    @Benchmark
+    public String analyzeResumeStreaming() {
+        return analyzer.analyzeResumeStreaming(resumeText, JOB_ROLE, delta -> { }).join();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        boolean streaming = request.contains("\"stream\":true");
+        byte[] body = streaming ? eventStream : completion;
+        exchange.getResponseHeaders().add("Content-Type", streaming ? "text/event-stream" : "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] completion(ObjectMapper mapper, String analysis) {
+        ObjectNode response = mapper.createObjectNode();
+        response.putArray("choices").addObject()
+            .putObject("message")
+            .put("role", "assistant")
+            .put("content", analysis);
+        return response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] eventStream(ObjectMapper mapper, String analysis) {
+        StringBuilder events = new StringBuilder();
+        for (int i = 0; i < analysis.length(); i += STREAM_CHUNK_LENGTH) {
+            ObjectNode chunk = mapper.createObjectNode();
+            chunk.putArray("choices").addObject()
+                .putObject("delta")
+                .put("content", analysis.substring(i, Math.min(analysis.length(), i + STREAM_CHUNK_LENGTH)));
+            events.append("data: ").append(chunk).append("\n\n");
+        }
+        events.append("data: [DONE]\n\n");
+        return events.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
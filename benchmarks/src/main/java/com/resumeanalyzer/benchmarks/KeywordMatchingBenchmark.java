@@ -0,0 +1,65 @@
+package com.resumeanalyzer.benchmarks;
+
+import com.resumeanalyzer.ResumeAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Compares the Aho-Corasick keyword matcher with the previous one-contains-per-keyword loop
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class KeywordMatchingBenchmark {
+
+    private static final String[] MARKERS = {
+        "education", "experience", "skills", "project",
+        "portfolio", "behance", "dribbble", "github", "kaggle", "certification"
+    };
+
+    @Param({"Frontend Developer", "Full Stack Developer", "Data Analyst"})
+    public String jobRole;
+
+    // Approximate resume length in characters
+    @Param({"2000", "20000"})
+    public int textLength;
+
+    private String resumeText;
+    private String[] keywords;
+
+    @Setup
+    public void setUp() {
+        resumeText = SyntheticResumes.text(textLength, 42);
+        keywords = ResumeAnalyzer.getKeywords(jobRole).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public ResumeAnalyzer.AnalysisResult containsLoop() {
+        // Mirrors ResumeAnalyzer.analyzeResume before the automaton: one contains() scan per keyword and marker
+        String lowerResumeText = resumeText.toLowerCase();
+        Set<String> foundKeywords = new HashSet<>();
+        Set<String> missingKeywords = new HashSet<>(Arrays.asList(keywords));
+        for (String keyword : keywords) {
+            if (lowerResumeText.contains(keyword.toLowerCase())) {
+                foundKeywords.add(keyword);
+                missingKeywords.remove(keyword);
+            }
+        }
+        double score = (double) foundKeywords.size() / keywords.length * 100;
+        List<String> suggestions = new ArrayList<>();
+        for (String marker : MARKERS) {
+            if (!lowerResumeText.contains(marker)) {
+                suggestions.add(marker);
+            }
+        }
+        return new ResumeAnalyzer.AnalysisResult(score, foundKeywords, missingKeywords, suggestions);
+    }
+
+    @Benchmark
+    public ResumeAnalyzer.AnalysisResult automaton() {
+        return ResumeAnalyzer.analyzeResume(resumeText, jobRole);
+    }
+}
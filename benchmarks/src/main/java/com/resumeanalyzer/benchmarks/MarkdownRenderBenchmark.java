@@ -0,0 +1,32 @@
+package com.resumeanalyzer.benchmarks;
+
+import com.resumeanalyzer.MarkdownRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// CommonMark parse and render of the report shown in the results view
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MarkdownRenderBenchmark {
+
+    // Approximate report length in characters: keyword results only, or with an AI analysis
+    @Param({"1000", "8000", "30000"})
+    public int markdownLength;
+
+    private String markdown;
+
+    @Setup
+    public void setUp() {
+        markdown = SyntheticResumes.analysisMarkdown(markdownLength, 42);
+    }
+
+    @Benchmark
+    public String toHtml() {
+        return MarkdownRenderer.toHtml(markdown);
+    }
+}
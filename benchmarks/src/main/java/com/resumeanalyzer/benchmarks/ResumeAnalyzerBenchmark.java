@@ -0,0 +1,35 @@
+package com.resumeanalyzer.benchmarks;
+
+import com.resumeanalyzer.ResumeAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Keyword scoring for every supported role
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ResumeAnalyzerBenchmark {
+
+    @Param({"Frontend Developer", "Backend Developer", "Full Stack Developer", "Data Analyst",
+        "Machine Learning Engineer", "DevOps Engineer", "UI/UX Designer"})
+    public String jobRole;
+
+    @Param({"3000", "20000", "100000"})
+    public int textLength;
+
+    private String resumeText;
+
+    @Setup
+    public void setUp() {
+        resumeText = SyntheticResumes.text(textLength, 42);
+    }
+
+    @Benchmark
+    public ResumeAnalyzer.AnalysisResult analyzeResume() {
+        return ResumeAnalyzer.analyzeResume(resumeText, jobRole);
+    }
+}
@@ -0,0 +1,55 @@
+package com.resumeanalyzer.benchmarks;
+
+import com.resumeanalyzer.ResumeParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Text extraction per format and document size, buffered and streaming
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ResumeParserBenchmark {
+
+    @Param({"pdf", "docx"})
+    public String format;
+
+    // Approximate resume length in characters; 3000 is about one page
+    @Param({"3000", "20000", "100000"})
+    public int textLength;
+
+    private Path directory;
+    private File file;
+    private ResumeParser.ExtractionLimits limits;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("resume-benchmark");
+        file = SyntheticCorpus.write(directory, format, textLength, 42).toFile();
+        limits = new ResumeParser.ExtractionLimits(Integer.MAX_VALUE, Long.MAX_VALUE, 16L * 1024 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return ResumeParser.extractText(file);
+    }
+
+    @Benchmark
+    public boolean extractTextStreaming(Blackhole blackhole) throws IOException {
+        return ResumeParser.extractText(file, limits, blackhole::consume);
+    }
+}
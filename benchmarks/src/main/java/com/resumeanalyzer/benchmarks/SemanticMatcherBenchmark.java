@@ -0,0 +1,43 @@
+package com.resumeanalyzer.benchmarks;
+
+import com.resumeanalyzer.semantic.SemanticMatcher;
+import com.resumeanalyzer.semantic.SemanticResult;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Offline semantic matching, and building the phrase vectors it needs at startup
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SemanticMatcherBenchmark {
+
+    @Param({"Backend Developer", "DevOps Engineer", "UI/UX Designer"})
+    public String jobRole;
+
+    @Param({"3000", "20000", "100000"})
+    public int textLength;
+
+    private String resumeText;
+    private SemanticMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        resumeText = SyntheticResumes.text(textLength, 42);
+        matcher = SemanticMatcher.current();
+    }
+
+    @Benchmark
+    public SemanticResult match() {
+        return matcher.match(resumeText, jobRole);
+    }
+
+    @Benchmark
+    public SemanticMatcher build() {
+        return SemanticMatcher.of(KeywordTaxonomy.current());
+    }
+}
@@ -0,0 +1,92 @@
+package com.resumeanalyzer.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Cold start of the application, which JMH cannot measure: starts the given command in a fresh
+// JVM again and again and times, from process launch, the "window" and "first-result" lines the
+// application prints (WarmUp and ResumeAnalyzerApp with -Dresumeanalyzer.startup.probe do) and
+// the process exit. With --cds the runs alternate between the plain command and the command with
+// -XX:SharedArchiveFile, so both see the same machine state.
+//
+//   java -cp target/benchmarks.jar com.resumeanalyzer.benchmarks.StartupBenchmark [--runs n] [--cds archive.jsa] -- <java command>
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = 10;
+        String archive = null;
+        List<String> command = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--runs") && i + 1 < args.length) {
+                runs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--cds") && i + 1 < args.length) {
+                archive = args[++i];
+            } else if (args[i].equals("--")) {
+                command.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            } else {
+                usage();
+                return;
+            }
+        }
+        if (command.isEmpty()) {
+            usage();
+            return;
+        }
+
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("default", command);
+        if (archive != null) {
+            List<String> withArchive = new ArrayList<>(command);
+            withArchive.add(1, "-XX:SharedArchiveFile=" + archive);
+            configurations.put("appcds", withArchive);
+        }
+        Map<String, Map<String, List<Long>>> timings = new LinkedHashMap<>();
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+                Map<String, Long> milestones = launch(configuration.getValue());
+                Map<String, List<Long>> byMilestone = timings.computeIfAbsent(configuration.getKey(), k -> new LinkedHashMap<>());
+                milestones.forEach((name, millis) -> byMilestone.computeIfAbsent(name, k -> new ArrayList<>()).add(millis));
+            }
+        }
+
+        System.out.printf("%-10s %-14s %8s %8s %8s%n", "Config", "Milestone", "Min ms", "Median", "Max ms");
+        timings.forEach((configuration, byMilestone) -> byMilestone.forEach((milestone, values) -> {
+            Collections.sort(values);
+            System.out.printf("%-10s %-14s %8d %8d %8d%n", configuration, milestone, values.get(0),
+                values.get(values.size() / 2), values.get(values.size() - 1));
+        }));
+    }
+
+    // Milliseconds from launch to each milestone line, and to the exit
+    private static Map<String, Long> launch(List<String> command) throws IOException, InterruptedException {
+        long launched = System.currentTimeMillis();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Map<String, Long> milestones = new LinkedHashMap<>();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length == 2 && (parts[0].equals("window") || parts[0].equals("first-result"))) {
+                    milestones.put(parts[0], Long.parseLong(parts[1]) - launched);
+                }
+            }
+        }
+        int status = process.waitFor();
+        milestones.put("exit", System.currentTimeMillis() - launched);
+        if (status != 0) {
+            System.out.println("Warning: " + String.join(" ", command) + " exited with status " + status);
+        }
+        return milestones;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: StartupBenchmark [--runs n] [--cds archive.jsa] -- <java command>");
+    }
+}
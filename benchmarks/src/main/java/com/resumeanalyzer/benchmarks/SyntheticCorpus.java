@@ -0,0 +1,111 @@
+package com.resumeanalyzer.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes SyntheticResumes text as real PDF and DOCX files so the parser benchmarks exercise the
+// same code paths as uploaded resumes. PDFs get a running header and page-number footer.
+final class SyntheticCorpus {
+
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 13;
+    private static final float MARGIN = 50;
+    private static final int LINE_WIDTH = 95;
+
+    private SyntheticCorpus() {
+    }
+
+    // Writes a resume of roughly the given length in characters; format is "pdf" or "docx"
+    static Path write(Path directory, String format, int length, long seed) throws IOException {
+        String text = SyntheticResumes.text(length, seed);
+        Path file = directory.resolve("resume-" + length + "-" + seed + "." + format);
+        switch (format) {
+            case "pdf":
+                writePdf(text, file);
+                break;
+            case "docx":
+                writeDocx(text, file);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return file;
+    }
+
+    private static void writePdf(String text, Path file) throws IOException {
+        List<String> lines = wrap(text);
+        int linesPerPage = (int) ((PDRectangle.LETTER.getHeight() - 3 * MARGIN) / LEADING);
+        try (PDDocument document = new PDDocument()) {
+            for (int first = 0, page = 1; first < lines.size(); first += linesPerPage, page++) {
+                PDPage pdfPage = new PDPage(PDRectangle.LETTER);
+                document.addPage(pdfPage);
+                float top = pdfPage.getMediaBox().getHeight() - MARGIN;
+                try (PDPageContentStream content = new PDPageContentStream(document, pdfPage)) {
+                    writeLine(content, "Jane Doe - Resume", MARGIN, top);
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, top - 2 * LEADING);
+                    for (int i = first; i < Math.min(lines.size(), first + linesPerPage); i++) {
+                        content.showText(lines.get(i));
+                        content.newLine();
+                    }
+                    content.endText();
+                    writeLine(content, "Page " + page, MARGIN, MARGIN);
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+
+    private static void writeLine(PDPageContentStream content, String line, float x, float y) throws IOException {
+        content.beginText();
+        content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+        content.newLineAtOffset(x, y);
+        content.showText(line);
+        content.endText();
+    }
+
+    private static void writeDocx(String text, Path file) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+             OutputStream out = Files.newOutputStream(file)) {
+            for (String line : text.split("\n")) {
+                XWPFParagraph paragraph = document.createParagraph();
+                XWPFRun run = paragraph.createRun();
+                // Headings are the only lines that are not bullets
+                run.setBold(!line.isEmpty() && !line.startsWith("- "));
+                run.setText(line);
+            }
+            document.write(out);
+        }
+    }
+
+    private static List<String> wrap(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            while (line.length() > LINE_WIDTH) {
+                int cut = line.lastIndexOf(' ', LINE_WIDTH);
+                if (cut <= 0) {
+                    cut = LINE_WIDTH;
+                }
+                lines.add(line.substring(0, cut));
+                line = line.substring(cut).strip();
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,84 @@
+package com.resumeanalyzer.benchmarks;
+
+import java.util.Random;
+
+// Deterministic resume-like text built from section headings, skills and filler prose
+final class SyntheticResumes {
+
+    private static final String[] HEADINGS = {
+        "Experience", "Education", "Skills", "Projects", "Certifications", "Summary"
+    };
+
+    private static final String[] SKILLS = {
+        "Java", "Python", "JavaScript", "TypeScript", "React", "Angular", "Spring Boot", "Django",
+        "Node.js", "PostgreSQL", "MongoDB", "Docker", "Kubernetes", "AWS", "Azure", "Terraform",
+        "CI/CD", "REST API", "GraphQL", "Pandas", "NumPy", "TensorFlow", "PyTorch", "Tableau",
+        "Power BI", "Figma", "Prototyping", "Git", "Linux", "Grafana", "Prometheus", "Redis"
+    };
+
+    private static final String[] FILLER = {
+        "designed", "implemented", "maintained", "delivered", "collaborated", "with", "the", "team",
+        "to", "improve", "performance", "of", "internal", "services", "customer", "facing", "features",
+        "reduced", "latency", "by", "percent", "across", "multiple", "regions", "and", "mentored",
+        "junior", "engineers", "career", "growth", "responsible", "for", "quarterly", "roadmap"
+    };
+
+    private SyntheticResumes() {
+    }
+
+    static String text(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 128);
+        text.append("Jane Doe\njane.doe@example.com | github.com/janedoe\n\n");
+        while (text.length() < length) {
+            text.append(HEADINGS[random.nextInt(HEADINGS.length)]).append('\n');
+            int lines = 3 + random.nextInt(5);
+            for (int line = 0; line < lines && text.length() < length; line++) {
+                text.append("- ");
+                int words = 8 + random.nextInt(12);
+                for (int w = 0; w < words; w++) {
+                    if (random.nextInt(6) == 0) {
+                        text.append(SKILLS[random.nextInt(SKILLS.length)]);
+                    } else {
+                        text.append(FILLER[random.nextInt(FILLER.length)]);
+                    }
+                    text.append(w + 1 < words ? " " : ".\n");
+                }
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    // Report in the shape the app renders: keyword results followed by an AI analysis with
+    // headings, bullets and emphasis, up to roughly the given length
+    static String analysisMarkdown(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder markdown = new StringBuilder(length + 128);
+        markdown.append("# 📄 Resume Analysis for Backend Developer\n\n");
+        markdown.append("**Overall Match Score:** 62.5%\n\n---\n\n## ✅ Found Keywords\n");
+        for (int i = 0; i < 8; i++) {
+            markdown.append("- ").append(SKILLS[random.nextInt(SKILLS.length)]).append('\n');
+        }
+        markdown.append("\n## 💡 Improvement Suggestions\n");
+        markdown.append("- Consider adding these relevant skills: docker, redis, kafka\n");
+        markdown.append("- Add links to your GitHub profile\n");
+        if (markdown.length() < length) {
+            markdown.append("\n---\n\n# 🤖 AI-Powered Analysis\n\n");
+        }
+        while (markdown.length() < length) {
+            markdown.append("## ").append(HEADINGS[random.nextInt(HEADINGS.length)]).append("\n\n");
+            int bullets = 3 + random.nextInt(5);
+            for (int b = 0; b < bullets; b++) {
+                markdown.append("- **").append(SKILLS[random.nextInt(SKILLS.length)]).append(":** ");
+                int words = 10 + random.nextInt(15);
+                for (int w = 0; w < words; w++) {
+                    markdown.append(FILLER[random.nextInt(FILLER.length)]);
+                    markdown.append(w + 1 < words ? " " : ".\n");
+                }
+            }
+            markdown.append('\n');
+        }
+        return markdown.toString();
+    }
+}
@@ -0,0 +1,347 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.batch.BatchPipeline;
+import com.resumeanalyzer.batch.JobLog;
+import com.resumeanalyzer.cache.ExtractedTextCache;
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.dedup.DuplicateDetector;
+import com.resumeanalyzer.metrics.MetricsRegistry;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import com.resumeanalyzer.metrics.PrometheusTextExporter;
+import com.resumeanalyzer.results.ResultStore;
+import com.resumeanalyzer.scoring.CorpusStats;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Headless entry point that scores a directory or list of resumes and writes JSON Lines.
+//
+//   java -cp resume-analyzer.jar com.resumeanalyzer.BatchScorer [options] <file-or-directory>...
+//
+// Options:
+//   --roles "Role A,Role B"   roles to score against (default: all roles)
+//   --list <file>             read additional input paths from a file, one per line
+//   --output <file>           write results to a file instead of stdout
+//   --parse-threads <n>       threads extracting text (default: available cores)
+//   --score-threads <n>       threads scoring text (default: half the available cores)
+//   --queue <n>               capacity of the queues between stages (default: 4x cores)
+//   --cache-dir <dir>         keep extracted text on disk, keyed by file content, across runs
+//   --cache-mb <n>            size of the in-memory extracted text cache (default: 64)
+//   --corpus-stats <file>     score with the keyword statistics in file and add this batch to them
+//   --metrics <file>          write stage latencies and counters in Prometheus text format when done
+//   --dedup reuse|flag|off    near-duplicate resumes are scored and marked with duplicateOf, and reuse
+//                             the first copy's AI analysis, are only marked, or are not detected
+//                             (default: dedup.mode, reuse)
+//   --dedup-threshold <x>     similarity from which resumes count as near-duplicates (default: 0.8)
+//   --ai                      add the Groq analysis of each resume for each role (needs an API key)
+//   --cascade on|off          with --ai, analyze only the resumes the keyword cascade picks, per role and
+//                             window; the others get aiRoute and no analysis (default: cascade.enabled, on)
+//   --ai-window <n>           resumes per cascade decision and batched AI request round (default: 50)
+//   --jobs <file>             log completed stages to file and, on a rerun, skip what it already has
+//   --store <dir>             also append the results to a result store (see ResultStoreTool)
+public class BatchScorer {
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: BatchScorer [--roles r1,r2] [--list file] [--output file] "
+                + "[--parse-threads n] [--score-threads n] [--queue n] [--cache-dir dir] [--cache-mb n] "
+                + "[--corpus-stats file] [--metrics file] [--dedup reuse|flag|off] [--dedup-threshold x] "
+                + "[--ai] [--cascade on|off] [--ai-window n] [--jobs file] [--store dir] <file-or-directory>...");
+            System.exit(2);
+        }
+    }
+
+    static int run(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int parseThreads = cores;
+        int scoreThreads = Math.max(1, cores / 2);
+        int queueCapacity = cores * 4;
+        List<String> roles = new ArrayList<>(ResumeAnalyzer.getJobRoles());
+        String output = null;
+        String cacheDir = null;
+        long cacheMb = 64;
+        String corpusFile = null;
+        String metricsFile = null;
+        ConfigManager config = ConfigManager.getInstance();
+        String dedupMode = config.getBoolean("dedup.enabled", true) ? config.getProperty("dedup.mode", "reuse") : "off";
+        double dedupThreshold = config.getDouble("dedup.threshold", 0.8);
+        boolean ai = false;
+        boolean cascaded = config.getBoolean("cascade.enabled", true);
+        int aiWindow = config.getInt("batch.ai.window", 50);
+        String jobsFile = null;
+        String storeDir = null;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--roles":
+                    roles = Arrays.stream(value(args, ++i, arg).split(","))
+                        .map(String::trim)
+                        .filter(role -> !role.isEmpty())
+                        .collect(Collectors.toList());
+                    break;
+                case "--list":
+                    inputs.addAll(readList(Paths.get(value(args, ++i, arg))));
+                    break;
+                case "--output":
+                    output = value(args, ++i, arg);
+                    break;
+                case "--parse-threads":
+                    parseThreads = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--score-threads":
+                    scoreThreads = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--queue":
+                    queueCapacity = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--cache-dir":
+                    cacheDir = value(args, ++i, arg);
+                    break;
+                case "--cache-mb":
+                    cacheMb = Long.parseLong(value(args, ++i, arg));
+                    break;
+                case "--corpus-stats":
+                    corpusFile = value(args, ++i, arg);
+                    break;
+                case "--metrics":
+                    metricsFile = value(args, ++i, arg);
+                    break;
+                case "--dedup":
+                    dedupMode = value(args, ++i, arg);
+                    break;
+                case "--dedup-threshold":
+                    dedupThreshold = Double.parseDouble(value(args, ++i, arg));
+                    break;
+                case "--ai":
+                    ai = true;
+                    break;
+                case "--cascade":
+                    cascaded = onOff(value(args, ++i, arg), arg);
+                    break;
+                case "--ai-window":
+                    aiWindow = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--jobs":
+                    jobsFile = value(args, ++i, arg);
+                    break;
+                case "--store":
+                    storeDir = value(args, ++i, arg);
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    inputs.add(Paths.get(arg));
+            }
+        }
+
+        List<File> files = collectFiles(inputs);
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No PDF or DOCX files found in the given inputs");
+        }
+
+        ExtractedTextCache textCache;
+        try {
+            textCache = new ExtractedTextCache(cacheMb * 1024 * 1024, cacheDir != null ? Paths.get(cacheDir) : null);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot use cache directory " + cacheDir + ": " + e.getMessage());
+        }
+
+        CorpusStats corpus = null;
+        CorpusStats corpusUpdates = null;
+        if (corpusFile != null) {
+            try {
+                corpus = CorpusStats.loadOrEmpty(Paths.get(corpusFile));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read corpus statistics " + corpusFile + ": " + e.getMessage());
+            }
+            ResumeAnalyzer.setCorpusStats(corpus);
+            corpusUpdates = new CorpusStats();
+        }
+
+        MetricsRegistry metrics = null;
+        if (metricsFile != null) {
+            metrics = new MetricsRegistry();
+            PipelineMetrics.install(metrics);
+        }
+
+        DuplicateDetector duplicates = null;
+        if (!dedupMode.equalsIgnoreCase("off")) {
+            try {
+                duplicates = new DuplicateDetector(dedupThreshold, config.getInt("dedup.max.entries", 20_000),
+                    DuplicateDetector.Mode.valueOf(dedupMode.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid --dedup or --dedup-threshold: " + e.getMessage());
+            }
+        }
+
+        GroqAnalyzer analyzer = null;
+        if (ai) {
+            analyzer = createGroqAnalyzer(config);
+            if (analyzer == null) {
+                throw new IllegalArgumentException("--ai needs GROQ_API_KEY or groq.api.key in config.properties");
+            }
+        }
+
+        JobLog jobs = null;
+        if (jobsFile != null) {
+            try {
+                jobs = JobLog.open(Paths.get(jobsFile));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot open job log " + jobsFile + ": " + e.getMessage());
+            }
+            System.err.printf("Job log %s: %d jobs, %d completed%n", jobsFile, jobs.size(), jobs.completedJobs());
+        }
+
+        ResultStore store = null;
+        if (storeDir != null) {
+            try {
+                store = ResultStore.open(Paths.get(storeDir));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot open result store " + storeDir + ": " + e.getMessage());
+            }
+        }
+
+        BatchPipeline pipeline = BatchPipeline.builder()
+            .parseThreads(parseThreads)
+            .scoreThreads(scoreThreads)
+            .queueCapacity(queueCapacity)
+            .textCache(textCache)
+            .corpusUpdates(corpusUpdates)
+            .duplicates(duplicates)
+            .jobs(jobs)
+            .analyzer(analyzer)
+            .cascade(cascaded ? LlmCascade.configured() : null, aiWindow)
+            .build();
+        try (OutputStream out = output != null
+                ? new FileOutputStream(output)
+                : new FilterOutputStream(System.out) {
+                    // FilterOutputStream would pass the buffer on one byte at a time, each a
+                    // synchronized call into System.out
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush(); // never close stdout
+                    }
+                }) {
+            BatchPipeline.Summary summary = pipeline.run(files, roles, out, store);
+            System.err.printf("Scored %d files (%d failures, %d near-duplicates, %d completed before) into %d results in %d ms%n",
+                summary.getFiles(), summary.getFailures(), summary.getDuplicates(), summary.getResumed(),
+                summary.getLines(), summary.getElapsedMillis());
+            if (store != null) {
+                System.err.printf("Result store %s: %d results%n", storeDir, store.rows());
+            }
+            System.err.println("Text cache: " + textCache.stats());
+            if (corpus != null) {
+                corpus.merge(corpusUpdates);
+                corpus.save(Paths.get(corpusFile));
+                System.err.println("Corpus statistics: " + corpus);
+            }
+            if (metrics != null) {
+                new PrometheusTextExporter(metrics, Paths.get(metricsFile)).write();
+            }
+            return summary.getFailures() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Error writing results: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            if (jobs != null) {
+                try {
+                    jobs.close();
+                } catch (IOException e) {
+                    System.err.println("Warning: cannot close job log " + jobsFile + ": " + e.getMessage());
+                }
+            }
+            if (store != null) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    System.err.println("Warning: cannot close result store " + storeDir + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Same key lookup as the GUI: GROQ_API_KEY, then groq.api.key
+    private static GroqAnalyzer createGroqAnalyzer(ConfigManager config) {
+        String apiKey = System.getenv("GROQ_API_KEY");
+        if (apiKey == null || apiKey.isEmpty()) {
+            apiKey = config.getGroqApiKey();
+        }
+        if (apiKey == null || apiKey.isEmpty() || apiKey.equals("your_api_key_here")) {
+            return null;
+        }
+        return new GroqAnalyzer(apiKey);
+    }
+
+    private static boolean onOff(String value, String option) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "on":
+                return true;
+            case "off":
+                return false;
+            default:
+                throw new IllegalArgumentException(option + " must be on or off, not " + value);
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static List<Path> readList(Path listFile) {
+        try (Stream<String> lines = Files.lines(listFile, StandardCharsets.UTF_8)) {
+            return lines.map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(Paths::get)
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read file list " + listFile + ": " + e.getMessage());
+        }
+    }
+
+    static List<File> collectFiles(List<Path> inputs) {
+        List<File> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> walk = Files.walk(input)) {
+                    walk.filter(Files::isRegularFile)
+                        .filter(BatchScorer::isResume)
+                        .sorted()
+                        .forEach(path -> files.add(path.toFile()));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Cannot read directory " + input + ": " + e.getMessage());
+                }
+            } else if (Files.isRegularFile(input)) {
+                files.add(input.toFile());
+            } else {
+                System.err.println("Warning: skipping missing input " + input);
+            }
+        }
+        return files;
+    }
+
+    private static boolean isResume(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".pdf") || name.endsWith(".docx");
+    }
+}
@@ -1,57 +1,412 @@
 package com.resumeanalyzer;
 
 import okhttp3.*;
+import okio.BufferedSource;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeanalyzer.cache.LlmResponseCache;
+import com.resumeanalyzer.llm.ConcurrencyLimiter;
+import com.resumeanalyzer.llm.GroqClientSettings;
+import com.resumeanalyzer.llm.PromptPreprocessor;
+import com.resumeanalyzer.llm.RetryPolicy;
+import com.resumeanalyzer.llm.TokenBucket;
+import com.resumeanalyzer.llm.TokenEstimator;
+import com.resumeanalyzer.metrics.PipelineMetrics;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class GroqAnalyzer {
-    private static final String GROQ_API_URL = "https://api.groq.com/openai/v1/chat/completions";
     private static final MediaType JSON = MediaType.get("application/json");
+    // Bump when the prompt template or system message changes so cached responses are not reused
+    private static final String PROMPT_VERSION = "1";
+    private static final String SYSTEM_MESSAGE = "You are an expert resume analyzer and career counselor. Analyze the resume for the specified job role and provide detailed, actionable feedback.";
+    // Tokens for the "=== Candidate N ===" line that precedes each resume in a batch prompt
+    private static final int CANDIDATE_HEADER_TOKENS = 12;
+    private static final String BATCH_SYSTEM_MESSAGE = "You are an expert resume analyzer and career counselor. Analyze each candidate's resume independently for the specified job role and respond only with the requested JSON.";
+
+    // Shared by every analyzer in the process: one connection pool, dispatcher, mapper and timer.
+    // The dispatcher limits are generous because each analyzer applies its own concurrency limit.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final OkHttpClient SHARED_CLIENT = new OkHttpClient.Builder()
+        .connectionPool(new ConnectionPool(32, 5, TimeUnit.MINUTES))
+        .dispatcher(newDispatcher())
+        .build();
+    private static final ScheduledExecutorService SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(daemonThreads("groq-scheduler"));
+
     private final OkHttpClient client;
     private final String apiKey;
     private final ObjectMapper objectMapper;
+    private final GroqClientSettings settings;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final TokenBucket rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final LlmResponseCache responseCache;
+    private final PromptPreprocessor preprocessor;
 
     public GroqAnalyzer(String apiKey) {
+        this(apiKey, GroqClientSettings.fromConfig(), LlmResponseCache.fromConfig());
+    }
+
+    public GroqAnalyzer(String apiKey, GroqClientSettings settings) {
+        this(apiKey, settings, null);
+    }
+
+    // A null cache sends every request to the API
+    public GroqAnalyzer(String apiKey, GroqClientSettings settings, LlmResponseCache responseCache) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new IllegalArgumentException("Groq API key cannot be null or empty");
         }
         this.apiKey = apiKey;
-        this.client = new OkHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.settings = settings;
+        // newBuilder() shares the pool and dispatcher of the shared client
+        this.client = SHARED_CLIENT.newBuilder()
+            .connectTimeout(settings.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout(settings.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .build();
+        this.objectMapper = OBJECT_MAPPER;
+        this.concurrencyLimiter = new ConcurrencyLimiter(settings.getMaxConcurrency());
+        this.rateLimiter = TokenBucket.perMinute(settings.getRequestsPerMinute(), settings.getBurst());
+        this.retryPolicy = new RetryPolicy(settings.getMaxRetries(), settings.getRetryBaseMillis(), settings.getRetryMaxMillis());
+        this.responseCache = responseCache;
+        this.preprocessor = new PromptPreprocessor(settings.getPromptMaxTokens(), ResumeAnalyzer.getSectionMarkers());
     }
 
     public String analyzeResume(String resumeText, String jobRole) throws IOException {
+        return await(analyzeResumeAsync(resumeText, jobRole));
+    }
+
+    // Non-blocking variant: rate limiting, concurrency limiting, retries and the deadline all run
+    // on OkHttp's callback threads and a shared timer. Cancelling the future aborts the HTTP call.
+    // Identical prompts for the same model are answered from the response cache, and concurrent
+    // identical requests share a single API call. The resume text is cleaned up and cut to the
+    // prompt token budget before it is sent.
+    public CompletableFuture<String> analyzeResumeAsync(String resumeText, String jobRole) {
+        long start = System.nanoTime();
+        CompletableFuture<String> analysis = analyzePrepared(preprocessor.prepare(resumeText), jobRole);
+        analysis.whenComplete((text, error) -> PipelineMetrics.recordLlmAnalysis(jobRole, start, error != null));
+        return analysis;
+    }
+
+    public List<String> analyzeResumes(List<String> resumeTexts, String jobRole) throws IOException {
+        return await(analyzeResumesAsync(resumeTexts, jobRole));
+    }
+
+    // Analyzes a shortlist for one role with as few requests as possible: resumes are packed into
+    // requests up to the batch token budget, so the instructions are sent once per batch, and the
+    // JSON answer is split back into one analysis per resume (in input order). Resumes the answer
+    // does not cover, or whose batch failed, are analyzed with single requests. Fails if any
+    // resume's analysis fails; analyzeEachAsync keeps the ones that succeeded.
+    public CompletableFuture<List<String>> analyzeResumesAsync(List<String> rawTexts, String jobRole) {
+        List<CompletableFuture<String>> analyses = analyzeEachAsync(rawTexts, jobRole);
+        CompletableFuture<List<String>> result = CompletableFuture.allOf(analyses.toArray(new CompletableFuture<?>[0]))
+            .thenApply(done -> {
+                List<String> texts = new ArrayList<>(analyses.size());
+                analyses.forEach(analysis -> texts.add(analysis.join()));
+                return texts;
+            });
+        for (CompletableFuture<String> analysis : analyses) {
+            propagateCancel(result, analysis);
+        }
+        return result;
+    }
+
+    // Same requests as analyzeResumesAsync, with one future per resume in input order, so a failed
+    // batch or fallback only fails the resumes it was for. Cancelling a resume's future cancels its
+    // single request, or its batch request once every resume of the batch is cancelled.
+    public List<CompletableFuture<String>> analyzeEachAsync(List<String> rawTexts, String jobRole) {
+        long start = System.nanoTime();
+        List<String> resumeTexts = new ArrayList<>(rawTexts.size());
+        List<CompletableFuture<String>> analyses = new ArrayList<>(rawTexts.size());
+        for (String rawText : rawTexts) {
+            resumeTexts.add(preprocessor.prepare(rawText));
+            CompletableFuture<String> analysis = new CompletableFuture<>();
+            // One analysis per resume, as on the single-resume paths
+            analysis.whenComplete((text, error) -> PipelineMetrics.recordLlmAnalysis(jobRole, start, error != null));
+            analyses.add(analysis);
+        }
+        for (List<Integer> batch : planBatches(resumeTexts, jobRole)) {
+            if (batch.size() == 1) {
+                int index = batch.get(0);
+                completeFrom(analyses.get(index), analyzePrepared(resumeTexts.get(index), jobRole));
+            } else {
+                analyzeBatch(batch, resumeTexts, jobRole, analyses);
+            }
+        }
+        return analyses;
+    }
+
+    // Streams the analysis as it is generated: onDelta receives each text fragment on an HTTP
+    // thread, in order. A cached or coalesced answer arrives as a single fragment.
+    public CompletableFuture<String> analyzeResumeStreaming(String resumeText, String jobRole, Consumer<String> onDelta) {
+        long start = System.nanoTime();
+        CompletableFuture<String> analysis = streamPrepared(preprocessor.prepare(resumeText), jobRole, onDelta);
+        analysis.whenComplete((text, error) -> PipelineMetrics.recordLlmAnalysis(jobRole, start, error != null));
+        return analysis;
+    }
+
+    private CompletableFuture<String> streamPrepared(String resumeText, String jobRole, Consumer<String> onDelta) {
         String prompt = buildPrompt(resumeText, jobRole);
-        
+        if (responseCache == null) {
+            return requestStreamingAnalysis(prompt, onDelta);
+        }
+        AtomicBoolean streamed = new AtomicBoolean();
+        CompletableFuture<String> response = cached(SYSTEM_MESSAGE, prompt, () -> requestStreamingAnalysis(prompt, delta -> {
+            streamed.set(true);
+            onDelta.accept(delta);
+        }));
+        CompletableFuture<String> analysis = response.thenApply(text -> {
+            if (!streamed.get() && !text.isEmpty()) {
+                onDelta.accept(text);
+            }
+            return text;
+        });
+        propagateCancel(analysis, response);
+        return analysis;
+    }
+
+    // Takes resume text that already went through the preprocessor
+    private CompletableFuture<String> analyzePrepared(String resumeText, String jobRole) {
+        String prompt = buildPrompt(resumeText, jobRole);
+        return cached(SYSTEM_MESSAGE, prompt, () -> requestAnalysis(prompt));
+    }
+
+    // Answers from the response cache when one is configured; identical requests in flight share one call
+    private CompletableFuture<String> cached(String systemMessage, String prompt, Supplier<CompletableFuture<String>> loader) {
+        if (responseCache == null) {
+            return loader.get();
+        }
+        String key = LlmResponseCache.keyFor(settings.getModel(), PROMPT_VERSION, systemMessage, prompt);
+        return responseCache.get(key, loader);
+    }
+
+    // Completes the analyses of the batch's resumes from one batch request, falling back to single
+    // requests for those the reply does not cover
+    private void analyzeBatch(List<Integer> batch, List<String> resumeTexts, String jobRole,
+                              List<CompletableFuture<String>> analyses) {
+        List<String> texts = new ArrayList<>(batch.size());
+        List<CompletableFuture<String>> outcomes = new ArrayList<>(batch.size());
+        for (int index : batch) {
+            texts.add(resumeTexts.get(index));
+            outcomes.add(analyses.get(index));
+        }
+        String prompt = buildBatchPrompt(texts, jobRole);
+        CompletableFuture<String> response = cached(BATCH_SYSTEM_MESSAGE, prompt,
+            () -> requestBatchAnalysis(prompt).thenApply(content -> requireCompleteBatch(content, batch.size())));
+        response.whenComplete((content, error) -> {
+            if (error instanceof CancellationException) {
+                outcomes.forEach(outcome -> outcome.cancel(true));
+                return;
+            }
+            Throwable cause = error;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            Map<Integer, String> parsed = Map.of();
+            if (cause instanceof IncompleteBatchException) {
+                // Keep the analyses the reply did have
+                parsed = ((IncompleteBatchException) cause).analyses;
+                System.out.println("Warning: " + cause.getMessage() + "; analyzing the rest individually");
+            } else if (error != null) {
+                System.out.println("Warning: batch analysis failed, analyzing " + batch.size()
+                    + " resumes individually: " + error.getMessage());
+            } else {
+                try {
+                    parsed = parseBatchAnalysis(content);
+                } catch (IOException e) {
+                    System.out.println("Warning: " + e.getMessage() + "; analyzing " + batch.size()
+                        + " resumes individually");
+                }
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                String analysis = parsed.get(i + 1);
+                if (analysis != null && !analysis.isBlank()) {
+                    outcomes.get(i).complete(analysis);
+                } else if (!outcomes.get(i).isDone()) {
+                    completeFrom(outcomes.get(i), analyzePrepared(resumeTexts.get(batch.get(i)), jobRole));
+                }
+            }
+        });
+        CompletableFuture.allOf(outcomes.toArray(new CompletableFuture<?>[0])).whenComplete((done, error) -> {
+            if (outcomes.stream().allMatch(CompletableFuture::isCancelled)) {
+                response.cancel(true);
+            }
+        });
+    }
+
+    // Splits the resumes into batches in input order. A resume that does not fit the token budget
+    // together with the instructions is sent on its own with the regular single-resume prompt.
+    private List<List<Integer>> planBatches(List<String> resumeTexts, String jobRole) {
+        int overhead = TokenEstimator.estimate(BATCH_SYSTEM_MESSAGE)
+            + TokenEstimator.estimate(buildBatchPrompt(List.of(), jobRole));
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        int tokens = overhead;
+        for (int i = 0; i < resumeTexts.size(); i++) {
+            int cost = TokenEstimator.estimate(resumeTexts.get(i)) + CANDIDATE_HEADER_TOKENS;
+            if (!current.isEmpty() && (tokens + cost > settings.getBatchMaxTokens()
+                    || current.size() >= settings.getBatchMaxResumes())) {
+                batches.add(current);
+                current = new ArrayList<>();
+                tokens = overhead;
+            }
+            current.add(i);
+            tokens += cost;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private CompletableFuture<String> requestAnalysis(String prompt) {
+        return send(buildRequest(chatRequest(SYSTEM_MESSAGE, prompt)),
+            body -> extractAnalysis(body.string(), SYSTEM_MESSAGE, prompt));
+    }
+
+    private CompletableFuture<String> requestStreamingAnalysis(String prompt, Consumer<String> onDelta) {
+        ObjectNode requestBody = chatRequest(SYSTEM_MESSAGE, prompt);
+        requestBody.put("stream", true);
+        return send(buildRequest(requestBody), body -> readEventStream(body, prompt, onDelta));
+    }
+
+    private CompletableFuture<String> requestBatchAnalysis(String prompt) {
+        ObjectNode requestBody = chatRequest(BATCH_SYSTEM_MESSAGE, prompt);
+        requestBody.putObject("response_format").put("type", "json_object");
+        return send(buildRequest(requestBody), body -> extractAnalysis(body.string(), BATCH_SYSTEM_MESSAGE, prompt));
+    }
+
+    private ObjectNode chatRequest(String systemMessage, String prompt) {
         ObjectNode requestBody = objectMapper.createObjectNode();
-        requestBody.put("model", "llama-3.3-70b-versatile");
+        requestBody.put("model", settings.getModel());
         requestBody.putArray("messages")
             .add(objectMapper.createObjectNode()
                 .put("role", "system")
-                .put("content", "You are an expert resume analyzer and career counselor. Analyze the resume for the specified job role and provide detailed, actionable feedback."))
+                .put("content", systemMessage))
             .add(objectMapper.createObjectNode()
                 .put("role", "user")
                 .put("content", prompt));
+        return requestBody;
+    }
 
-        Request request = new Request.Builder()
-            .url(GROQ_API_URL)
+    private Request buildRequest(ObjectNode requestBody) {
+        return new Request.Builder()
+            .url(settings.getEndpoint())
             .addHeader("Authorization", "Bearer " + apiKey)
             .addHeader("Content-Type", "application/json")
             .post(RequestBody.create(requestBody.toString(), JSON))
             .build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String errorBody = response.body() != null ? response.body().string() : "No error details";
-                throw new IOException("API request failed with code " + response.code() + ": " + errorBody);
+    // Applies the rate limit, concurrency limit, retries and deadline to one request. The reader
+    // turns a successful response body into the result; failures before the body is read are retried.
+    private CompletableFuture<String> send(Request request, BodyReader reader) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicReference<Call> inFlight = new AtomicReference<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getDeadlineMillis());
+        result.orTimeout(settings.getDeadlineMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((body, error) -> {
+            // Deadline or cancellation: stop the HTTP exchange that is still running
+            Call call = inFlight.get();
+            if (error != null && call != null) {
+                call.cancel();
             }
+        });
+        attempt(request, reader, 0, deadline, inFlight, result);
+        return result;
+    }
 
-            String responseBody = response.body().string();
-            return extractAnalysis(responseBody);
+    private void attempt(Request request, BodyReader reader, int retry, long deadline,
+                         AtomicReference<Call> inFlight, CompletableFuture<String> result) {
+        long wait = rateLimiter.reserve(1);
+        Runnable acquire = () -> concurrencyLimiter.acquire()
+            .thenRun(() -> call(request, reader, retry, deadline, inFlight, result));
+        if (wait > 0) {
+            SCHEDULER.schedule(acquire, wait, TimeUnit.NANOSECONDS);
+        } else {
+            acquire.run();
         }
     }
 
+    private void call(Request request, BodyReader reader, int retry, long deadline,
+                      AtomicReference<Call> inFlight, CompletableFuture<String> result) {
+        long remaining = deadline - System.nanoTime();
+        if (result.isDone() || remaining <= 0) {
+            concurrencyLimiter.release();
+            result.completeExceptionally(new InterruptedIOException("Groq request exceeded its deadline"));
+            return;
+        }
+        Call call = client.newCall(request);
+        call.timeout().timeout(remaining, TimeUnit.NANOSECONDS);
+        inFlight.set(call);
+        if (result.isDone()) {
+            call.cancel();
+        }
+        long started = System.nanoTime();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                concurrencyLimiter.release();
+                PipelineMetrics.recordLlmRequest(call.isCanceled() ? "cancelled" : "network_error", started);
+                if (call.isCanceled() || retry >= retryPolicy.getMaxRetries()) {
+                    result.completeExceptionally(e);
+                } else {
+                    retryLater(request, reader, retry + 1, null, e, deadline, inFlight, result);
+                }
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.isSuccessful() && response.body() != null) {
+                        result.complete(reader.read(response.body()));
+                        return;
+                    }
+                    String responseBody = response.body() != null ? response.body().string() : "";
+                    IOException error = new IOException("API request failed with code " + response.code() + ": "
+                        + (responseBody.isEmpty() ? "No error details" : responseBody));
+                    if (retryPolicy.isRetryable(response.code()) && retry < retryPolicy.getMaxRetries()) {
+                        retryLater(request, reader, retry + 1, response.header("Retry-After"), error, deadline,
+                            inFlight, result);
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    concurrencyLimiter.release();
+                    PipelineMetrics.recordLlmRequest(String.valueOf(response.code()), started);
+                }
+            }
+        });
+    }
+
+    private void retryLater(Request request, BodyReader reader, int retry, String retryAfter, IOException lastError,
+                            long deadline, AtomicReference<Call> inFlight, CompletableFuture<String> result) {
+        long delay = retryPolicy.delayMillis(retry, retryAfter);
+        // Compared as time left, since a far-off Retry-After would overflow deadline arithmetic
+        if (TimeUnit.MILLISECONDS.toNanos(delay) >= deadline - System.nanoTime()) {
+            // Waiting would run past the deadline, so report the last failure now
+            result.completeExceptionally(lastError);
+            return;
+        }
+        PipelineMetrics.recordLlmRetry();
+        SCHEDULER.schedule(() -> attempt(request, reader, retry, deadline, inFlight, result), delay,
+            TimeUnit.MILLISECONDS);
+    }
+
     private String buildPrompt(String resumeText, String jobRole) {
         return String.format("""
             Please analyze this resume for a %s position. Provide a comprehensive analysis including:
@@ -70,16 +425,201 @@ public class GroqAnalyzer {
             """, jobRole, resumeText);
     }
 
-    private String extractAnalysis(String responseJson) throws IOException {
+    private String buildBatchPrompt(List<String> resumeTexts, String jobRole) {
+        StringBuilder prompt = new StringBuilder(String.format("""
+            Please analyze each of the following %d resumes for a %s position. For every candidate provide:
+            1. Overall assessment of the resume's strength and suitability for the role
+            2. Key qualifications and achievements that stand out
+            3. Critical skills or experiences that are missing for this role
+            4. Specific suggestions for improvement
+            5. Format and presentation feedback
+            6. Industry-specific recommendations
+
+            Write each analysis in markdown with clear sections and bullet points. Analyze every
+            candidate on its own merits; do not compare candidates.
+
+            Respond with a JSON object of the form
+            {"candidates": [{"id": 1, "analysis": "<markdown analysis>"}, ...]}
+            containing exactly one entry per candidate id.
+            """, resumeTexts.size(), jobRole));
+        for (int i = 0; i < resumeTexts.size(); i++) {
+            prompt.append("\n=== Candidate ").append(i + 1).append(" ===\n").append(resumeTexts.get(i)).append('\n');
+        }
+        return prompt.toString();
+    }
+
+    // Returns the batch reply unchanged when it has a non-blank analysis for every candidate, and
+    // fails otherwise (an IncompleteBatchException carries the analyses it did have), so the
+    // response cache never keeps a malformed or partial reply and the next identical batch is sent again
+    private String requireCompleteBatch(String content, int candidates) {
+        Map<Integer, String> analyses;
+        try {
+            analyses = parseBatchAnalysis(content);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        for (int id = 1; id <= candidates; id++) {
+            String analysis = analyses.get(id);
+            if (analysis == null || analysis.isBlank()) {
+                throw new CompletionException(new IncompleteBatchException(id, analyses));
+            }
+        }
+        return content;
+    }
+
+    // Maps candidate ids to their analyses; fails when the content is not the requested JSON
+    private Map<Integer, String> parseBatchAnalysis(String content) throws IOException {
+        JsonNode candidates;
+        try {
+            candidates = objectMapper.readTree(content).path("candidates");
+        } catch (Exception e) {
+            throw new IOException("Failed to parse batch analysis: " + e.getMessage());
+        }
+        if (!candidates.isArray()) {
+            throw new IOException("Batch analysis has no candidates array");
+        }
+        Map<Integer, String> analyses = new HashMap<>();
+        for (JsonNode candidate : candidates) {
+            if (candidate.path("id").canConvertToInt() && candidate.path("analysis").isTextual()) {
+                analyses.put(candidate.path("id").asInt(), candidate.path("analysis").asText());
+            }
+        }
+        return analyses;
+    }
+
+    private String extractAnalysis(String responseJson, String systemMessage, String prompt) throws IOException {
         try {
             ObjectNode root = (ObjectNode) objectMapper.readTree(responseJson);
-            return root.path("choices")
+            String content = root.path("choices")
                       .path(0)
                       .path("message")
                       .path("content")
                       .asText();
+            recordTokens(root.path("usage"), systemMessage, prompt, content);
+            return content;
         } catch (Exception e) {
             throw new IOException("Failed to parse API response: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Uses the token counts the API reports and falls back to local estimates
+    private static void recordTokens(JsonNode usage, String systemMessage, String prompt, String content) {
+        long in = usage.path("prompt_tokens").asLong(-1);
+        long out = usage.path("completion_tokens").asLong(-1);
+        PipelineMetrics.recordLlmTokens(
+            in >= 0 ? in : TokenEstimator.estimate(systemMessage) + TokenEstimator.estimate(prompt),
+            out >= 0 ? out : TokenEstimator.estimate(content));
+    }
+
+    // Reads "data:" lines of a server-sent event stream until [DONE], forwarding each content
+    // delta as soon as it arrives and returning the concatenated text
+    private String readEventStream(ResponseBody body, String prompt, Consumer<String> onDelta) throws IOException {
+        StringBuilder content = new StringBuilder();
+        JsonNode usage = MissingNode.getInstance();
+        BufferedSource source = body.source();
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                break;
+            }
+            JsonNode event;
+            try {
+                event = objectMapper.readTree(data);
+            } catch (Exception e) {
+                throw new IOException("Failed to parse API stream event: " + e.getMessage());
+            }
+            if (event.has("error")) {
+                throw new IOException("API stream failed: " + event.path("error").path("message").asText(data));
+            }
+            // Groq reports usage in x_groq on the last chunk, OpenAI-compatible servers in usage
+            if (event.path("x_groq").has("usage")) {
+                usage = event.path("x_groq").path("usage");
+            } else if (event.path("usage").isObject()) {
+                usage = event.path("usage");
+            }
+            String delta = event.path("choices").path(0).path("delta").path("content").asText("");
+            if (!delta.isEmpty()) {
+                content.append(delta);
+                onDelta.accept(delta);
+            }
+        }
+        String text = content.toString();
+        recordTokens(usage, SYSTEM_MESSAGE, prompt, text);
+        return text;
+    }
+
+    // Completes target as source does; cancelling target cancels source
+    private static <T> void completeFrom(CompletableFuture<T> target, CompletableFuture<T> source) {
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                target.completeExceptionally(error);
+            } else {
+                target.complete(value);
+            }
+        });
+        propagateCancel(target, source);
+    }
+
+    private static void propagateCancel(CompletableFuture<?> derived, CompletableFuture<?> source) {
+        derived.whenComplete((value, error) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the Groq API");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new InterruptedIOException("Groq request exceeded its deadline");
+            }
+            throw new IOException("Groq request failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private interface BodyReader {
+        String read(ResponseBody body) throws IOException;
+    }
+
+    private static Dispatcher newDispatcher() {
+        Dispatcher dispatcher = new Dispatcher(Executors.newCachedThreadPool(daemonThreads("groq-http")));
+        dispatcher.setMaxRequests(512);
+        dispatcher.setMaxRequestsPerHost(512);
+        return dispatcher;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // A batch reply without an analysis for some candidate; carries the analyses it did have
+    private static final class IncompleteBatchException extends IOException {
+        private static final long serialVersionUID = 1L;
+        private final transient Map<Integer, String> analyses;
+
+        IncompleteBatchException(int missing, Map<Integer, String> analyses) {
+            super("Batch analysis has no analysis for candidate " + missing);
+            this.analyses = analyses;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Decides which resumes of a batch go on from the keyword score to the AI analysis. A resume
+// qualifies with a score of at least minScore, a rank within the topRank best scores, or a score
+// inside the uncertainty band, where the keyword score alone says too little either way. At most
+// budget resumes get the AI analysis, the best keyword scores first; everything else keeps its
+// keyword result. A gate is off with a minScore above 100, a topRank of 0 or a band whose low end
+// is above its high end.
+public final class LlmCascade {
+
+    public enum Route {
+        SCORE("keyword score at or above the AI threshold", true),
+        RANK("among the best keyword scores", true),
+        UNCERTAIN("keyword score in the uncertainty band", true),
+        BELOW_GATE("keyword score below the AI threshold", false),
+        OVER_BUDGET("AI budget of the batch used up", false);
+
+        private final String description;
+        private final boolean llm;
+
+        Route(String description, boolean llm) {
+            this.description = description;
+            this.llm = llm;
+        }
+
+        public String getDescription() { return description; }
+        // True when the resume is sent to the AI analysis
+        public boolean usesLlm() { return llm; }
+    }
+
+    private final double minScore;
+    private final int topRank;
+    private final double uncertainLow;
+    private final double uncertainHigh;
+    private final int budget;
+
+    public LlmCascade(double minScore, int topRank, double uncertainLow, double uncertainHigh, int budget) {
+        if (topRank < 0 || budget < 0) {
+            throw new IllegalArgumentException("Invalid cascade settings");
+        }
+        this.minScore = minScore;
+        this.topRank = topRank;
+        this.uncertainLow = uncertainLow;
+        this.uncertainHigh = uncertainHigh;
+        this.budget = budget;
+    }
+
+    // Null when cascade.enabled is false, i.e. every resume gets the AI analysis
+    public static LlmCascade fromConfig() {
+        return ConfigManager.getInstance().getBoolean("cascade.enabled", true) ? configured() : null;
+    }
+
+    // The configured gates, whatever cascade.enabled says
+    public static LlmCascade configured() {
+        ConfigManager config = ConfigManager.getInstance();
+        return new LlmCascade(
+            config.getDouble("cascade.min.score", 60),
+            config.getInt("cascade.top.rank", 5),
+            config.getDouble("cascade.uncertain.low", 40),
+            config.getDouble("cascade.uncertain.high", 60),
+            config.getInt("cascade.budget", 20));
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    // One route per keyword score, in the same order
+    public Route[] route(double[] scores) {
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Best score first; equal scores keep the batch order
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+        Route[] routes = new Route[scores.length];
+        int sent = 0;
+        for (int rank = 0; rank < order.length; rank++) {
+            int i = order[rank];
+            Route route;
+            if (scores[i] >= minScore) {
+                route = Route.SCORE;
+            } else if (rank < topRank) {
+                route = Route.RANK;
+            } else if (scores[i] >= uncertainLow && scores[i] <= uncertainHigh) {
+                route = Route.UNCERTAIN;
+            } else {
+                route = Route.BELOW_GATE;
+            }
+            if (route.usesLlm()) {
+                if (sent < budget) {
+                    sent++;
+                } else {
+                    route = Route.OVER_BUDGET;
+                }
+            }
+            routes[i] = route;
+            PipelineMetrics.recordCascadeRoute(route.name().toLowerCase());
+        }
+        return routes;
+    }
+}
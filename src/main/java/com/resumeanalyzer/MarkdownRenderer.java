@@ -0,0 +1,27 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+
+// Converts the markdown analysis report to the HTML shown in the results WebView
+public final class MarkdownRenderer {
+    // Both are immutable and thread-safe, so one pair serves every render
+    private static final Parser PARSER = Parser.builder().build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    private MarkdownRenderer() {
+    }
+
+    public static String toHtml(String markdown) {
+        long start = System.nanoTime();
+        String html = render(markdown);
+        PipelineMetrics.recordRender(start, markdown.length());
+        return html;
+    }
+
+    // Same without recording a render, for the pieces of a streamed answer
+    static String render(String markdown) {
+        return RENDERER.render(PARSER.parse(markdown));
+    }
+}
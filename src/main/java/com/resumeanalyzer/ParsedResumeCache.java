@@ -0,0 +1,131 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.cache.ExtractedTextCache;
+import com.resumeanalyzer.dedup.DuplicateDetector;
+import com.resumeanalyzer.semantic.SemanticMatcher;
+import com.resumeanalyzer.semantic.SemanticResult;
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Resumes parsed in this session, so analyzing the same file for another role neither extracts
+// the text again nor makes another pass over it: the first score computes every role at once.
+// Entries are keyed by path, size and modification time, so an edited file is parsed again.
+// Concurrent requests for one file (a double click, or the same file selected twice) share a
+// single parse.
+final class ParsedResumeCache {
+    private static final int MAX_ENTRIES = 64;
+
+    private final ExtractedTextCache textCache;
+    private final DuplicateDetector duplicates;
+    private final Map<String, CompletableFuture<Parsed>> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Parsed>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // duplicates, if given, is consulted once per parsed file
+    ParsedResumeCache(ExtractedTextCache textCache, DuplicateDetector duplicates) {
+        this.textCache = textCache;
+        this.duplicates = duplicates;
+    }
+
+    Parsed get(File file) throws IOException, InterruptedException {
+        String key = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+        CompletableFuture<Parsed> entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new CompletableFuture<>();
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (owner) {
+            try {
+                String text = ResumeParser.extractText(file, textCache);
+                entry.complete(new Parsed(text, duplicates != null ? duplicates.check(file.getPath(), text) : null));
+            } catch (IOException | RuntimeException e) {
+                // Failures are not remembered; the next attempt parses again
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    static final class Parsed {
+        private final String text;
+        private final DuplicateDetector.Check duplicateCheck;
+        private KeywordIndex index;
+        private Map<String, ResumeAnalyzer.AnalysisResult> results;
+        private final Map<String, SemanticResult> semanticResults = new HashMap<>();
+
+        private Parsed(String text, DuplicateDetector.Check duplicateCheck) {
+            this.text = text;
+            this.duplicateCheck = duplicateCheck;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        // Null when duplicate detection is off
+        DuplicateDetector.Check getDuplicateCheck() {
+            return duplicateCheck;
+        }
+
+        // Scores every role on first use, and again once the taxonomy has been reloaded
+        synchronized ResumeAnalyzer.AnalysisResult result(String jobRole) {
+            refresh();
+            ResumeAnalyzer.AnalysisResult result = results.get(jobRole);
+            if (result == null) {
+                // Not a role of the current taxonomy; let the analyzer report it
+                result = ResumeAnalyzer.analyzeResume(text, jobRole);
+            }
+            return result;
+        }
+
+        synchronized SemanticResult semanticResult(String jobRole) {
+            refresh();
+            SemanticResult result = semanticResults.get(jobRole);
+            if (result == null) {
+                result = SemanticMatcher.current().match(text, jobRole);
+                semanticResults.put(jobRole, result);
+            }
+            return result;
+        }
+
+        private void refresh() {
+            KeywordIndex current = KeywordTaxonomy.current();
+            if (index != current || results == null) {
+                index = current;
+                results = ResumeAnalyzer.analyzeAllRoles(text);
+                semanticResults.clear();
+            }
+        }
+    }
+}
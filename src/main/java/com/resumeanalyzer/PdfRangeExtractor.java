@@ -0,0 +1,121 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.config.ConfigManager;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Strips long PDFs in page ranges at once. PDFTextStripper writes every page on its own and ends
+// it with the page separator, so the ranges joined in order are exactly the text of one pass over
+// the whole document. PDDocument is not thread-safe: each range beyond the first loads its own
+// instance, which parses the cross-reference table and page tree again and keeps its own buffers
+// for the streams it decodes. Those buffers would grow in heap without bound, so the instances
+// share one budget of memoryBytes of heap (split evenly between the pool's threads) and spill the
+// rest to scratch files; a big range then costs disk I/O instead of another copy of the document
+// in heap. The ranges run on a shared work-stealing pool, so a range stuck on a heavy page does not
+// hold up the others, and documents below minPages are stripped in one pass as before.
+final class PdfRangeExtractor {
+    private static PdfRangeExtractor shared;
+
+    private final int minPages;
+    private final int pagesPerRange;
+    private final long memoryBytes;
+    private final ForkJoinPool pool;
+
+    interface Loader {
+        PDDocument load(MemoryUsageSetting memory) throws IOException;
+    }
+
+    PdfRangeExtractor(int minPages, int pagesPerRange, int threads, long memoryBytes) {
+        if (minPages < 2 || pagesPerRange < 1 || threads < 1 || memoryBytes < 0) {
+            throw new IllegalArgumentException("Invalid parallel PDF settings");
+        }
+        this.minPages = minPages;
+        this.pagesPerRange = pagesPerRange;
+        this.memoryBytes = memoryBytes;
+        // Worker threads of a ForkJoinPool are daemons, so an idle pool never keeps the JVM alive
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    // Reads parser.parallel.* and parser.memory.mb from config.properties once
+    static synchronized PdfRangeExtractor shared() {
+        if (shared == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            int threads = config.getBoolean("parser.parallel.enabled", true)
+                ? config.getInt("parser.parallel.threads", Runtime.getRuntime().availableProcessors())
+                : 1;
+            shared = new PdfRangeExtractor(config.getInt("parser.parallel.min.pages", 24),
+                config.getInt("parser.parallel.pages.per.range", 8), Math.max(1, threads),
+                config.getLong("parser.memory.mb", 16) * 1024 * 1024);
+        }
+        return shared;
+    }
+
+    // Text of the whole document; loader opens another instance of the same document
+    String getText(PDDocument document, Loader loader) throws IOException {
+        int pages = document.getNumberOfPages();
+        if (pool == null || pages < minPages) {
+            return newStripper().getText(document);
+        }
+        // At least two ranges per worker, so the pool can balance uneven pages
+        int rangeSize = Math.max(pagesPerRange, -Math.floorDiv(-pages, pool.getParallelism() * 2));
+        long copyMemoryBytes = memoryBytes / pool.getParallelism();
+        List<ForkJoinTask<String>> ranges = new ArrayList<>();
+        try {
+            for (int first = rangeSize + 1; first <= pages; first += rangeSize) {
+                int start = first;
+                int end = Math.min(pages, first + rangeSize - 1);
+                ranges.add(pool.submit(() -> {
+                    try (PDDocument copy = loader.load(MemoryUsageSetting.setupMixed(copyMemoryBytes))) {
+                        return strip(copy, start, end);
+                    }
+                }));
+            }
+            // The caller strips the first range with the document it already has
+            StringBuilder text = new StringBuilder(strip(document, 1, rangeSize));
+            for (ForkJoinTask<String> range : ranges) {
+                text.append(range.get());
+            }
+            return text.toString();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PDF extraction interrupted");
+        } finally {
+            for (ForkJoinTask<String> range : ranges) {
+                range.cancel(false);
+            }
+        }
+    }
+
+    // Every page ends with a form feed after its last line, so later stages can tell where pages
+    // begin (PromptPreprocessor uses it to find running headers and footers)
+    static PDFTextStripper newStripper() throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setPageEnd(stripper.getLineSeparator() + "\f");
+        return stripper;
+    }
+
+    private static String strip(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = newStripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(document);
+    }
+}
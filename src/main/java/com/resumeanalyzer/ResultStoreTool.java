@@ -0,0 +1,172 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.results.ResultExporter;
+import com.resumeanalyzer.results.ResultFilter;
+import com.resumeanalyzer.results.ResultReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Filters and exports a result store written by BatchScorer --store or the GUI.
+//
+//   java -cp resume-analyzer.jar com.resumeanalyzer.ResultStoreTool <command> --store <dir> ...
+//
+// Commands:
+//   info                                  number of results per role
+//   export [options]                      write matching results as CSV or JSON Lines
+//
+// Export options:
+//   --role "Role"             only this role
+//   --min-score <x>           only scores of at least x
+//   --max-score <x>           only scores of at most x
+//   --with <keyword>          only resumes where the keyword was found (repeatable; any case, or a
+//                             synonym such as k8s; an unknown keyword is an error)
+//   --without <keyword>       only resumes where it was not (repeatable)
+//   --latest                  only the last result for each file and role
+//   --sort score|stored       best score first, or the order results were stored (default)
+//   --limit <n>               at most n results
+//   --format csv|jsonl        output format (default: csv)
+//   --output <file>           write to a file instead of stdout
+public class ResultStoreTool {
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: ResultStoreTool info --store dir");
+            System.err.println("       ResultStoreTool export --store dir [--role r] [--min-score x] [--max-score x] "
+                + "[--with kw] [--without kw] [--latest] [--sort score|stored] [--limit n] [--format csv|jsonl] "
+                + "[--output file]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Missing command");
+        }
+        String command = args[0];
+        String storeDir = null;
+        String format = "csv";
+        String output = null;
+        ResultFilter.Builder filter = ResultFilter.builder();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--store":
+                    storeDir = value(args, ++i, arg);
+                    break;
+                case "--role":
+                    filter.role(value(args, ++i, arg));
+                    break;
+                case "--min-score":
+                    filter.minScore(Double.parseDouble(value(args, ++i, arg)));
+                    break;
+                case "--max-score":
+                    filter.maxScore(Double.parseDouble(value(args, ++i, arg)));
+                    break;
+                case "--with":
+                    filter.withKeyword(value(args, ++i, arg));
+                    break;
+                case "--without":
+                    filter.withoutKeyword(value(args, ++i, arg));
+                    break;
+                case "--latest":
+                    filter.latestOnly();
+                    break;
+                case "--sort":
+                    String sort = value(args, ++i, arg);
+                    if (sort.equals("score")) {
+                        filter.sortByScore();
+                    } else if (!sort.equals("stored")) {
+                        throw new IllegalArgumentException("Unknown sort: " + sort);
+                    }
+                    break;
+                case "--limit":
+                    filter.limit(Integer.parseInt(value(args, ++i, arg)));
+                    break;
+                case "--format":
+                    format = value(args, ++i, arg);
+                    if (!format.equals("csv") && !format.equals("jsonl")) {
+                        throw new IllegalArgumentException("Unknown format: " + format);
+                    }
+                    break;
+                case "--output":
+                    output = value(args, ++i, arg);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (storeDir == null) {
+            throw new IllegalArgumentException("Missing --store");
+        }
+        Path store = Paths.get(storeDir);
+
+        switch (command) {
+            case "info":
+                return info(store);
+            case "export":
+                return export(store, filter.build(), format, output);
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    private static int info(Path store) throws IOException {
+        try (ResultReader reader = ResultReader.open(store)) {
+            System.out.printf("%d results in %s%n", reader.rows(), store);
+            for (String role : ResumeAnalyzer.getJobRoles()) {
+                int count = reader.scan(ResultFilter.builder().role(role).build()).length;
+                if (count > 0) {
+                    System.out.printf("%8d\t%s%n", count, role);
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int export(Path store, ResultFilter filter, String format, String output) throws IOException {
+        long start = System.currentTimeMillis();
+        try (ResultReader reader = ResultReader.open(store);
+             Writer out = new BufferedWriter(new OutputStreamWriter(output != null
+                 ? new FileOutputStream(output)
+                 : new FilterOutputStream(System.out) {
+                     // FilterOutputStream would pass the buffer on one byte at a time, each a
+                     // synchronized call into System.out
+                     @Override
+                     public void write(byte[] b, int off, int len) throws IOException {
+                         out.write(b, off, len);
+                     }
+
+                     @Override
+                     public void close() throws IOException {
+                         flush(); // never close stdout
+                     }
+                 }, StandardCharsets.UTF_8), 1 << 16)) {
+            int[] rows = reader.scan(filter);
+            long scanned = System.currentTimeMillis();
+            if (format.equals("jsonl")) {
+                ResultExporter.writeJsonLines(reader, rows, out);
+            } else {
+                ResultExporter.writeCsv(reader, rows, out);
+            }
+            System.err.printf("Exported %d of %d results (scan %d ms, total %d ms)%n", rows.length, reader.rows(),
+                scanned - start, System.currentTimeMillis() - start);
+        }
+        return 0;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,144 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.dedup.DuplicateDetector;
+import com.resumeanalyzer.semantic.SemanticResult;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Analysis of one resume for the GUI, run on the app's worker pool. Everything the task needs is
+// captured when it is created on the FX thread, so it never reads the controls. Progress and
+// message follow the stages: parse, score, AI. The value is first set to the keyword report
+// (AI still pending), then to the complete report. Cancelling the task cancels the AI request,
+// which aborts its HTTP call.
+class ResumeAnalysisTask extends Task<ResumeAnalysisTask.Report> {
+    private final File file;
+    private final String jobRole;
+    private final boolean semantic;
+    private final Supplier<GroqAnalyzer> groqAnalyzer;
+    private final Consumer<String> onAiDelta;
+    private final ParsedResumeCache parsedResumes;
+    private volatile CompletableFuture<String> aiAnalysis;
+
+    // groqAnalyzer is null for no AI analysis, and only called if the resume gets that far; with
+    // onAiDelta the answer is streamed to it
+    ResumeAnalysisTask(File file, String jobRole, boolean semantic, Supplier<GroqAnalyzer> groqAnalyzer,
+                       Consumer<String> onAiDelta, ParsedResumeCache parsedResumes) {
+        this.file = file;
+        this.jobRole = jobRole;
+        this.semantic = semantic;
+        this.groqAnalyzer = groqAnalyzer;
+        this.onAiDelta = onAiDelta;
+        this.parsedResumes = parsedResumes;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    @Override
+    protected Report call() throws Exception {
+        int stages = groqAnalyzer != null ? 3 : 2;
+        updateMessage("Parsing " + file.getName());
+        updateProgress(0, stages);
+        ParsedResumeCache.Parsed parsed = parsedResumes.get(file);
+        if (isCancelled()) {
+            return null;
+        }
+
+        updateMessage("Scoring " + file.getName());
+        updateProgress(1, stages);
+        ResumeAnalyzer.AnalysisResult result = parsed.result(jobRole);
+        SemanticResult semanticResult = semantic ? parsed.semanticResult(jobRole) : null;
+        DuplicateDetector.Check duplicate = parsed.getDuplicateCheck();
+        Report report = new Report(file, jobRole, result, semanticResult, duplicate, null, null, false);
+        if (groqAnalyzer == null || isCancelled()) {
+            updateProgress(stages, stages);
+            return report;
+        }
+        updateValue(report);
+
+        updateMessage("AI analysis of " + file.getName());
+        updateProgress(2, stages);
+        // A near-duplicate of a resume analyzed before for this role takes its answer instead of paying for another
+        String reused = duplicate != null ? duplicate.reusableAiAnalysis(jobRole) : null;
+        if (reused != null) {
+            if (onAiDelta != null) {
+                onAiDelta.accept(reused);
+            }
+            updateProgress(stages, stages);
+            return new Report(file, jobRole, result, semanticResult, duplicate, reused, null, true);
+        }
+        CompletableFuture<String> analysis = onAiDelta != null
+            ? groqAnalyzer.get().analyzeResumeStreaming(parsed.getText(), jobRole, onAiDelta)
+            : groqAnalyzer.get().analyzeResumeAsync(parsed.getText(), jobRole);
+        aiAnalysis = analysis;
+        if (isCancelled()) {
+            analysis.cancel(true);
+            return null;
+        }
+        String aiText = null;
+        String aiError = null;
+        try {
+            aiText = analysis.get();
+            if (duplicate != null) {
+                duplicate.recordAiAnalysis(jobRole, aiText);
+            }
+        } catch (ExecutionException e) {
+            aiError = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        }
+        updateProgress(stages, stages);
+        return new Report(file, jobRole, result, semanticResult, duplicate, aiText, aiError, false);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        CompletableFuture<String> analysis = aiAnalysis;
+        if (analysis != null) {
+            analysis.cancel(true);
+        }
+        return cancelled;
+    }
+
+    static final class Report {
+        private final File file;
+        private final String jobRole;
+        private final ResumeAnalyzer.AnalysisResult result;
+        private final SemanticResult semanticResult;
+        private final DuplicateDetector.Check duplicate;
+        private final String aiAnalysis;
+        private final String aiError;
+        private final boolean aiReused;
+
+        Report(File file, String jobRole, ResumeAnalyzer.AnalysisResult result, SemanticResult semanticResult,
+               DuplicateDetector.Check duplicate, String aiAnalysis, String aiError, boolean aiReused) {
+            this.file = file;
+            this.jobRole = jobRole;
+            this.result = result;
+            this.semanticResult = semanticResult;
+            this.duplicate = duplicate;
+            this.aiAnalysis = aiAnalysis;
+            this.aiError = aiError;
+            this.aiReused = aiReused;
+        }
+
+        File getFile() { return file; }
+        String getJobRole() { return jobRole; }
+        ResumeAnalyzer.AnalysisResult getResult() { return result; }
+        // Null unless semantic matching was requested
+        SemanticResult getSemanticResult() { return semanticResult; }
+        // Null when duplicate detection is off
+        DuplicateDetector.Check getDuplicate() { return duplicate; }
+        // Null unless AI analysis was requested and succeeded
+        String getAiAnalysis() { return aiAnalysis; }
+        // Why the AI analysis failed, or null
+        String getAiError() { return aiError; }
+        // True when the AI analysis was taken from a near-duplicate resume
+        boolean isAiReused() { return aiReused; }
+    }
+}
@@ -1,169 +1,357 @@
 package com.resumeanalyzer;
 
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.matching.KeywordMatcher;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import com.resumeanalyzer.scoring.CorpusStats;
+import com.resumeanalyzer.scoring.RelevanceScorer;
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class ResumeAnalyzer {
-    private static final Map<String, Set<String>> JOB_KEYWORDS = new HashMap<>();
-    
-    static {
-        // Frontend Developer keywords
-        Set<String> frontendKeywords = new HashSet<>(Arrays.asList(
-            "html", "css", "javascript", "react", "angular", "vue", "typescript",
-            "responsive design", "ui/ux", "bootstrap", "sass", "webpack", "npm",
-            "git", "rest api", "ajax", "jquery", "redux", "next.js"
-        ));
-        JOB_KEYWORDS.put("Frontend Developer", frontendKeywords);
-
-        // Backend Developer keywords
-        Set<String> backendKeywords = new HashSet<>(Arrays.asList(
-            "java", "python", "node.js", "spring", "django", "express",
-            "sql", "nosql", "mongodb", "postgresql", "mysql", "rest api",
-            "graphql", "microservices", "docker", "kubernetes", "aws", "azure"
-        ));
-        JOB_KEYWORDS.put("Backend Developer", backendKeywords);
-
-        // Full Stack Developer keywords
-        Set<String> fullStackKeywords = new HashSet<>();
-        fullStackKeywords.addAll(frontendKeywords);
-        fullStackKeywords.addAll(backendKeywords);
-        fullStackKeywords.addAll(Arrays.asList(
-            "full stack", "devops", "ci/cd", "testing", "agile",
-            "system design", "api design", "web security", "oauth",
-            "jwt", "redis", "elasticsearch"
-        ));
-        JOB_KEYWORDS.put("Full Stack Developer", fullStackKeywords);
-
-        // Data Analyst keywords
-        Set<String> dataAnalystKeywords = new HashSet<>(Arrays.asList(
-            "python", "r", "sql", "excel", "tableau", "power bi",
-            "data visualization", "statistics", "machine learning", "pandas",
-            "numpy", "matplotlib", "seaborn", "data cleaning", "etl"
-        ));
-        JOB_KEYWORDS.put("Data Analyst", dataAnalystKeywords);
-
-        // Machine Learning Engineer keywords
-        Set<String> mlEngineerKeywords = new HashSet<>(Arrays.asList(
-            "python", "tensorflow", "pytorch", "scikit-learn", "keras",
-            "deep learning", "machine learning", "neural networks", "nlp",
-            "computer vision", "data preprocessing", "feature engineering",
-            "model deployment", "mlops", "jupyter", "pandas", "numpy",
-            "data mining", "optimization", "regression", "classification"
-        ));
-        JOB_KEYWORDS.put("Machine Learning Engineer", mlEngineerKeywords);
-
-        // DevOps Engineer keywords
-        Set<String> devOpsKeywords = new HashSet<>(Arrays.asList(
-            "docker", "kubernetes", "jenkins", "aws", "azure", "gcp",
-            "terraform", "ansible", "ci/cd", "git", "linux", "shell scripting",
-            "monitoring", "logging", "prometheus", "grafana", "nginx",
-            "security", "automation", "configuration management", "cloud"
-        ));
-        JOB_KEYWORDS.put("DevOps Engineer", devOpsKeywords);
-
-        // UI/UX Designer keywords
-        Set<String> uiUxKeywords = new HashSet<>(Arrays.asList(
-            "figma", "sketch", "adobe xd", "photoshop", "illustrator",
-            "wireframing", "prototyping", "user research", "usability testing",
-            "information architecture", "interaction design", "visual design",
-            "responsive design", "accessibility", "typography", "color theory",
-            "user flows", "design systems", "design thinking", "user-centered design"
-        ));
-        JOB_KEYWORDS.put("UI/UX Designer", uiUxKeywords);
+
+    // Roles, keywords, synonyms, weights and suggestion rules come from the keyword taxonomy
+    // (taxonomy.json). Each call takes the current index once, so a reload in the middle of a
+    // call cannot mix two versions of the taxonomy.
+
+    // Occurrence counts per matcher id, reused by every call on the same thread
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[0]);
+
+    // Missing skills named in the suggestions
+    private static final int SUGGESTED_SKILLS = 5;
+
+    private static volatile RelevanceScorer scorer;
+
+    public static Set<String> getJobRoles() {
+        return KeywordTaxonomy.current().roleNames();
+    }
+
+    // Section headings the suggestions look for, most important for an analysis first
+    public static List<String> getSectionMarkers() {
+        return KeywordTaxonomy.current().sections();
+    }
+
+    public static Set<String> getKeywords(String jobRole) {
+        KeywordIndex index = KeywordTaxonomy.current();
+        KeywordIndex.Role role = index.role(jobRole);
+        Set<String> keywords = new LinkedHashSet<>();
+        for (int i = 0; i < role.keywordCount(); i++) {
+            keywords.add(index.keyword(role.keywordId(i)));
+        }
+        return Collections.unmodifiableSet(keywords);
     }
 
     public static AnalysisResult analyzeResume(String resumeText, String jobRole) {
-        if (!JOB_KEYWORDS.containsKey(jobRole)) {
-            throw new IllegalArgumentException("Unsupported job role: " + jobRole);
-        }
-
-        Set<String> keywords = JOB_KEYWORDS.get(jobRole);
-        Set<String> foundKeywords = new HashSet<>();
-        Set<String> missingKeywords = new HashSet<>(keywords);
-        
-        String lowerResumeText = resumeText.toLowerCase();
-        
-        // Check for keywords
-        for (String keyword : keywords) {
-            if (lowerResumeText.contains(keyword.toLowerCase())) {
-                foundKeywords.add(keyword);
-                missingKeywords.remove(keyword);
+        KeywordIndex index = KeywordTaxonomy.current();
+        KeywordIndex.Role role = index.role(jobRole);
+
+        // Count all keywords, synonyms and markers in a single pass over the text
+        long start = System.nanoTime();
+        int[] counts = counts(index);
+        long words = index.matcher().count(resumeText, counts);
+        AnalysisResult result = buildResult(index, role, counts, words, scorer());
+        PipelineMetrics.recordScore(jobRole, start);
+        return result;
+    }
+
+    // Scores a file while it is being extracted, so only one page or paragraph is in memory at a time
+    public static AnalysisResult analyzeResume(File file, String jobRole, ResumeParser.ExtractionLimits limits)
+            throws IOException {
+        KeywordIndex index = KeywordTaxonomy.current();
+        KeywordIndex.Role role = index.role(jobRole);
+
+        int[] counts = counts(index);
+        KeywordMatcher.Session session = index.matcher().newCountingSession(counts);
+        ResumeParser.extractText(file, limits, session::feed);
+        session.finish();
+        return buildResult(index, role, counts, session.wordCount(), scorer());
+    }
+
+    // Scores the text against every role with a single pass over it
+    public static Map<String, AnalysisResult> analyzeAllRoles(String resumeText) {
+        KeywordIndex index = KeywordTaxonomy.current();
+        return analyzeRoles(index, resumeText, index.roleNames(), null);
+    }
+
+    // Scores the text against the given roles with a single pass over it, keeping the roles' order
+    public static Map<String, AnalysisResult> analyzeRoles(String resumeText, Collection<String> jobRoles) {
+        return analyzeRoles(KeywordTaxonomy.current(), resumeText, jobRoles, null);
+    }
+
+    // Same, and also records the resume in ingestInto (e.g. statistics collected by a batch run)
+    public static Map<String, AnalysisResult> analyzeRoles(String resumeText, Collection<String> jobRoles,
+                                                           CorpusStats ingestInto) {
+        return analyzeRoles(KeywordTaxonomy.current(), resumeText, jobRoles, ingestInto);
+    }
+
+    // Corpus statistics the relevance score takes its IDF values from
+    public static CorpusStats getCorpusStats() {
+        return scorer().getStats();
+    }
+
+    public static void setCorpusStats(CorpusStats stats) {
+        scorer = new RelevanceScorer(stats);
+    }
+
+    private static Map<String, AnalysisResult> analyzeRoles(KeywordIndex index, String resumeText,
+                                                            Collection<String> jobRoles, CorpusStats ingestInto) {
+        List<KeywordIndex.Role> roles = new ArrayList<>(jobRoles.size());
+        for (String jobRole : jobRoles) {
+            roles.add(index.role(jobRole));
+        }
+
+        long start = System.nanoTime();
+        int[] counts = counts(index);
+        long words = index.matcher().count(resumeText, counts);
+        RelevanceScorer relevance = scorer();
+        Map<String, AnalysisResult> results = new LinkedHashMap<>();
+        for (KeywordIndex.Role role : roles) {
+            results.put(role.getName(), buildResult(index, role, counts, words, relevance));
+        }
+        if (ingestInto != null) {
+            ingestInto.add(index, counts, words);
+        }
+        PipelineMetrics.recordScore("all", start);
+        return results;
+    }
+
+    // Returns the best matching roles, highest score first
+    public static Map<String, AnalysisResult> rankRoles(String resumeText, int topN) {
+        List<Map.Entry<String, AnalysisResult>> ranked = new ArrayList<>(analyzeAllRoles(resumeText).entrySet());
+        ranked.sort((a, b) -> Double.compare(b.getValue().getScore(), a.getValue().getScore()));
+        Map<String, AnalysisResult> top = new LinkedHashMap<>();
+        for (Map.Entry<String, AnalysisResult> entry : ranked.subList(0, Math.min(topN, ranked.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    private static AnalysisResult buildResult(KeywordIndex index, KeywordIndex.Role role, int[] counts, long words,
+                                              RelevanceScorer relevance) {
+        // Found keywords as bits over the taxonomy's keyword ids; missing ones are the rest of the role
+        long[] found = new long[(index.keywordCount() + 63) >>> 6];
+        int foundCount = 0;
+        for (int i = 0; i < role.keywordCount(); i++) {
+            int id = role.keywordId(i);
+            if (counts[id] > 0) {
+                found[id >>> 6] |= 1L << id;
+                foundCount++;
             }
         }
+        PipelineMetrics.recordKeywordsMatched(role.getName(), foundCount);
 
-        // Calculate score
-        double score = (double) foundKeywords.size() / keywords.size() * 100;
-        
-        // Generate suggestions
-        List<String> suggestions = new ArrayList<>();
-        
-        // Suggest most important missing keywords (limit to top 5)
-        if (!missingKeywords.isEmpty()) {
-            List<String> topMissingKeywords = new ArrayList<>(missingKeywords);
-            Collections.shuffle(topMissingKeywords); // Randomize to avoid same suggestions every time
-            int suggestCount = Math.min(5, topMissingKeywords.size());
-            suggestions.add("Consider adding these key skills: " + 
-                String.join(", ", topMissingKeywords.subList(0, suggestCount)));
-        }
-        
-        // Check for common sections
-        if (!lowerResumeText.contains("education")) {
-            suggestions.add("Add an Education section to highlight your academic background");
-        }
-        if (!lowerResumeText.contains("experience")) {
-            suggestions.add("Add an Experience section to showcase your work history");
-        }
-        if (!lowerResumeText.contains("skills")) {
-            suggestions.add("Add a Skills section to list your technical and soft skills");
-        }
-        if (!lowerResumeText.contains("project")) {
-            suggestions.add("Add a Projects section to demonstrate practical experience");
-        }
-
-        // Add role-specific suggestions
-        switch (jobRole) {
-            case "Frontend Developer":
-                if (!lowerResumeText.contains("portfolio")) {
-                    suggestions.add("Consider adding a link to your portfolio website");
-                }
-                break;
-            case "UI/UX Designer":
-                if (!lowerResumeText.contains("portfolio") && !lowerResumeText.contains("behance") && 
-                    !lowerResumeText.contains("dribbble")) {
-                    suggestions.add("Add links to your design portfolio (Behance/Dribbble)");
-                }
-                break;
-            case "Machine Learning Engineer":
-                if (!lowerResumeText.contains("github") && !lowerResumeText.contains("kaggle")) {
-                    suggestions.add("Include links to your GitHub projects or Kaggle competitions");
-                }
-                break;
-            case "DevOps Engineer":
-                if (!lowerResumeText.contains("certification")) {
-                    suggestions.add("Consider adding relevant cloud certifications (AWS/Azure/GCP)");
-                }
-                break;
+        // Weighted by keyword weight, corpus IDF and how often each keyword is mentioned
+        double score = relevance.score(index, role, counts, words);
+
+        // The missing skills worth most to the score, always in the same order for the same input
+        int[] topMissing = relevance.topMissing(index, role, counts, SUGGESTED_SKILLS);
+
+        // Common sections first, then the role-specific rules
+        List<KeywordIndex.Rule> rules = role.getRules();
+        long[] firedRules = new long[(rules.size() + 63) >>> 6];
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).applies(counts)) {
+                firedRules[i >>> 6] |= 1L << i;
+            }
         }
 
-        return new AnalysisResult(score, foundKeywords, missingKeywords, suggestions);
+        return new AnalysisResult(score, index, role, found, foundCount, topMissing, firedRules);
     }
 
+    // Zeroed scratch array covering every id of the index's matcher
+    private static int[] counts(KeywordIndex index) {
+        int[] counts = COUNTS.get();
+        if (counts.length < index.idCount()) {
+            counts = new int[index.idCount()];
+            COUNTS.set(counts);
+        } else {
+            Arrays.fill(counts, 0);
+        }
+        return counts;
+    }
+
+    // Statistics come from scoring.corpus.file when it is set; otherwise the corpus starts empty
+    // and the score depends on the keyword weights and mention counts only
+    private static RelevanceScorer scorer() {
+        RelevanceScorer current = scorer;
+        if (current == null) {
+            synchronized (ResumeAnalyzer.class) {
+                if (scorer == null) {
+                    CorpusStats stats = new CorpusStats();
+                    String file = ConfigManager.getInstance().getProperty("scoring.corpus.file", null);
+                    if (file != null) {
+                        try {
+                            stats = CorpusStats.loadOrEmpty(Paths.get(file));
+                        } catch (IOException e) {
+                            System.out.println("Warning: could not load corpus statistics " + file + ": " + e.getMessage());
+                        }
+                    }
+                    scorer = new RelevanceScorer(stats);
+                }
+                current = scorer;
+            }
+        }
+        return current;
+    }
+
+    // A result holds the found keywords as a bitset over the taxonomy's keyword ids, the ranked
+    // missing skills and the fired rules; the sets and suggestions are built from them on first use.
     public static class AnalysisResult {
         private final double score;
-        private final Set<String> foundKeywords;
-        private final Set<String> missingKeywords;
-        private final List<String> suggestions;
+        private final KeywordIndex index;
+        private final KeywordIndex.Role role;
+        private final long[] found;
+        private final int foundCount;
+        private final int[] topMissing;
+        private final long[] firedRules;
+        private volatile Set<String> foundKeywords;
+        private volatile Set<String> missingKeywords;
+        private volatile List<String> suggestions;
 
         public AnalysisResult(double score, Set<String> foundKeywords, 
                             Set<String> missingKeywords, List<String> suggestions) {
             this.score = score;
+            this.index = null;
+            this.role = null;
+            this.found = null;
+            this.foundCount = foundKeywords.size();
+            this.topMissing = null;
+            this.firedRules = null;
             this.foundKeywords = foundKeywords;
             this.missingKeywords = missingKeywords;
             this.suggestions = suggestions;
         }
 
+        private AnalysisResult(double score, KeywordIndex index, KeywordIndex.Role role, long[] found,
+                               int foundCount, int[] topMissing, long[] firedRules) {
+            this.score = score;
+            this.index = index;
+            this.role = role;
+            this.found = found;
+            this.foundCount = foundCount;
+            this.topMissing = topMissing;
+            this.firedRules = firedRules;
+        }
+
         public double getScore() { return score; }
-        public Set<String> getFoundKeywords() { return foundKeywords; }
-        public Set<String> getMissingKeywords() { return missingKeywords; }
-        public List<String> getSuggestions() { return suggestions; }
+        public int getFoundCount() { return foundCount; }
+
+        // In keyword order
+        public Set<String> getFoundKeywords() {
+            Set<String> view = foundKeywords;
+            if (view == null) {
+                view = new KeywordView(true);
+                foundKeywords = view;
+            }
+            return view;
+        }
+
+        public Set<String> getMissingKeywords() {
+            Set<String> view = missingKeywords;
+            if (view == null) {
+                view = new KeywordView(false);
+                missingKeywords = view;
+            }
+            return view;
+        }
+
+        // Up to SUGGESTED_SKILLS missing keywords, the ones that would add most to the score first
+        public List<String> getTopMissingKeywords() {
+            if (topMissing == null) {
+                List<String> sorted = new ArrayList<>(new TreeSet<>(missingKeywords));
+                return sorted.subList(0, Math.min(SUGGESTED_SKILLS, sorted.size()));
+            }
+            String[] keywords = new String[topMissing.length];
+            for (int i = 0; i < topMissing.length; i++) {
+                keywords[i] = index.keyword(topMissing[i]);
+            }
+            return List.of(keywords);
+        }
+
+        public List<String> getSuggestions() {
+            List<String> list = suggestions;
+            if (list == null) {
+                List<String> built = new ArrayList<>();
+                if (topMissing.length > 0) {
+                    built.add("Consider adding these key skills: " + String.join(", ", getTopMissingKeywords()));
+                }
+                List<KeywordIndex.Rule> rules = role.getRules();
+                for (int i = 0; i < rules.size(); i++) {
+                    if (isSet(firedRules, i)) {
+                        built.add(rules.get(i).getSuggestion());
+                    }
+                }
+                list = Collections.unmodifiableList(built);
+                suggestions = list;
+            }
+            return list;
+        }
+
+        private boolean isFound(int keywordId) {
+            return isSet(found, keywordId);
+        }
+
+        private static boolean isSet(long[] bits, int i) {
+            return (bits[i >>> 6] & (1L << i)) != 0;
+        }
+
+        // Read-only view of the role's found or missing keywords, backed by the bitset
+        private final class KeywordView extends AbstractSet<String> {
+            private final boolean found;
+
+            KeywordView(boolean found) {
+                this.found = found;
+            }
+
+            @Override
+            public int size() {
+                return found ? foundCount : role.keywordCount() - foundCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof String)) {
+                    return false;
+                }
+                // Elements are the keywords as the taxonomy stores them, so only those exact names match
+                int id = index.keywordId((String) o);
+                return id >= 0 && index.keyword(id).equals(o) && role.hasKeyword(id) && isFound(id) == found;
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int next = advance(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < role.keywordCount();
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        String keyword = index.keyword(role.keywordId(next));
+                        next = advance(next + 1);
+                        return keyword;
+                    }
+                };
+            }
+
+            // Position of the first role keyword at or after i that belongs to this view
+            private int advance(int i) {
+                while (i < role.keywordCount() && isFound(role.keywordId(i)) != found) {
+                    i++;
+                }
+                return i;
+            }
+        }
     }
-} 
\ No newline at end of file
+}
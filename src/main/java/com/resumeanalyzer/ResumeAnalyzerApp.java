@@ -1,6 +1,13 @@
 package com.resumeanalyzer;
 
+import com.resumeanalyzer.cache.ExtractedTextCache;
 import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.dedup.DuplicateDetector;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import com.resumeanalyzer.results.ResultStore;
+import com.resumeanalyzer.semantic.SemanticMatcher;
+import com.resumeanalyzer.semantic.SemanticResult;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -15,28 +22,83 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.Node;
 import java.io.File;
 import java.io.IOException;
-import org.commonmark.node.*;
-import org.commonmark.parser.Parser;
-import org.commonmark.renderer.html.HtmlRenderer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javafx.beans.binding.Bindings;
+import javafx.concurrent.Worker;
 import javafx.scene.web.WebView;
 
 public class ResumeAnalyzerApp extends Application {
 
-    private File selectedFile;
+    private List<File> selectedFiles = List.of();
     private ComboBox<String> jobRoleComboBox;
     private WebView resultWebView;
     private CheckBox aiAnalysisCheckBox;
+    private CheckBox semanticCheckBox;
+    // Created on first use: OkHttp and Jackson are not needed to show the window
     private GroqAnalyzer groqAnalyzer;
     private String groqApiKey;
+    private final ExtractedTextCache textCache = ExtractedTextCache.fromConfig();
+    private final ParsedResumeCache parsedResumes = new ParsedResumeCache(textCache, DuplicateDetector.fromConfig());
+    // Shared by all analyses; several selected resumes are parsed and scored in parallel
+    private final ExecutorService workers = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()), daemonThreads("analysis-worker"));
+    // Null unless results.store.directory is set
+    private final ResultStore resultStore = ResultStore.fromConfig();
+    private List<ResumeAnalysisTask> runningTasks = List.of();
+    private StreamingMarkdownView streamingView;
+    private Button analyzeButton;
+    private Button cancelButton;
+    private ProgressBar progressBar;
+    private Label statusLabel;
     private static final String PRIMARY_COLOR = "#2196F3";
     private static final String SECONDARY_COLOR = "#64B5F6";
     private static final String SUCCESS_COLOR = "#4CAF50";
     private static final String BACKGROUND_COLOR = "#F5F5F5";
+    // How long closing the window waits for results still being stored
+    private static final int STOP_GRACE_SECONDS = 10;
+    // A resume to analyze as soon as the window is shown, printing "window <epoch millis>" and
+    // "first-result <epoch millis>" before exiting; for StartupBenchmark and the AppCDS training run
+    private static final String STARTUP_PROBE_PROPERTY = "resumeanalyzer.startup.probe";
 
     @Override
     public void start(Stage primaryStage) {
+        // Stage timings and counters go to JMX and/or a Prometheus file, as configured
+        PipelineMetrics.installFromConfig();
+
         // Try to get API key from environment variable
-        initializeGroqAnalyzer();
+        groqApiKey = findGroqApiKey();
+
+        // Load the taxonomy, semantic vectors, PDFBox fonts, POI and the AI client while the window
+        // is built and shown, rather than on the first analysis
+        Thread warmUp = new Thread(() -> {
+            // The taxonomy first, so the role list fills in while the rest warms up
+            try {
+                java.util.Set<String> roles = ResumeAnalyzer.getJobRoles();
+                javafx.application.Platform.runLater(() -> updateJobRoles(roles));
+            } catch (RuntimeException e) {
+                javafx.application.Platform.runLater(() -> showAlert("Could not load the job roles: " + e.getMessage()));
+                return;
+            }
+            WarmUp.run();
+            if (groqApiKey != null) {
+                groqAnalyzer();
+            }
+        }, "warm-up");
+        warmUp.setDaemon(true);
+        warmUp.setPriority(Thread.MIN_PRIORITY);
+        warmUp.start();
+        // Embed the skill phrases again after a taxonomy reload
+        KeywordTaxonomy.addListener(index -> SemanticMatcher.current());
 
         primaryStage.setTitle("Resume Analyzer");
 
@@ -54,11 +116,11 @@ public class ResumeAnalyzerApp extends Application {
         // File selection with improved styling
         VBox fileSection = new VBox(10);
         fileSection.setAlignment(Pos.CENTER_LEFT);
-        Label fileHeaderLabel = new Label("Upload Resume");
+        Label fileHeaderLabel = new Label("Upload Resumes");
         fileHeaderLabel.setFont(Font.font("System", FontWeight.MEDIUM, 14));
         
         HBox fileSelectionBox = new HBox(15);
-        Button selectFileButton = new Button("Choose File");
+        Button selectFileButton = new Button("Choose Files");
         styleButton(selectFileButton, PRIMARY_COLOR);
         Label fileLabel = new Label("No file selected");
         fileLabel.setStyle("-fx-text-fill: #757575;");
@@ -74,16 +136,10 @@ public class ResumeAnalyzerApp extends Application {
         jobHeaderLabel.setFont(Font.font("System", FontWeight.MEDIUM, 14));
         
         jobRoleComboBox = new ComboBox<>();
-        jobRoleComboBox.getItems().addAll(
-            "Frontend Developer",
-            "Backend Developer",
-            "Full Stack Developer",
-            "Data Analyst",
-            "Machine Learning Engineer",
-            "DevOps Engineer",
-            "UI/UX Designer"
-        );
-        jobRoleComboBox.setValue("Frontend Developer");
+        // Filled by the warm-up thread, so the FX thread never waits for the taxonomy to load
+        jobRoleComboBox.setPromptText("Loading roles...");
+        // Keep the list in step with the taxonomy file when it is edited while the app runs
+        KeywordTaxonomy.addListener(index -> javafx.application.Platform.runLater(() -> updateJobRoles(index.roleNames())));
         jobRoleComboBox.setStyle(
             "-fx-background-color: white;" +
             "-fx-border-color: " + PRIMARY_COLOR + ";" +
@@ -99,14 +155,28 @@ public class ResumeAnalyzerApp extends Application {
         aiSection.setAlignment(Pos.CENTER_LEFT);
         aiAnalysisCheckBox = new CheckBox("Include AI-Powered Analysis");
         aiAnalysisCheckBox.setStyle("-fx-text-fill: " + PRIMARY_COLOR + ";");
-        aiSection.getChildren().addAll(aiAnalysisCheckBox);
+        semanticCheckBox = new CheckBox("Include Semantic Matching (offline)");
+        semanticCheckBox.setStyle("-fx-text-fill: " + PRIMARY_COLOR + ";");
+        semanticCheckBox.setTooltip(new Tooltip("Find skills described in other words, on this computer without the AI service"));
+        aiSection.getChildren().addAll(aiAnalysisCheckBox, semanticCheckBox);
         updateAiControlsState();
 
         // Analyze button with improved styling
-        Button analyzeButton = new Button("Analyze Resume");
+        analyzeButton = new Button("Analyze Resume");
         styleButton(analyzeButton, SUCCESS_COLOR);
         analyzeButton.setPrefWidth(200);
 
+        // Progress of the running analysis, with a way to stop it
+        cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(200);
+        progressBar.setVisible(false);
+        statusLabel = new Label();
+        statusLabel.setStyle("-fx-text-fill: #757575;");
+        HBox analyzeBox = new HBox(15, analyzeButton, cancelButton, progressBar, statusLabel);
+        analyzeBox.setAlignment(Pos.CENTER_LEFT);
+
         // Results area with improved styling
         VBox resultSection = new VBox(10);
         resultSection.setAlignment(Pos.CENTER_LEFT);
@@ -132,7 +202,7 @@ public class ResumeAnalyzerApp extends Application {
             createSeparator(),
             jobSection,
             aiSection,
-            analyzeButton,
+            analyzeBox,
             createSeparator(),
             resultSection
         );
@@ -143,73 +213,438 @@ public class ResumeAnalyzerApp extends Application {
             fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("Resume Files", "*.pdf", "*.docx")
             );
-            selectedFile = fileChooser.showOpenDialog(primaryStage);
-            if (selectedFile != null) {
-                fileLabel.setText(selectedFile.getName());
+            List<File> files = fileChooser.showOpenMultipleDialog(primaryStage);
+            if (files != null && !files.isEmpty()) {
+                selectedFiles = List.copyOf(files);
+                fileLabel.setText(files.size() == 1 ? files.get(0).getName() : files.size() + " files selected");
                 fileLabel.setStyle("-fx-text-fill: " + SUCCESS_COLOR + ";");
+                analyzeButton.setText(files.size() == 1 ? "Analyze Resume" : "Analyze Resumes");
             }
         });
 
-        analyzeButton.setOnAction(e -> {
-            if (selectedFile == null) {
-                showAlert("Please select a resume file first.");
-                return;
-            }
-
-            // Run analysis in a background thread (no loading dialog)
-            new Thread(() -> {
-                try {
-                    String html;
-                    // Extract text from resume
-                    String resumeText = ResumeParser.extractText(selectedFile);
-                    // Analyze resume
-                    String selectedRole = jobRoleComboBox.getValue();
-                    ResumeAnalyzer.AnalysisResult result = ResumeAnalyzer.analyzeResume(resumeText, selectedRole);
-                    // Display results with improved formatting (markdown)
-                    StringBuilder output = new StringBuilder();
-                    output.append(String.format("# 📄 Resume Analysis for %s\n\n", selectedRole));
-                    output.append(String.format("**Overall Match Score:** %.1f%%\n\n", result.getScore()));
-                    output.append("---\n\n");
-                    output.append("## ✅ Found Keywords\n");
-                    for (String keyword : result.getFoundKeywords()) {
-                        output.append("- ").append(keyword).append("\n");
-                    }
-                    output.append("\n## 💡 Improvement Suggestions\n");
-                    for (String suggestion : result.getSuggestions()) {
-                        output.append("- ").append(suggestion).append("\n");
-                    }
-                    // Add AI analysis if enabled
-                    if (aiAnalysisCheckBox.isSelected() && groqAnalyzer != null) {
-                        output.append("\n---\n\n");
-                        output.append("# 🤖 AI-Powered Analysis\n\n");
-                        try {
-                            String aiAnalysis = groqAnalyzer.analyzeResume(resumeText, selectedRole);
-                            output.append(aiAnalysis);
-                        } catch (IOException ex) {
-                            output.append("⚠️ AI analysis failed: ").append(ex.getMessage()).append("\n");
-                        }
-                    }
-                    // Convert markdown to HTML and display in WebView
-                    html = markdownToHtml(output.toString());
-                    javafx.application.Platform.runLater(() -> {
-                        resultWebView.getEngine().loadContent(html);
-                    });
-                } catch (IOException | IllegalArgumentException ex) {
-                    javafx.application.Platform.runLater(() -> {
-                        showAlert("Error: " + ex.getMessage());
-                    });
-                }
-            }).start();
-        });
+        analyzeButton.setOnAction(e -> startAnalysis());
+        cancelButton.setOnAction(e -> cancelAnalysis());
 
         // Create scene with responsive width
         Scene scene = new Scene(mainLayout, 700, 800);
         primaryStage.setMinWidth(600);
         primaryStage.setMinHeight(700);
         primaryStage.setScene(scene);
+        String startupProbe = System.getProperty(STARTUP_PROBE_PROPERTY);
+        if (startupProbe != null) {
+            primaryStage.setOnShown(e -> {
+                System.out.println("window " + System.currentTimeMillis());
+                whenRolesLoaded(() -> runStartupProbe(new File(startupProbe)));
+            });
+        }
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        cancelAnalysis();
+        // Let queued storeResults tasks finish before the store is closed, but do not hang the exit
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(STOP_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("Warning: results still being stored after " + STOP_GRACE_SECONDS
+                    + " s are lost");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (resultStore != null) {
+            try {
+                resultStore.close();
+            } catch (IOException e) {
+                System.out.println("Warning: cannot close result store " + resultStore.getDirectory() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Runs the action on the FX thread once a job role is selected, i.e. the roles have loaded
+    private void whenRolesLoaded(Runnable action) {
+        if (jobRoleComboBox.getValue() != null) {
+            action.run();
+            return;
+        }
+        jobRoleComboBox.valueProperty().addListener(new javafx.beans.value.ChangeListener<String>() {
+            @Override
+            public void changed(javafx.beans.value.ObservableValue<? extends String> observable, String previous,
+                                String value) {
+                if (value != null) {
+                    observable.removeListener(this);
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void runStartupProbe(File resume) {
+        selectedFiles = List.of(resume);
+        startAnalysis();
+        ResumeAnalysisTask task = runningTasks.get(0);
+        task.stateProperty().addListener((observable, previous, state) -> {
+            if (isFinished(task)) {
+                // Once the task's own handler has shown the report
+                javafx.application.Platform.runLater(() -> {
+                    System.out.println((state == Worker.State.SUCCEEDED ? "first-result " : "failed ")
+                        + System.currentTimeMillis());
+                    javafx.application.Platform.exit();
+                });
+            }
+        });
+    }
+
+    // Reads the controls here, on the FX thread; the tasks only get the values
+    private void startAnalysis() {
+        if (selectedFiles.isEmpty()) {
+            showAlert("Please select a resume file first.");
+            return;
+        }
+        String selectedRole = jobRoleComboBox.getValue();
+        if (selectedRole == null) {
+            showAlert("The job roles are still loading, please try again in a moment.");
+            return;
+        }
+        boolean semantic = semanticCheckBox.isSelected();
+        Supplier<GroqAnalyzer> analyzer = aiAnalysisCheckBox.isSelected() ? this::groqAnalyzer : null;
+        // Read per run, like the controls, so edits to config.properties apply to the next batch
+        LlmCascade cascade = LlmCascade.fromConfig();
+
+        List<ResumeAnalysisTask> tasks = selectedFiles.size() == 1
+            ? List.of(singleResumeTask(selectedFiles.get(0), selectedRole, semantic, analyzer))
+            : resumeBatchTasks(selectedFiles, selectedRole, semantic, analyzer, cascade);
+        runningTasks = tasks;
+        analyzeButton.setDisable(true);
+        cancelButton.setDisable(false);
+        progressBar.setVisible(true);
+        if (tasks.size() == 1) {
+            progressBar.progressProperty().bind(tasks.get(0).progressProperty());
+            statusLabel.textProperty().bind(tasks.get(0).messageProperty());
+        } else {
+            trackProgress(tasks, analyzer != null && cascade != null ? "Scored" : "Analyzed");
+        }
+        tasks.forEach(workers::execute);
+    }
+
+    // Binds the progress bar and status label to a round of tasks, e.g. "Scored 3 of 10 resumes"
+    private void trackProgress(List<ResumeAnalysisTask> tasks, String verb) {
+        List<javafx.beans.Observable> states = new ArrayList<>();
+        List<javafx.beans.Observable> progress = new ArrayList<>();
+        for (ResumeAnalysisTask task : tasks) {
+            states.add(task.stateProperty());
+            progress.add(task.progressProperty());
+        }
+        progressBar.progressProperty().unbind();
+        progressBar.progressProperty().bind(Bindings.createDoubleBinding(() -> {
+            double sum = 0;
+            for (ResumeAnalysisTask task : tasks) {
+                sum += Math.max(0, task.getProgress());
+            }
+            return sum / tasks.size();
+        }, progress.toArray(new javafx.beans.Observable[0])));
+        statusLabel.textProperty().unbind();
+        statusLabel.textProperty().bind(Bindings.createStringBinding(
+            () -> verb + " " + tasks.stream().filter(ResumeAnalyzerApp::isFinished).count() + " of " + tasks.size() + " resumes",
+            states.toArray(new javafx.beans.Observable[0])));
+    }
+
+    // Stops the running analysis, aborting an AI request in flight
+    private void cancelAnalysis() {
+        List<ResumeAnalysisTask> tasks = runningTasks;
+        for (ResumeAnalysisTask task : tasks) {
+            task.cancel(true);
+        }
+        if (!tasks.isEmpty()) {
+            resetAnalysisControls("Cancelled");
+        }
+    }
+
+    // Called as each task ends; once all of the current analysis have, the controls are released
+    private void onTaskDone() {
+        List<ResumeAnalysisTask> tasks = runningTasks;
+        if (!tasks.isEmpty() && tasks.stream().allMatch(ResumeAnalyzerApp::isFinished)) {
+            resetAnalysisControls("");
+        }
+    }
+
+    // Judged by the state seen on the FX thread, which is when the task's value is available
+    private static boolean isFinished(Worker<?> task) {
+        Worker.State state = task.getState();
+        return state == Worker.State.SUCCEEDED || state == Worker.State.FAILED || state == Worker.State.CANCELLED;
+    }
+
+    private void resetAnalysisControls(String status) {
+        runningTasks = List.of();
+        progressBar.progressProperty().unbind();
+        progressBar.setVisible(false);
+        statusLabel.textProperty().unbind();
+        statusLabel.setText(status);
+        analyzeButton.setDisable(false);
+        cancelButton.setDisable(true);
+    }
+
+    // One resume: the keyword report shows as soon as it is ready and the AI answer streams in below it
+    private ResumeAnalysisTask singleResumeTask(File file, String selectedRole, boolean semantic, Supplier<GroqAnalyzer> analyzer) {
+        StreamingMarkdownView view = analyzer != null ? new StreamingMarkdownView(resultWebView.getEngine()) : null;
+        ResumeAnalysisTask task = new ResumeAnalysisTask(file, selectedRole, semantic, analyzer,
+            view != null ? view::append : null, parsedResumes);
+        if (view != null) {
+            task.valueProperty().addListener((observable, previous, report) -> {
+                if (previous == null && report != null && !task.isCancelled()) {
+                    StringBuilder output = new StringBuilder();
+                    appendKeywordReport(output, report, "#", "Resume Analysis for " + selectedRole);
+                    output.append("\n---\n\n");
+                    output.append("# 🤖 AI-Powered Analysis\n\n");
+                    showStreamingView(view);
+                    view.start(MarkdownRenderer.toHtml(output.toString()));
+                }
+            });
+        }
+        task.setOnSucceeded(e -> {
+            ResumeAnalysisTask.Report report = task.getValue();
+            storeResults(List.of(report));
+            if (view != null) {
+                if (report.getAiError() != null) {
+                    view.append("\n\n⚠️ AI analysis failed: " + report.getAiError() + "\n");
+                }
+                view.finish();
+            } else {
+                StringBuilder output = new StringBuilder();
+                appendKeywordReport(output, report, "#", "Resume Analysis for " + selectedRole);
+                showStreamingView(null);
+                resultWebView.getEngine().loadContent(MarkdownRenderer.toHtml(output.toString()));
+            }
+            onTaskDone();
+        });
+        task.setOnFailed(e -> {
+            if (view != null) {
+                view.close();
+            }
+            onTaskDone();
+            showAlert("Error: " + task.getException().getMessage());
+        });
+        task.setOnCancelled(e -> {
+            // Keep what was streamed so far
+            if (view != null) {
+                view.finish();
+            }
+            onTaskDone();
+        });
+        return task;
+    }
+
+    // Several resumes: analyzed in parallel on the worker pool and shown together, best match first.
+    // With AI analysis and the cascade on, every resume is scored first and only those the cascade
+    // picks from the keyword scores go on to the AI analysis, in a second round.
+    private List<ResumeAnalysisTask> resumeBatchTasks(List<File> files, String selectedRole, boolean semantic,
+                                                      Supplier<GroqAnalyzer> analyzer, LlmCascade cascade) {
+        boolean cascaded = analyzer != null && cascade != null;
+        List<ResumeAnalysisTask> tasks = new ArrayList<>();
+        for (File file : files) {
+            tasks.add(new ResumeAnalysisTask(file, selectedRole, semantic, cascaded ? null : analyzer, null, parsedResumes));
+        }
+        whenAllFinished(tasks, () -> {
+            if (cascaded) {
+                startAiRound(tasks, cascade, selectedRole, semantic, analyzer);
+            } else {
+                showBatchReport(tasks, Map.of(), selectedRole);
+            }
+        });
+        return tasks;
+    }
+
+    // Runs action once every task of the round has ended, unless the round was cancelled
+    private void whenAllFinished(List<ResumeAnalysisTask> tasks, Runnable action) {
+        for (ResumeAnalysisTask task : tasks) {
+            task.stateProperty().addListener((observable, previous, state) -> {
+                if (isFinished(task)) {
+                    if (runningTasks == tasks && tasks.stream().allMatch(ResumeAnalyzerApp::isFinished)) {
+                        action.run();
+                    }
+                    onTaskDone();
+                }
+            });
+        }
+    }
+
+    // Second round of a cascaded batch; the resumes parsed and scored in the first come from the cache
+    private void startAiRound(List<ResumeAnalysisTask> scored, LlmCascade cascade, String selectedRole,
+                              boolean semantic, Supplier<GroqAnalyzer> analyzer) {
+        List<ResumeAnalysisTask> succeeded = new ArrayList<>();
+        for (ResumeAnalysisTask task : scored) {
+            if (task.getState() == Worker.State.SUCCEEDED && task.getValue() != null) {
+                succeeded.add(task);
+            }
+        }
+        double[] scores = new double[succeeded.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = succeeded.get(i).getValue().getResult().getScore();
+        }
+        LlmCascade.Route[] routes = cascade.route(scores);
+
+        // What the report shows: the AI round's task for a resume sent on, else the keyword task
+        List<ResumeAnalysisTask> reported = new ArrayList<>(scored);
+        Map<ResumeAnalysisTask, LlmCascade.Route> routeByTask = new HashMap<>();
+        List<ResumeAnalysisTask> aiTasks = new ArrayList<>();
+        for (int i = 0; i < routes.length; i++) {
+            ResumeAnalysisTask task = succeeded.get(i);
+            if (routes[i].usesLlm()) {
+                ResumeAnalysisTask aiTask = new ResumeAnalysisTask(task.getFile(), selectedRole, semantic, analyzer,
+                    null, parsedResumes);
+                reported.set(reported.indexOf(task), aiTask);
+                aiTasks.add(aiTask);
+                task = aiTask;
+            }
+            routeByTask.put(task, routes[i]);
+        }
+        if (aiTasks.isEmpty()) {
+            showBatchReport(reported, routeByTask, selectedRole);
+            return;
+        }
+        whenAllFinished(aiTasks, () -> showBatchReport(reported, routeByTask, selectedRole));
+        runningTasks = aiTasks;
+        trackProgress(aiTasks, "AI analysis:");
+        aiTasks.forEach(workers::execute);
+    }
+
+    // routes, when the batch went through the cascade, tells which tier produced each result
+    private void showBatchReport(List<ResumeAnalysisTask> tasks, Map<ResumeAnalysisTask, LlmCascade.Route> routes,
+                                 String selectedRole) {
+        List<ResumeAnalysisTask.Report> reports = new ArrayList<>();
+        Map<ResumeAnalysisTask.Report, LlmCascade.Route> routeByReport = new HashMap<>();
+        StringBuilder failures = new StringBuilder();
+        for (ResumeAnalysisTask task : tasks) {
+            if (task.getState() == Worker.State.SUCCEEDED && task.getValue() != null) {
+                reports.add(task.getValue());
+                if (routes.containsKey(task)) {
+                    routeByReport.put(task.getValue(), routes.get(task));
+                }
+            } else if (task.getState() == Worker.State.FAILED) {
+                failures.append("- ").append(task.getFile().getName()).append(": ")
+                    .append(task.getException().getMessage()).append("\n");
+            }
+        }
+        reports.sort(Comparator.comparingDouble((ResumeAnalysisTask.Report report) -> report.getResult().getScore())
+            .reversed());
+        storeResults(reports);
+
+        StringBuilder output = new StringBuilder();
+        output.append(String.format("# 📄 Resume Analysis for %s\n\n", selectedRole));
+        if (!routes.isEmpty()) {
+            long sent = routes.values().stream().filter(LlmCascade.Route::usesLlm).count();
+            output.append(String.format("🤖 AI analysis for %d of %d resumes; the others are ranked on their keyword score only.\n\n",
+                sent, routes.size()));
+        }
+        for (ResumeAnalysisTask.Report report : reports) {
+            LlmCascade.Route route = routeByReport.get(report);
+            output.append(String.format("1. **%s**: %.1f%%%s\n", report.getFile().getName(), report.getResult().getScore(),
+                route == null ? "" : route.usesLlm() ? " · keyword + AI" : " · keyword only"));
+        }
+        if (failures.length() > 0) {
+            output.append("\n**Could not be analyzed:**\n\n").append(failures);
+        }
+        for (ResumeAnalysisTask.Report report : reports) {
+            output.append("\n---\n\n");
+            appendKeywordReport(output, report, "##", report.getFile().getName());
+            LlmCascade.Route route = routeByReport.get(report);
+            if (route != null) {
+                output.append(String.format("\n_Result tier: %s (%s)_\n", route.usesLlm() ? "keyword score and AI analysis"
+                    : "keyword score only", route.getDescription()));
+            }
+            if (report.getAiAnalysis() != null) {
+                output.append("\n### 🤖 AI-Powered Analysis\n\n").append(report.getAiAnalysis()).append("\n");
+            } else if (report.getAiError() != null) {
+                output.append("\n⚠️ AI analysis failed: ").append(report.getAiError()).append("\n");
+            }
+        }
+        showStreamingView(null);
+        resultWebView.getEngine().loadContent(MarkdownRenderer.toHtml(output.toString()));
+    }
+
+    // Appends the results to the result store, if there is one, on the worker pool
+    private void storeResults(List<ResumeAnalysisTask.Report> reports) {
+        if (resultStore == null || reports.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        workers.execute(() -> {
+            try {
+                for (ResumeAnalysisTask.Report report : reports) {
+                    ResumeAnalyzer.AnalysisResult result = report.getResult();
+                    resultStore.append(report.getFile().getPath(), report.getJobRole(), result.getScore(),
+                        result.getFoundKeywords(), result.getMissingKeywords(), result.getSuggestions(),
+                        report.getAiAnalysis(), now);
+                }
+                resultStore.commit();
+            } catch (IOException e) {
+                System.out.println("Warning: cannot store results in " + resultStore.getDirectory() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private static void appendKeywordReport(StringBuilder output, ResumeAnalysisTask.Report report, String heading,
+                                            String title) {
+        ResumeAnalyzer.AnalysisResult result = report.getResult();
+        output.append(String.format("%s 📄 %s\n\n", heading, title));
+        output.append(String.format("**Overall Match Score:** %.1f%%\n\n", result.getScore()));
+        DuplicateDetector.Check duplicate = report.getDuplicate();
+        if (duplicate != null && duplicate.isDuplicate()) {
+            output.append(String.format("> 🔁 Near-duplicate of **%s** (%.0f%% similar)%s\n\n",
+                new File(duplicate.getOriginal()).getName(), duplicate.getSimilarity() * 100,
+                report.isAiReused() ? "; its AI analysis is shown below" : ""));
+        }
+        output.append("---\n\n");
+        output.append(heading).append("# ✅ Found Keywords\n");
+        for (String keyword : result.getFoundKeywords()) {
+            output.append("- ").append(keyword).append("\n");
+        }
+        output.append("\n").append(heading).append("# 💡 Improvement Suggestions\n");
+        for (String suggestion : result.getSuggestions()) {
+            output.append("- ").append(suggestion).append("\n");
+        }
+        if (report.getSemanticResult() != null) {
+            appendSemanticMatches(output, report.getSemanticResult(), heading + "#");
+        }
+    }
+
+    private static void appendSemanticMatches(StringBuilder output, SemanticResult semantic, String heading) {
+        output.append("\n").append(heading).append(" 🧠 Semantic Matching\n");
+        output.append(String.format("**Semantic Match Score:** %.1f%%\n\n", semantic.getScore()));
+        boolean paraphrased = false;
+        for (SemanticResult.Match match : semantic.getMatches()) {
+            if (!match.isExact()) {
+                output.append(String.format("- **%s** (%.0f%% similar): _%s_\n", match.getKeyword(),
+                    match.getSimilarity() * 100, match.getEvidence()));
+                paraphrased = true;
+            }
+        }
+        if (!paraphrased) {
+            output.append("- No skills found beyond the exact keyword matches\n");
+        }
+        if (!semantic.getMissingKeywords().isEmpty()) {
+            output.append("\n**Not found in any form:** ").append(String.join(", ", semantic.getMissingKeywords())).append("\n");
+        }
+    }
+
+    // Must be called on the FX thread
+    private void showStreamingView(StreamingMarkdownView view) {
+        if (streamingView != null) {
+            streamingView.close();
+        }
+        streamingView = view;
+    }
+
+    // Keeps the selected role if the new taxonomy still has it
+    private void updateJobRoles(java.util.Set<String> roles) {
+        String selected = jobRoleComboBox.getValue();
+        jobRoleComboBox.getItems().setAll(roles);
+        jobRoleComboBox.setValue(roles.contains(selected) ? selected : jobRoleComboBox.getItems().get(0));
+    }
+
     private void styleButton(Button button, String color) {
         button.setStyle(
             "-fx-background-color: " + color + ";" +
@@ -255,28 +690,39 @@ public class ResumeAnalyzerApp extends Application {
         alert.showAndWait();
     }
 
-    private void initializeGroqAnalyzer() {
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String findGroqApiKey() {
         // First try to get API key from environment variable
-        groqApiKey = System.getenv("GROQ_API_KEY");
+        String apiKey = System.getenv("GROQ_API_KEY");
         
         // If not found in environment, try from config file
-        if (groqApiKey == null || groqApiKey.isEmpty()) {
-            groqApiKey = ConfigManager.getInstance().getGroqApiKey();
+        if (apiKey == null || apiKey.isEmpty()) {
+            apiKey = ConfigManager.getInstance().getGroqApiKey();
         }
+        if (apiKey == null || apiKey.trim().isEmpty() || apiKey.equals("your_api_key_here")) {
+            return null;
+        }
+        return apiKey;
+    }
 
-        // Initialize analyzer if we have a valid key
-        if (groqApiKey != null && !groqApiKey.isEmpty() && !groqApiKey.equals("your_api_key_here")) {
-            try {
-                groqAnalyzer = new GroqAnalyzer(groqApiKey);
-            } catch (IllegalArgumentException e) {
-                groqAnalyzer = null;
-                groqApiKey = null;
-            }
+    // Called by the warm-up thread and the analysis tasks, never on the FX thread
+    private synchronized GroqAnalyzer groqAnalyzer() {
+        if (groqAnalyzer == null) {
+            groqAnalyzer = new GroqAnalyzer(groqApiKey);
         }
+        return groqAnalyzer;
     }
 
     private void updateAiControlsState() {
-        boolean hasApiKey = groqAnalyzer != null;
+        boolean hasApiKey = groqApiKey != null;
         aiAnalysisCheckBox.setDisable(!hasApiKey);
         if (!hasApiKey) {
             aiAnalysisCheckBox.setSelected(false);
@@ -286,13 +732,6 @@ public class ResumeAnalyzerApp extends Application {
         }
     }
 
-    private String markdownToHtml(String markdown) {
-        Parser parser = Parser.builder().build();
-        org.commonmark.node.Node document = parser.parse(markdown);
-        HtmlRenderer renderer = HtmlRenderer.builder().build();
-        return renderer.render(document);
-    }
-
     public static void main(String[] args) {
         launch(args);
     }
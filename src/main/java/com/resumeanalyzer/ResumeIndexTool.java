@@ -0,0 +1,181 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.index.IndexReader;
+import com.resumeanalyzer.index.IndexWriter;
+import com.resumeanalyzer.index.RoaringBitmap;
+import com.resumeanalyzer.index.SkillQuery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Builds and queries a resume index from the command line.
+//
+//   java -cp resume-analyzer.jar com.resumeanalyzer.ResumeIndexTool <command> --index <dir> ...
+//
+// Commands:
+//   add [--threads n] <file-or-directory>...   extract and index resumes (duplicates are skipped)
+//   query [--limit n] "<query>"                 list resumes matching e.g. '+java +"rest api" -django'
+//   top --role "Role" [--k n] ["<query>"]       rank resumes for a role, optionally filtered by a query
+//   merge                                       merge all segments into one
+public class ResumeIndexTool {
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: ResumeIndexTool add --index dir [--threads n] <file-or-directory>...");
+            System.err.println("       ResumeIndexTool query --index dir [--limit n] \"<query>\"");
+            System.err.println("       ResumeIndexTool top --index dir --role \"Role\" [--k n] [\"<query>\"]");
+            System.err.println("       ResumeIndexTool merge --index dir");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Missing command");
+        }
+        String command = args[0];
+        String indexDir = null;
+        String role = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int limit = 20;
+        List<String> positional = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--index":
+                    indexDir = value(args, ++i, arg);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--limit":
+                case "--k":
+                    limit = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--role":
+                    role = value(args, ++i, arg);
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    positional.add(arg);
+            }
+        }
+        if (indexDir == null) {
+            throw new IllegalArgumentException("Missing --index");
+        }
+        Path index = Paths.get(indexDir);
+
+        switch (command) {
+            case "add":
+                return add(index, positional, threads);
+            case "query":
+                return query(index, String.join(" ", positional), limit);
+            case "top":
+                if (role == null) {
+                    throw new IllegalArgumentException("Missing --role");
+                }
+                return top(index, role, String.join(" ", positional), limit);
+            case "merge":
+                try (IndexWriter writer = IndexWriter.open(index)) {
+                    writer.forceMerge();
+                }
+                return 0;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    private static int add(Path index, List<String> inputs, int threads) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String input : inputs) {
+            paths.add(Paths.get(input));
+        }
+        List<File> files = BatchScorer.collectFiles(paths);
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No PDF or DOCX files found in the given inputs");
+        }
+
+        long start = System.currentTimeMillis();
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try (IndexWriter writer = IndexWriter.open(index)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (File file : files) {
+                tasks.add(executor.submit(() -> {
+                    try {
+                        if (writer.add(file)) {
+                            added.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                        System.err.println("Warning: could not index " + file + ": " + e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            }
+            writer.commit();
+            System.err.printf("Indexed %d of %d files (%d failures, %d duplicates) in %d ms; index has %d resumes%n",
+                added.get(), files.size(), failures.get(), files.size() - added.get() - failures.get(),
+                System.currentTimeMillis() - start, writer.numDocs());
+        } finally {
+            executor.shutdown();
+        }
+        return failures.get() == 0 ? 0 : 1;
+    }
+
+    private static int query(Path index, String text, int limit) throws IOException {
+        SkillQuery query = SkillQuery.parse(text);
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Empty query");
+        }
+        IndexReader reader = IndexReader.open(index);
+        RoaringBitmap matches = reader.search(query);
+        System.out.printf("%d of %d resumes match %s%n", matches.cardinality(), reader.numDocs(), query);
+        int[] shown = {0};
+        matches.forEach(id -> {
+            if (shown[0]++ < limit) {
+                System.out.println(id + "\t" + reader.document(id).getPath());
+            }
+        });
+        return 0;
+    }
+
+    private static int top(Path index, String role, String text, int k) throws IOException {
+        SkillQuery filter = text.isBlank() ? null : SkillQuery.parse(text);
+        IndexReader reader = IndexReader.open(index);
+        for (IndexReader.Hit hit : reader.topK(role, k, filter)) {
+            System.out.printf("%d\t%.1f\t%s%n", hit.getDocId(), hit.getScore(), hit.getPath());
+        }
+        return 0;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
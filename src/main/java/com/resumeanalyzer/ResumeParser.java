@@ -1,32 +1,174 @@
 package com.resumeanalyzer;
 
+import com.resumeanalyzer.cache.ExtractedTextCache;
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.model.XWPFHeaderFooterPolicy;
+import org.apache.poi.xwpf.usermodel.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.function.Consumer;
 
 public class ResumeParser {
     
     public static String extractText(File file) throws IOException {
         String fileName = file.getName().toLowerCase();
-        
-        if (fileName.endsWith(".pdf")) {
-            return extractTextFromPDF(file);
-        } else if (fileName.endsWith(".docx")) {
-            return extractTextFromDOCX(file);
-        } else {
-            throw new IllegalArgumentException("Unsupported file format. Please use PDF or DOCX files.");
+        long start = System.nanoTime();
+        String text = null;
+        try {
+            if (fileName.endsWith(".pdf")) {
+                text = extractTextFromPDF(file);
+            } else if (fileName.endsWith(".docx")) {
+                text = extractTextFromDOCX(file);
+            } else {
+                throw new IllegalArgumentException("Unsupported file format. Please use PDF or DOCX files.");
+            }
+            return text;
+        } finally {
+            PipelineMetrics.recordParse(formatOf(fileName), start, file.length(), text != null ? text.length() : 0,
+                text == null);
         }
     }
 
+    // Returns cached text when a file with the same content was extracted before
+    public static String extractText(File file, ExtractedTextCache cache) throws IOException {
+        if (cache == null) {
+            return extractText(file);
+        }
+        String key = ExtractedTextCache.keyFor(file.toPath());
+        String text = cache.get(key);
+        if (text == null) {
+            text = extractText(file);
+            cache.put(key, text);
+        }
+        return text;
+    }
+
+    // For uploads that never touch the disk; fileName only selects the format. Uploads come from
+    // outside, so they get the page, character and memory limits from config.properties
+    public static String extractText(byte[] content, String fileName) throws IOException {
+        return extractText(content, fileName, ExtractionLimits.fromConfig());
+    }
+
+    public static String extractText(byte[] content, String fileName, ExtractionLimits limits) throws IOException {
+        StringBuilder text = new StringBuilder();
+        extractText(content, fileName, limits, text::append);
+        return text.toString();
+    }
+
+    public static String extractText(byte[] content, String fileName, ExtractedTextCache cache) throws IOException {
+        if (cache == null) {
+            return extractText(content, fileName);
+        }
+        ExtractionLimits limits = ExtractionLimits.fromConfig();
+        // Text cut short by the limits must not be served for other limits
+        String key = ExtractedTextCache.keyFor(content) + "-" + limits.key();
+        String text = cache.get(key);
+        if (text == null) {
+            text = extractText(content, fileName, limits);
+            cache.put(key, text);
+        }
+        return text;
+    }
+
+    // Streams the text of an upload like extractText(File, ExtractionLimits, Consumer) does for a file
+    public static boolean extractText(byte[] content, String fileName, ExtractionLimits limits,
+                                      Consumer<String> chunkConsumer) throws IOException {
+        String lowerName = fileName.toLowerCase();
+        ChunkSink sink = new ChunkSink(limits.getMaxChars(), chunkConsumer);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            if (lowerName.endsWith(".pdf")) {
+                MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(limits.getMaxMainMemoryBytes());
+                try (PDDocument document = PDDocument.load(content, "", null, null, memory)) {
+                    streamTextFromPDF(document, limits, sink);
+                }
+            } else if (lowerName.endsWith(".docx")) {
+                OPCPackage pkg;
+                try {
+                    pkg = OPCPackage.open(new ByteArrayInputStream(content));
+                } catch (InvalidFormatException e) {
+                    throw new IOException("Invalid DOCX file: " + e.getMessage(), e);
+                }
+                streamTextFromDOCX(pkg, sink);
+            } else {
+                throw new IllegalArgumentException("Unsupported file format. Please use PDF or DOCX files.");
+            }
+            failed = false;
+        } catch (LimitReachedException e) {
+            failed = false;
+            return true;
+        } finally {
+            PipelineMetrics.recordParse(formatOf(lowerName), start, content.length,
+                limits.getMaxChars() - sink.remaining, failed);
+        }
+        return sink.truncated;
+    }
+
+    // Streams the text to the consumer page by page (PDF) or paragraph by paragraph (DOCX) so
+    // that only one chunk is held at a time. Returns true when a limit cut the document short.
+    public static boolean extractText(File file, ExtractionLimits limits, Consumer<String> chunkConsumer)
+            throws IOException {
+        String fileName = file.getName().toLowerCase();
+        ChunkSink sink = new ChunkSink(limits.getMaxChars(), chunkConsumer);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            if (fileName.endsWith(".pdf")) {
+                // Keep at most maxMainMemoryBytes of the document in heap, the rest goes to a scratch file
+                MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(limits.getMaxMainMemoryBytes());
+                try (PDDocument document = PDDocument.load(file, memory)) {
+                    streamTextFromPDF(document, limits, sink);
+                }
+            } else if (fileName.endsWith(".docx")) {
+                // Opening the package from the file reads zip entries on demand instead of buffering the whole archive
+                OPCPackage pkg;
+                try {
+                    pkg = OPCPackage.open(file, PackageAccess.READ);
+                } catch (InvalidFormatException e) {
+                    throw new IOException("Invalid DOCX file: " + e.getMessage(), e);
+                }
+                streamTextFromDOCX(pkg, sink);
+            } else {
+                throw new IllegalArgumentException("Unsupported file format. Please use PDF or DOCX files.");
+            }
+            failed = false;
+        } catch (LimitReachedException e) {
+            failed = false;
+            return true;
+        } finally {
+            PipelineMetrics.recordParse(formatOf(fileName), start, file.length(), limits.getMaxChars() - sink.remaining,
+                failed);
+        }
+        return sink.truncated;
+    }
+
+    // Metric label for the document type
+    private static String formatOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot + 1) : "unknown";
+    }
+
     private static String extractTextFromPDF(File file) throws IOException {
-        try (PDDocument document = PDDocument.load(file)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(ExtractionLimits.fromConfig().getMaxMainMemoryBytes());
+        try (PDDocument document = PDDocument.load(file, memory)) {
+            // Long documents are stripped in page ranges in parallel
+            String text = PdfRangeExtractor.shared().getText(document, copyMemory -> PDDocument.load(file, copyMemory));
+            PipelineMetrics.recordPages("pdf", document.getNumberOfPages());
+            return text;
         }
     }
 
@@ -34,7 +176,165 @@ public class ResumeParser {
         try (FileInputStream fis = new FileInputStream(file);
              XWPFDocument document = new XWPFDocument(fis)) {
             XWPFWordExtractor extractor = new XWPFWordExtractor(document);
-            return extractor.getText();
+            String text = extractor.getText();
+            recordDocxPages(document);
+            return text;
+        }
+    }
+
+    private static void streamTextFromPDF(PDDocument document, ExtractionLimits limits, ChunkSink sink)
+            throws IOException {
+        int pages = document.getNumberOfPages();
+        PageStreamingStripper stripper = new PageStreamingStripper(sink);
+        stripper.setEndPage(Math.min(pages, limits.getMaxPages()));
+        PipelineMetrics.recordPages("pdf", Math.min(pages, limits.getMaxPages()));
+        stripper.writeText(document, stripper.pageBuffer);
+        stripper.flushPage();
+        if (pages > limits.getMaxPages()) {
+            sink.truncated = true;
+        }
+    }
+
+    private static void streamTextFromDOCX(OPCPackage pkg, ChunkSink sink) throws IOException {
+        try {
+            XWPFDocument document = new XWPFDocument(pkg);
+            recordDocxPages(document);
+            // The chunks join to what XWPFWordExtractor.getText() returns: headers, then the body
+            // elements as the extractor writes them, each followed by a line break, then footers
+            XWPFWordExtractor extractor = new XWPFWordExtractor(document);
+            XWPFHeaderFooterPolicy policy = document.getHeaderFooterPolicy();
+            if (policy != null) {
+                sink.accept(headerFooterText(policy.getFirstPageHeader(), policy.getEvenPageHeader(),
+                    policy.getDefaultHeader()));
+            }
+            StringBuilder chunk = new StringBuilder();
+            for (IBodyElement element : document.getBodyElements()) {
+                chunk.setLength(0);
+                extractor.appendBodyElementText(chunk, element);
+                chunk.append('\n');
+                sink.accept(chunk.toString());
+            }
+            if (policy != null) {
+                sink.accept(headerFooterText(policy.getFirstPageFooter(), policy.getEvenPageFooter(),
+                    policy.getDefaultFooter()));
+            }
+        } finally {
+            // Reverting closes the package without writing anything back
+            pkg.revert();
+        }
+    }
+
+    // Skips the kinds a section does not define
+    private static String headerFooterText(XWPFHeaderFooter... parts) {
+        StringBuilder text = new StringBuilder();
+        for (XWPFHeaderFooter part : parts) {
+            if (part != null) {
+                text.append(part.getText());
+            }
+        }
+        return text.toString();
+    }
+
+    // DOCX has no fixed pages; use the count Word stored when it last saved the file, if any
+    private static void recordDocxPages(XWPFDocument document) {
+        int pages = document.getProperties().getExtendedProperties().getPages();
+        if (pages > 0) {
+            PipelineMetrics.recordPages("docx", pages);
+        }
+    }
+
+    public static class ExtractionLimits {
+        private final int maxPages;
+        private final long maxChars;
+        private final long maxMainMemoryBytes;
+
+        public ExtractionLimits(int maxPages, long maxChars, long maxMainMemoryBytes) {
+            if (maxPages < 1 || maxChars < 1 || maxMainMemoryBytes < 0) {
+                throw new IllegalArgumentException("Extraction limits must be positive");
+            }
+            this.maxPages = maxPages;
+            this.maxChars = maxChars;
+            this.maxMainMemoryBytes = maxMainMemoryBytes;
+        }
+
+        // Reads parser.max.pages, parser.max.chars and parser.memory.mb from config.properties
+        public static ExtractionLimits fromConfig() {
+            ConfigManager config = ConfigManager.getInstance();
+            return new ExtractionLimits(
+                config.getInt("parser.max.pages", 50),
+                config.getLong("parser.max.chars", 500_000),
+                config.getLong("parser.memory.mb", 16) * 1024 * 1024);
+        }
+
+        public int getMaxPages() { return maxPages; }
+        public long getMaxChars() { return maxChars; }
+        public long getMaxMainMemoryBytes() { return maxMainMemoryBytes; }
+
+        // The limits that change the extracted text
+        String key() {
+            return maxPages + "p" + maxChars + "c";
+        }
+    }
+
+    // Forwards chunks to the consumer until the character budget is used up
+    private static class ChunkSink {
+        private final Consumer<String> consumer;
+        private long remaining;
+        private boolean truncated;
+
+        ChunkSink(long maxChars, Consumer<String> consumer) {
+            this.remaining = maxChars;
+            this.consumer = consumer;
+        }
+
+        void accept(String chunk) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (chunk.length() > remaining) {
+                truncated = true;
+                consumer.accept(chunk.substring(0, (int) remaining));
+                remaining = 0;
+                throw new LimitReachedException();
+            }
+            remaining -= chunk.length();
+            consumer.accept(chunk);
+        }
+    }
+
+    // Hands each page's text to the sink as soon as the page is written
+    private static class PageStreamingStripper extends PDFTextStripper {
+        private final StringWriter pageBuffer = new StringWriter();
+        private final ChunkSink sink;
+
+        PageStreamingStripper(ChunkSink sink) throws IOException {
+            this.sink = sink;
+            // Same page separator as PdfRangeExtractor.newStripper()
+            setPageEnd(getLineSeparator() + "\f");
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            flushPage();
+        }
+
+        void flushPage() {
+            StringBuffer buffer = pageBuffer.getBuffer();
+            if (buffer.length() > 0) {
+                String text = buffer.toString();
+                buffer.setLength(0);
+                sink.accept(text);
+            }
+        }
+    }
+
+    // Unwinds PDFBox/POI iteration once the character budget is exhausted
+    private static class LimitReachedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LimitReachedException() {
+            super(null, null, false, false);
         }
     }
-} 
\ No newline at end of file
+}
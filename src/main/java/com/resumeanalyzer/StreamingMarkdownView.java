@@ -0,0 +1,119 @@
+package com.resumeanalyzer;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Worker;
+import javafx.scene.web.WebEngine;
+import javafx.util.Duration;
+import netscape.javascript.JSObject;
+
+// Renders markdown that arrives in fragments (a streamed LLM answer) into a WebView. The page is
+// loaded once; after that, at most once per frame, finished blocks are appended to the document
+// and only the unfinished last block is re-rendered, so the DOM is never rebuilt per token.
+// append() and finish() may be called from any thread; everything else runs on the FX thread.
+public class StreamingMarkdownView {
+    private static final Duration FRAME = Duration.millis(100);
+    private static final String SCRIPT = "<script>"
+        + "function appendStable(html) { document.getElementById('stable').insertAdjacentHTML('beforeend', html); }"
+        + "function setTail(html) { document.getElementById('tail').innerHTML = html; }"
+        + "function replaceAll(html) { document.getElementById('stable').innerHTML = html; setTail(''); }"
+        + "</script>";
+
+    private final WebEngine engine;
+    private final Timeline frames = new Timeline(new KeyFrame(FRAME, e -> renderFrame()));
+
+    // Written by producer threads, drained by the frame
+    private final StringBuilder incoming = new StringBuilder();
+    private volatile boolean finished;
+
+    // FX thread only
+    private final StringBuilder markdown = new StringBuilder();
+    private int stableLength;
+    private boolean tailDirty;
+    private boolean closed;
+
+    public StreamingMarkdownView(WebEngine engine) {
+        this.engine = engine;
+        frames.setCycleCount(Animation.INDEFINITE);
+    }
+
+    // Loads the page with fixed HTML above the streamed content. Must be called on the FX thread.
+    public void start(String headerHtml) {
+        engine.loadContent("<html><head>" + SCRIPT + "</head><body>" + headerHtml
+            + "<div id=\"stable\"></div><div id=\"tail\"></div></body></html>");
+        frames.play();
+    }
+
+    public void append(String fragment) {
+        synchronized (incoming) {
+            incoming.append(fragment);
+        }
+    }
+
+    // The last fragment has arrived; the next frame renders the complete document
+    public void finish() {
+        finished = true;
+    }
+
+    // Stops rendering, e.g. when a new analysis replaces this one. Must be called on the FX thread.
+    public void close() {
+        closed = true;
+        frames.stop();
+    }
+
+    private void renderFrame() {
+        if (closed || engine.getLoadWorker().getState() != Worker.State.SUCCEEDED) {
+            return;
+        }
+        boolean done = finished;
+        synchronized (incoming) {
+            if (incoming.length() > 0) {
+                markdown.append(incoming);
+                incoming.setLength(0);
+                tailDirty = true;
+            }
+        }
+        JSObject window = (JSObject) engine.executeScript("window");
+        if (done) {
+            // Blocks rendered one at a time can differ slightly from the whole document (loose
+            // lists, reference links), so finish with a single render of the full text
+            window.call("replaceAll", render(markdown.toString()));
+            close();
+            return;
+        }
+        if (!tailDirty) {
+            return;
+        }
+        int boundary = stableBoundary();
+        if (boundary > stableLength) {
+            window.call("appendStable", render(markdown.substring(stableLength, boundary)));
+            stableLength = boundary;
+        }
+        window.call("setTail", render(markdown.substring(stableLength)));
+        tailDirty = false;
+    }
+
+    // End of the last blank line after which no open code fence continues, i.e. the point up to
+    // which the markdown can no longer change its rendering
+    private int stableBoundary() {
+        int boundary = stableLength;
+        boolean inFence = false;
+        int lineStart = stableLength;
+        int lineEnd;
+        while ((lineEnd = markdown.indexOf("\n", lineStart)) >= 0) {
+            String line = markdown.substring(lineStart, lineEnd).strip();
+            if (line.startsWith("```") || line.startsWith("~~~")) {
+                inFence = !inFence;
+            } else if (line.isEmpty() && !inFence) {
+                boundary = lineEnd + 1;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return boundary;
+    }
+
+    private String render(String text) {
+        return MarkdownRenderer.render(text);
+    }
+}
@@ -0,0 +1,124 @@
+package com.resumeanalyzer;
+
+import com.resumeanalyzer.llm.GroqClientSettings;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import com.resumeanalyzer.semantic.SemanticMatcher;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+// Runs every stage of an analysis once on a generated resume: loading the taxonomy and semantic
+// vectors, parsing a PDF (PDFBox builds its system font cache on first use) and a DOCX (POI
+// loads a few thousand classes), scoring until the JIT has compiled it, and rendering the
+// report. The GUI does this in the background while its window opens, the HTTP service before
+// it accepts uploads, so the first real resume does not pay for it.
+//
+// main() is the AppCDS training run: one representative analysis in a JVM started with
+// -XX:ArchiveClassesAtExit=<file>, so later runs with -XX:SharedArchiveFile=<file> map the
+// classes it loaded instead of loading and verifying them again.
+public final class WarmUp {
+    private static final String SAMPLE = "Experience\nBuilt REST APIs in Java and Python, deployed with Docker on AWS.\n"
+        + "Led a team of four engineers and set up CI/CD pipelines with Jenkins.\nSkills\nSQL, Git, React, Kubernetes";
+
+    private WarmUp() {
+    }
+
+    // Records no metrics on the calling thread, so the synthetic analyses do not count as real ones
+    public static void run() {
+        PipelineMetrics.withoutRecording(WarmUp::warmUp);
+    }
+
+    private static void warmUp() {
+        String role = KeywordTaxonomy.current().roleNames().iterator().next();
+        SemanticMatcher.current().match(SAMPLE, role);
+        for (int i = 0; i < 200; i++) {
+            ResumeAnalyzer.analyzeResume(SAMPLE, role);
+        }
+        try {
+            ResumeParser.extractText(samplePdf(SAMPLE), "warmup.pdf");
+            ResumeParser.extractText(sampleDocx(SAMPLE), "warmup.docx");
+        } catch (IOException e) {
+            System.out.println("Warning: parser warm-up failed: " + e.getMessage());
+        }
+        MarkdownRenderer.toHtml(report(role, ResumeAnalyzer.analyzeResume(SAMPLE, role)));
+    }
+
+    // Analyzes the given resumes, or a generated PDF and DOCX, against every role, with semantic
+    // matching and a rendered report, and creates the AI client without sending a request.
+    // Prints "first-result <epoch millis>" once the first report is rendered.
+    public static void main(String[] args) throws IOException {
+        String role = KeywordTaxonomy.current().roleNames().iterator().next();
+        boolean first = true;
+        if (args.length == 0) {
+            first = analyze(ResumeParser.extractText(samplePdf(SAMPLE), "sample.pdf"), role, first);
+            analyze(ResumeParser.extractText(sampleDocx(SAMPLE), "sample.docx"), role, first);
+        }
+        for (String arg : args) {
+            File file = new File(arg);
+            first = analyze(ResumeParser.extractText(Files.readAllBytes(file.toPath()), file.getName()), role, first);
+        }
+        new GroqAnalyzer("training-run", GroqClientSettings.fromConfig());
+    }
+
+    private static boolean analyze(String text, String role, boolean first) {
+        Map<String, ResumeAnalyzer.AnalysisResult> results = ResumeAnalyzer.analyzeAllRoles(text);
+        MarkdownRenderer.toHtml(report(role, results.get(role)));
+        if (first) {
+            System.out.println("first-result " + System.currentTimeMillis());
+        }
+        SemanticMatcher.current().match(text, role);
+        return false;
+    }
+
+    private static String report(String role, ResumeAnalyzer.AnalysisResult result) {
+        StringBuilder output = new StringBuilder();
+        output.append(String.format("# Resume Analysis for %s\n\n**Overall Match Score:** %.1f%%\n\n", role, result.getScore()));
+        for (String keyword : result.getFoundKeywords()) {
+            output.append("- ").append(keyword).append("\n");
+        }
+        for (String suggestion : result.getSuggestions()) {
+            output.append("- ").append(suggestion).append("\n");
+        }
+        return output.toString();
+    }
+
+    private static byte[] samplePdf(String text) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.newLineAtOffset(72, 700);
+                for (String line : text.split("\n")) {
+                    content.showText(line);
+                    content.newLineAtOffset(0, -14);
+                }
+                content.endText();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] sampleDocx(String text) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            for (String line : text.split("\n")) {
+                document.createParagraph().createRun().setText(line);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,630 @@
+package com.resumeanalyzer.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeanalyzer.GroqAnalyzer;
+import com.resumeanalyzer.LlmCascade;
+import com.resumeanalyzer.ResumeAnalyzer;
+import com.resumeanalyzer.ResumeParser;
+import com.resumeanalyzer.cache.ExtractedTextCache;
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.dedup.DuplicateDetector;
+import com.resumeanalyzer.results.ResultStore;
+import com.resumeanalyzer.scoring.CorpusStats;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Three-stage pipeline: parse (I/O heavy) -> score (CPU bound) -> write (single JSON Lines writer).
+// Stages are connected by bounded queues, so a slow stage blocks the one feeding it instead of
+// letting parsed documents pile up in memory. With an analyzer, scored resumes take a detour
+// through an asynchronous AI stage on their way to the writer (see run).
+public class BatchPipeline {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Object END = new Object();
+    // Windows of the AI stage that may wait on the LLM at once: one being answered while the next
+    // is already queued at the analyzer's rate and concurrency limits
+    private static final int AI_WINDOWS_IN_FLIGHT = 2;
+
+    private final int parseThreads;
+    private final int scoreThreads;
+    private final int queueCapacity;
+    private final ExtractedTextCache textCache;
+    private final CorpusStats corpusUpdates;
+    private final DuplicateDetector duplicates;
+    private final JobLog jobs;
+    private final GroqAnalyzer analyzer;
+    private final LlmCascade cascade;
+    private final int aiWindow;
+
+    private BatchPipeline(Builder builder) {
+        this.parseThreads = builder.parseThreads;
+        this.scoreThreads = builder.scoreThreads;
+        this.queueCapacity = builder.queueCapacity;
+        this.textCache = builder.textCache;
+        this.corpusUpdates = builder.corpusUpdates;
+        this.duplicates = builder.duplicates;
+        this.jobs = builder.jobs;
+        this.analyzer = builder.analyzer;
+        this.cascade = builder.cascade;
+        this.aiWindow = builder.aiWindow;
+    }
+
+    // Sized to the machine unless told otherwise: parsing waits on disk as well as CPU, scoring is pure CPU
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Summary run(List<File> files, List<String> jobRoles, OutputStream out) throws IOException, InterruptedException {
+        return run(files, jobRoles, out, null);
+    }
+
+    // With a store, every result line that is not an error is also appended to it. The writer commits
+    // every results.commit.rows rows or results.commit.seconds after the first uncommitted one,
+    // whichever comes first, and once more at the end, so a crash loses at most that much. Resumed
+    // jobs are appended again: their rows were lost if the earlier run crashed before committing
+    // them, and filtering on the latest row per file and role hides the copies otherwise.
+    //
+    // With an analyzer, the scorers hand each scored resume to one extra thread that gathers them
+    // into windows and starts one batched, non-blocking analysis per role and window, so scoring
+    // never waits on the network and the analyzer's own limits decide how many requests are in
+    // flight. Answers are logged, and the resume's lines written, on a single completion thread as
+    // they arrive; a resume whose analysis failed stays open in the job log, so a rerun retries it.
+    public Summary run(List<File> files, List<String> jobRoles, OutputStream out, ResultStore store)
+            throws IOException, InterruptedException {
+        for (String role : jobRoles) {
+            ResumeAnalyzer.getKeywords(role); // fail fast on unknown roles
+        }
+
+        BlockingQueue<Object> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> results = new ArrayBlockingQueue<>(queueCapacity * Math.max(1, jobRoles.size()));
+        // Scored resumes waiting for the AI stage, when there is one
+        BlockingQueue<Object> scored = analyzer != null ? new ArrayBlockingQueue<>(queueCapacity) : results;
+        Iterator<File> input = files.iterator();
+        AtomicInteger parsersLeft = new AtomicInteger(parseThreads);
+        AtomicInteger scorersLeft = new AtomicInteger(scoreThreads);
+        AtomicLong failures = new AtomicLong();
+        AtomicLong duplicateCount = new AtomicLong();
+        AtomicLong resumedCount = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(parseThreads + scoreThreads + (analyzer != null ? 1 : 0),
+            daemonThreads("batch-worker-"));
+        ExecutorService completions = analyzer != null
+            ? Executors.newSingleThreadExecutor(daemonThreads("batch-ai-")) : null;
+        try {
+            for (int i = 0; i < parseThreads; i++) {
+                workers.execute(() -> {
+                    try {
+                        File file;
+                        while ((file = next(input)) != null) {
+                            parsed.put(parse(file, jobRoles));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // The last parser tells every scorer that no more input is coming
+                        if (parsersLeft.decrementAndGet() == 0) {
+                            putQuietly(parsed, END, scoreThreads);
+                        }
+                    }
+                });
+            }
+            for (int i = 0; i < scoreThreads; i++) {
+                workers.execute(() -> {
+                    try {
+                        Object item;
+                        while ((item = parsed.take()) != END) {
+                            ParsedResume resume = (ParsedResume) item;
+                            if (resume.error != null) {
+                                failures.incrementAndGet();
+                                results.put(errorLine(resume.file, resume.error));
+                                continue;
+                            }
+                            if (resume.completedLines != null) {
+                                resumedCount.incrementAndGet();
+                                for (String line : resume.completedLines) {
+                                    results.put(line);
+                                }
+                                continue;
+                            }
+                            DuplicateDetector.Check check = duplicates != null
+                                ? duplicates.check(resume.file.getPath(), resume.text) : null;
+                            if (check != null && check.isDuplicate()) {
+                                duplicateCount.incrementAndGet();
+                            }
+                            List<String> lines = resume.scoredLines;
+                            try {
+                                if (lines == null) {
+                                    lines = score(resume, jobRoles, check);
+                                }
+                                if (analyzer != null) {
+                                    scored.put(new Analyzing(resume, check, lines));
+                                    continue;
+                                }
+                                if (jobs != null) {
+                                    jobs.recordDone(resume.jobId, lines);
+                                }
+                            } catch (IOException | RuntimeException e) {
+                                failures.incrementAndGet();
+                                results.put(errorLine(resume.file, String.valueOf(e.getMessage())));
+                                continue;
+                            }
+                            for (String line : lines) {
+                                results.put(line);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // The AI stage, if any, ends the results itself once its answers are in
+                        if (scorersLeft.decrementAndGet() == 0) {
+                            putQuietly(scored, END, 1);
+                        }
+                    }
+                });
+            }
+            if (analyzer != null) {
+                workers.execute(() -> {
+                    try {
+                        runAiStage(scored, results, jobRoles, completions, failures);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        putQuietly(results, END, 1);
+                    }
+                });
+            }
+
+            // Write on the calling thread so output errors surface to the caller
+            ConfigManager config = ConfigManager.getInstance();
+            long commitRows = Math.max(1, config.getLong("results.commit.rows", 1000));
+            long commitNanos = TimeUnit.SECONDS.toNanos(Math.max(1, config.getLong("results.commit.seconds", 10)));
+            long uncommitted = 0;
+            long commitDue = 0;
+            long lines = 0;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            Object line;
+            while (true) {
+                // With rows waiting, wake up when their commit is due even if no line arrives
+                line = uncommitted > 0
+                    ? results.poll(commitDue - System.nanoTime(), TimeUnit.NANOSECONDS)
+                    : results.take();
+                if (line == END) {
+                    break;
+                }
+                if (line != null) {
+                    writer.write((String) line);
+                    writer.write('\n');
+                    lines++;
+                    if (store != null && store(store, (String) line) && uncommitted++ == 0) {
+                        commitDue = System.nanoTime() + commitNanos;
+                    }
+                }
+                if (uncommitted > 0 && (uncommitted >= commitRows || System.nanoTime() - commitDue >= 0)) {
+                    store.commit();
+                    uncommitted = 0;
+                }
+            }
+            writer.flush();
+            if (store != null) {
+                store.commit();
+            }
+            return new Summary(files.size(), failures.get(), lines, (System.nanoTime() - start) / 1_000_000,
+                duplicateCount.get(), resumedCount.get());
+        } finally {
+            workers.shutdownNow();
+            if (completions != null) {
+                completions.shutdownNow();
+            }
+        }
+    }
+
+    private ParsedResume parse(File file, List<String> jobRoles) {
+        try {
+            if (jobs == null) {
+                return new ParsedResume(file, null, ResumeParser.extractText(file, textCache), null, null, null);
+            }
+            String jobId = JobLog.jobId(file, jobRoles, analyzer != null);
+            List<String> completedLines = jobs.completedLines(jobId);
+            if (completedLines != null) {
+                return new ParsedResume(file, jobId, null, null, completedLines, null);
+            }
+            String text = jobs.parsedText(jobId);
+            if (text == null) {
+                text = ResumeParser.extractText(file, textCache);
+                jobs.recordParsed(jobId, text);
+            }
+            return new ParsedResume(file, jobId, text, jobs.scoredLines(jobId), null, null);
+        } catch (IOException | RuntimeException e) {
+            return new ParsedResume(file, null, null, null, null, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    // Keyword result lines for all the roles, in role order
+    private List<String> score(ParsedResume resume, List<String> jobRoles, DuplicateDetector.Check check)
+            throws IOException {
+        // One pass over the text for all requested roles; near-duplicates are scored on their own
+        // text too and only marked, so a line never depends on which copy came first
+        Map<String, ResumeAnalyzer.AnalysisResult> scored = ResumeAnalyzer.analyzeRoles(resume.text, jobRoles,
+            check != null && check.isDuplicate() ? null : corpusUpdates);
+        List<String> lines = new ArrayList<>(scored.size());
+        for (Map.Entry<String, ResumeAnalyzer.AnalysisResult> entry : scored.entrySet()) {
+            lines.add(resultLine(resume.file, entry.getKey(), entry.getValue(), check));
+        }
+        if (jobs != null) {
+            jobs.recordScored(resume.jobId, lines);
+        }
+        return lines;
+    }
+
+    // Takes scored resumes until END and sends them to the LLM a window at a time; returns once
+    // every window's lines are on their way to the writer
+    private void runAiStage(BlockingQueue<Object> scored, BlockingQueue<Object> results, List<String> jobRoles,
+                            ExecutorService completions, AtomicLong failures) throws InterruptedException {
+        Semaphore windows = new Semaphore(AI_WINDOWS_IN_FLIGHT);
+        List<Analyzing> window = new ArrayList<>(aiWindow);
+        Object item;
+        while ((item = scored.take()) != END) {
+            window.add((Analyzing) item);
+            if (window.size() >= aiWindow) {
+                windows.acquire();
+                analyzeWindow(window, jobRoles, results, completions, failures).whenComplete((done, error) -> windows.release());
+                window = new ArrayList<>(aiWindow);
+            }
+        }
+        if (!window.isEmpty()) {
+            windows.acquire();
+            analyzeWindow(window, jobRoles, results, completions, failures).whenComplete((done, error) -> windows.release());
+        }
+        windows.acquire(AI_WINDOWS_IN_FLIGHT);
+    }
+
+    // Routes the window through the cascade role by role, takes what analyses it can from the job
+    // log or a near-duplicate, and asks the LLM for the rest in batched requests per role. Every
+    // answer is logged as it arrives, so a failure costs only the resumes it was for. The returned
+    // future completes when the window's lines have been handed to the writer.
+    private CompletableFuture<Void> analyzeWindow(List<Analyzing> window, List<String> jobRoles,
+                                                  BlockingQueue<Object> results, ExecutorService completions,
+                                                  AtomicLong failures) {
+        List<CompletableFuture<String>> answers = new ArrayList<>();
+        for (int r = 0; r < jobRoles.size(); r++) {
+            int roleIndex = r;
+            String role = jobRoles.get(r);
+            LlmCascade.Route[] routes = null;
+            if (cascade != null) {
+                double[] scores = new double[window.size()];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = window.get(i).lines.get(r).get("score").asDouble();
+                }
+                routes = cascade.route(scores);
+            }
+            List<Analyzing> pending = new ArrayList<>();
+            for (int i = 0; i < window.size(); i++) {
+                Analyzing resume = window.get(i);
+                ObjectNode line = resume.lines.get(r);
+                if (routes != null) {
+                    line.put("aiRoute", routes[i].name().toLowerCase(Locale.ROOT));
+                }
+                // An analysis logged by an earlier run has been paid for, so it is used whatever the route
+                String analysis = jobs != null ? jobs.analysis(resume.resume.jobId, role) : null;
+                if (analysis == null && (routes == null || routes[i].usesLlm())) {
+                    analysis = resume.check != null ? resume.check.reusableAiAnalysis(role) : null;
+                    if (analysis == null) {
+                        pending.add(resume);
+                        continue;
+                    }
+                    resume.recordAnalysis(role, analysis);
+                }
+                if (analysis != null) {
+                    line.put("aiAnalysis", analysis);
+                }
+            }
+            if (pending.isEmpty()) {
+                continue;
+            }
+            List<String> texts = new ArrayList<>(pending.size());
+            for (Analyzing resume : pending) {
+                texts.add(resume.resume.text);
+            }
+            List<CompletableFuture<String>> analyses = analyzer.analyzeEachAsync(texts, role);
+            for (int i = 0; i < pending.size(); i++) {
+                Analyzing resume = pending.get(i);
+                ObjectNode line = resume.lines.get(roleIndex);
+                answers.add(analyses.get(i).whenCompleteAsync((analysis, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        line.put("aiError", String.valueOf(cause.getMessage()));
+                        resume.aiErrors++;
+                    } else {
+                        line.put("aiAnalysis", analysis);
+                        resume.recordAnalysis(role, analysis);
+                    }
+                }, completions));
+            }
+        }
+        return CompletableFuture.allOf(answers.toArray(new CompletableFuture<?>[0]))
+            .handleAsync((done, error) -> {
+                for (Analyzing resume : window) {
+                    emit(resume, results, failures);
+                }
+                return null;
+            }, completions);
+    }
+
+    // Logs a resume of the AI stage as done, unless an analysis failed, and passes its lines on
+    private void emit(Analyzing resume, BlockingQueue<Object> results, AtomicLong failures) {
+        try {
+            List<String> lines = new ArrayList<>(resume.lines.size());
+            resume.lines.forEach(line -> lines.add(line.toString()));
+            IOException logError = resume.logError;
+            // A job with a failed AI analysis stays open, so the next run retries it
+            if (logError == null && jobs != null && resume.aiErrors == 0) {
+                try {
+                    jobs.recordDone(resume.resume.jobId, lines);
+                } catch (IOException e) {
+                    logError = e;
+                }
+            }
+            if (logError != null) {
+                failures.incrementAndGet();
+                results.put(errorLine(resume.resume.file, String.valueOf(logError.getMessage())));
+                return;
+            }
+            failures.addAndGet(resume.aiErrors);
+            for (String line : lines) {
+                results.put(line);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String resultLine(File file, String role, ResumeAnalyzer.AnalysisResult result,
+                                     DuplicateDetector.Check check) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("file", file.getPath());
+        node.put("role", role);
+        if (check != null && check.isDuplicate()) {
+            node.put("duplicateOf", check.getOriginal());
+            node.put("similarity", Math.round(check.getSimilarity() * 100) / 100.0);
+        }
+        node.put("score", Math.round(result.getScore() * 10) / 10.0);
+        // Both are in keyword order, so the same resume always produces the same line
+        result.getFoundKeywords().forEach(node.putArray("foundKeywords")::add);
+        result.getMissingKeywords().forEach(node.putArray("missingKeywords")::add);
+        result.getSuggestions().forEach(node.putArray("suggestions")::add);
+        return node.toString();
+    }
+
+    // False for error lines, which are not stored
+    private static boolean store(ResultStore store, String line) throws IOException {
+        JsonNode node = MAPPER.readTree(line);
+        if (node.has("error")) {
+            return false;
+        }
+        JsonNode analysis = node.get("aiAnalysis");
+        store.append(node.get("file").asText(), node.get("role").asText(), node.get("score").asDouble(),
+            stringList(node.get("foundKeywords")), stringList(node.get("missingKeywords")),
+            stringList(node.get("suggestions")), analysis != null ? analysis.asText() : null,
+            System.currentTimeMillis());
+        return true;
+    }
+
+    private static List<String> stringList(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        if (array != null) {
+            array.forEach(value -> values.add(value.asText()));
+        }
+        return values;
+    }
+
+    private static String errorLine(File file, String error) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("file", file.getPath());
+        node.put("error", error);
+        return node.toString();
+    }
+
+    private static File next(Iterator<File> input) {
+        synchronized (input) {
+            return input.hasNext() ? input.next() : null;
+        }
+    }
+
+    private static void putQuietly(BlockingQueue<Object> queue, Object item, int copies) {
+        try {
+            for (int i = 0; i < copies; i++) {
+                queue.put(item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class ParsedResume {
+        private final File file;
+        private final String jobId;
+        private final String text;
+        // Logged by an earlier run, if any
+        private final List<String> scoredLines;
+        private final List<String> completedLines;
+        private final String error;
+
+        ParsedResume(File file, String jobId, String text, List<String> scoredLines, List<String> completedLines,
+                     String error) {
+            this.file = file;
+            this.jobId = jobId;
+            this.text = text;
+            this.scoredLines = scoredLines;
+            this.completedLines = completedLines;
+            this.error = error;
+        }
+    }
+
+    public static final class Builder {
+        private int parseThreads = Runtime.getRuntime().availableProcessors();
+        private int scoreThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int queueCapacity = Runtime.getRuntime().availableProcessors() * 4;
+        private ExtractedTextCache textCache;
+        private CorpusStats corpusUpdates;
+        private DuplicateDetector duplicates;
+        private JobLog jobs;
+        private GroqAnalyzer analyzer;
+        private LlmCascade cascade;
+        private int aiWindow = 50;
+
+        private Builder() {
+        }
+
+        public Builder parseThreads(int parseThreads) {
+            this.parseThreads = parseThreads;
+            return this;
+        }
+
+        public Builder scoreThreads(int scoreThreads) {
+            this.scoreThreads = scoreThreads;
+            return this;
+        }
+
+        // Capacity of the queues between the stages
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder textCache(ExtractedTextCache textCache) {
+            this.textCache = textCache;
+            return this;
+        }
+
+        // Every scored resume is also added to corpusUpdates. Keeping these apart from the statistics
+        // used for scoring makes a run's scores independent of the order files finish in.
+        public Builder corpusUpdates(CorpusStats corpusUpdates) {
+            this.corpusUpdates = corpusUpdates;
+            return this;
+        }
+
+        // Each resume is checked against those scored before it (in this run, or earlier with the
+        // same detector). A near-duplicate is scored on its own text and its lines name the resume it
+        // matched; in REUSE mode it takes that resume's AI analysis. Duplicates are not added to
+        // corpusUpdates, so resubmissions do not inflate keyword frequencies. Which copy counts as
+        // the original depends on the order the scorers reach them.
+        public Builder duplicates(DuplicateDetector duplicates) {
+            this.duplicates = duplicates;
+            return this;
+        }
+
+        // Every stage a resume completes is logged, and a job the log already has is picked up where
+        // it stopped: a completed one's lines are written again as they were, without parsing,
+        // scoring or LLM calls. Resumed jobs are not added to corpusUpdates or the duplicate detector.
+        public Builder jobs(JobLog jobs) {
+            this.jobs = jobs;
+            return this;
+        }
+
+        // Every result line also gets the AI analysis of the resume for its role (aiAnalysis, or aiError)
+        public Builder analyzer(GroqAnalyzer analyzer) {
+            this.analyzer = analyzer;
+            return this;
+        }
+
+        // The AI stage collects scored resumes into windows of aiWindow and, with a cascade, sends
+        // only those it picks from each role's keyword scores in the window to the LLM; the
+        // cascade's rank and budget therefore apply per window. The others get aiRoute but no
+        // aiAnalysis, and are complete. Without a cascade every resume is analyzed.
+        public Builder cascade(LlmCascade cascade, int aiWindow) {
+            this.cascade = cascade;
+            this.aiWindow = aiWindow;
+            return this;
+        }
+
+        public BatchPipeline build() {
+            if (parseThreads < 1 || scoreThreads < 1 || queueCapacity < 1 || aiWindow < 1) {
+                throw new IllegalArgumentException("Thread counts, queue capacity and AI window must be positive");
+            }
+            return new BatchPipeline(this);
+        }
+    }
+
+    // A scored resume in the AI stage; its lines are filled in on the completion thread
+    private final class Analyzing {
+        private final ParsedResume resume;
+        private final DuplicateDetector.Check check;
+        private final List<ObjectNode> lines;
+        private int aiErrors;
+        private IOException logError;
+
+        Analyzing(ParsedResume resume, DuplicateDetector.Check check, List<String> lines) throws IOException {
+            this.resume = resume;
+            this.check = check;
+            this.lines = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                this.lines.add((ObjectNode) MAPPER.readTree(line));
+            }
+        }
+
+        void recordAnalysis(String role, String analysis) {
+            if (check != null) {
+                check.recordAiAnalysis(role, analysis);
+            }
+            if (jobs != null && logError == null) {
+                try {
+                    jobs.recordAnalyzed(resume.jobId, role, analysis);
+                } catch (IOException e) {
+                    logError = e;
+                }
+            }
+        }
+    }
+
+    public static class Summary {
+        private final long files;
+        private final long failures;
+        private final long lines;
+        private final long elapsedMillis;
+        private final long duplicates;
+        private final long resumed;
+
+        public Summary(long files, long failures, long lines, long elapsedMillis) {
+            this(files, failures, lines, elapsedMillis, 0);
+        }
+
+        public Summary(long files, long failures, long lines, long elapsedMillis, long duplicates) {
+            this(files, failures, lines, elapsedMillis, duplicates, 0);
+        }
+
+        public Summary(long files, long failures, long lines, long elapsedMillis, long duplicates, long resumed) {
+            this.files = files;
+            this.failures = failures;
+            this.lines = lines;
+            this.elapsedMillis = elapsedMillis;
+            this.duplicates = duplicates;
+            this.resumed = resumed;
+        }
+
+        public long getFiles() { return files; }
+        public long getFailures() { return failures; }
+        public long getLines() { return lines; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        // Resumes found to be near-duplicates of one scored before them
+        public long getDuplicates() { return duplicates; }
+        // Resumes whose job the log had completed in an earlier run
+        public long getResumed() { return resumed; }
+    }
+}
@@ -0,0 +1,356 @@
+package com.resumeanalyzer.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeanalyzer.cache.ContentHash;
+import com.resumeanalyzer.config.ConfigManager;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// Write-ahead log of a resumable batch. Every stage a job completes is appended as one record:
+// the parsed text, the keyword result lines, each role's AI analysis, and finally the job's
+// output lines. A rerun over the same log skips what is recorded, so a crash costs at most the
+// stages that were in flight: completed jobs are not parsed, scored or sent to the LLM again.
+//
+// A record is one line, "<crc32 hex> <json>". Records are written straight to the file, so they
+// survive the process being killed; AI analyses, which cost money, are also forced to disk at
+// once, the rest when the log is compacted or closed. Replay stops at the first torn or corrupt
+// record and cuts the file there. Only jobs still in progress are held in memory; a completed job
+// is the position of its final record. Once the file holds far more records than there are jobs,
+// it is compacted: rewritten with just the final record of each completed job and the records of
+// the others, then moved over the log atomically. Thread-safe.
+public final class JobLog implements Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String FORMAT_VERSION = "2";
+
+    private final Path file;
+    private final int compactMinRecords;
+    private final Map<String, Job> jobs = new HashMap<>();
+    private FileChannel channel;
+    private long records;
+    private long completed;
+
+    public JobLog(Path file, int compactMinRecords) throws IOException {
+        if (compactMinRecords < 1) {
+            throw new IllegalArgumentException("compactMinRecords must be positive");
+        }
+        this.file = file;
+        this.compactMinRecords = compactMinRecords;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        replay();
+        maybeCompact();
+    }
+
+    // Reads jobs.compact.min.records from config.properties
+    public static JobLog open(Path file) throws IOException {
+        return new JobLog(file, ConfigManager.getInstance().getInt("jobs.compact.min.records", 10_000));
+    }
+
+    // The same file (path and content) scored for the same roles, with or without AI analysis,
+    // always gets the same id; an edited file gets a new one. The path is resolved first, so a
+    // rerun from another directory, with an absolute path or through a symlink finds its jobs.
+    public static String jobId(File file, List<String> jobRoles, boolean ai) throws IOException {
+        Path path = file.toPath();
+        return ContentHash.of("job-v" + FORMAT_VERSION, path.toRealPath().toString(), ContentHash.of(path),
+            String.join("\n", jobRoles), ai ? "ai" : "keywords");
+    }
+
+    public synchronized long size() {
+        return jobs.size();
+    }
+
+    public synchronized long completedJobs() {
+        return completed;
+    }
+
+    // Output lines of a completed job, or null
+    public synchronized List<String> completedLines(String jobId) throws IOException {
+        Job job = jobs.get(jobId);
+        if (job == null || job.doneOffset < 0) {
+            return null;
+        }
+        return stringList(readRecord(job.doneOffset, job.doneLength).get("lines"));
+    }
+
+    // Text of a parsed job that is not complete yet, or null
+    public synchronized String parsedText(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.text : null;
+    }
+
+    // Keyword result lines of a scored job that is not complete yet, or null
+    public synchronized List<String> scoredLines(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.scored : null;
+    }
+
+    public synchronized String analysis(String jobId, String jobRole) {
+        Job job = jobs.get(jobId);
+        return job != null && job.analyses != null ? job.analyses.get(jobRole) : null;
+    }
+
+    public synchronized void recordParsed(String jobId, String text) throws IOException {
+        ObjectNode record = record(jobId, "parsed");
+        record.put("text", text);
+        append(record, false);
+    }
+
+    public synchronized void recordScored(String jobId, List<String> lines) throws IOException {
+        ObjectNode record = record(jobId, "scored");
+        lines.forEach(record.putArray("lines")::add);
+        append(record, false);
+    }
+
+    public synchronized void recordAnalyzed(String jobId, String jobRole, String analysis) throws IOException {
+        ObjectNode record = record(jobId, "analyzed");
+        record.put("role", jobRole);
+        record.put("analysis", analysis);
+        append(record, true);
+    }
+
+    public synchronized void recordDone(String jobId, List<String> lines) throws IOException {
+        ObjectNode record = record(jobId, "done");
+        lines.forEach(record.putArray("lines")::add);
+        append(record, false);
+        maybeCompact();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private static ObjectNode record(String jobId, String stage) {
+        ObjectNode record = MAPPER.createObjectNode();
+        record.put("job", jobId);
+        record.put("stage", stage);
+        return record;
+    }
+
+    private void append(ObjectNode record, boolean force) throws IOException {
+        long offset = channel.size();
+        byte[] bytes = encode(record);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        if (force) {
+            channel.force(false);
+        }
+        apply(record, offset, bytes.length);
+        records++;
+    }
+
+    private static byte[] encode(JsonNode record) throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(record);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        byte[] prefix = String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+        byte[] bytes = new byte[prefix.length + json.length + 1];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        System.arraycopy(json, 0, bytes, prefix.length, json.length);
+        bytes[bytes.length - 1] = '\n';
+        return bytes;
+    }
+
+    // The record's JSON, or null when the line is torn or corrupt
+    private static JsonNode decode(byte[] line, int length) {
+        if (length < 10 || line[8] != ' ') {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(line, 9, length - 9);
+        try {
+            long expected = Long.parseLong(new String(line, 0, 8, StandardCharsets.US_ASCII), 16);
+            if (expected != crc.getValue()) {
+                return null;
+            }
+            return MAPPER.readTree(line, 9, length - 9);
+        } catch (NumberFormatException | IOException e) {
+            return null;
+        }
+    }
+
+    private void apply(JsonNode record, long offset, int length) {
+        String jobId = record.get("job").asText();
+        Job job = jobs.computeIfAbsent(jobId, k -> new Job());
+        switch (record.get("stage").asText()) {
+            case "parsed":
+                job.text = record.get("text").asText();
+                break;
+            case "scored":
+                job.scored = stringList(record.get("lines"));
+                break;
+            case "analyzed":
+                if (job.analyses == null) {
+                    job.analyses = new HashMap<>();
+                }
+                job.analyses.put(record.get("role").asText(), record.get("analysis").asText());
+                break;
+            case "done":
+                if (job.doneOffset < 0) {
+                    completed++;
+                }
+                // Nothing but the final record is needed from here on
+                job.text = null;
+                job.scored = null;
+                job.analyses = null;
+                job.doneOffset = offset;
+                job.doneLength = length;
+                break;
+            default:
+                System.out.println("Warning: unknown job log stage " + record.get("stage").asText());
+        }
+    }
+
+    private void replay() throws IOException {
+        long offset = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            byte[] line = new byte[4096];
+            while (true) {
+                int length = 0;
+                int b;
+                while ((b = in.read()) >= 0 && b != '\n') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[length++] = (byte) b;
+                }
+                if (b < 0 && length == 0) {
+                    break;
+                }
+                JsonNode record = b < 0 ? null : decode(line, length);
+                if (record == null) {
+                    // A record cut short by a crash; anything after it cannot be trusted either
+                    System.out.println("Warning: job log " + file + " is damaged after " + offset
+                        + " bytes; the rest is discarded");
+                    channel.truncate(offset);
+                    break;
+                }
+                apply(record, offset, length + 1);
+                records++;
+                offset += length + 1;
+            }
+        }
+    }
+
+    private JsonNode readRecord(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Job log " + file + " ends inside a record");
+            }
+        }
+        JsonNode record = decode(buffer.array(), length - 1);
+        if (record == null) {
+            throw new IOException("Corrupt record in job log " + file + " at " + offset);
+        }
+        return record;
+    }
+
+    private void maybeCompact() throws IOException {
+        if (records > compactMinRecords && records > 2L * jobs.size()) {
+            compact();
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".compact");
+        Map<String, Job> rewritten = new HashMap<>();
+        long offset = 0;
+        long written = 0;
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, Job> entry : jobs.entrySet()) {
+                Job job = entry.getValue();
+                List<byte[]> kept = new ArrayList<>();
+                if (job.doneOffset >= 0) {
+                    ByteBuffer record = ByteBuffer.allocate(job.doneLength);
+                    while (record.hasRemaining()) {
+                        if (channel.read(record, job.doneOffset + record.position()) < 0) {
+                            throw new EOFException("Job log " + file + " ends inside a record");
+                        }
+                    }
+                    kept.add(record.array());
+                } else {
+                    if (job.text != null) {
+                        ObjectNode record = record(entry.getKey(), "parsed");
+                        record.put("text", job.text);
+                        kept.add(encode(record));
+                    }
+                    if (job.scored != null) {
+                        ObjectNode record = record(entry.getKey(), "scored");
+                        job.scored.forEach(record.putArray("lines")::add);
+                        kept.add(encode(record));
+                    }
+                    if (job.analyses != null) {
+                        for (Map.Entry<String, String> analysis : job.analyses.entrySet()) {
+                            ObjectNode record = record(entry.getKey(), "analyzed");
+                            record.put("role", analysis.getKey());
+                            record.put("analysis", analysis.getValue());
+                            kept.add(encode(record));
+                        }
+                    }
+                }
+                Job copy = new Job();
+                copy.text = job.text;
+                copy.scored = job.scored;
+                copy.analyses = job.analyses;
+                for (byte[] bytes : kept) {
+                    if (job.doneOffset >= 0) {
+                        copy.doneOffset = offset;
+                        copy.doneLength = bytes.length;
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    offset += bytes.length;
+                    written++;
+                }
+                rewritten.put(entry.getKey(), copy);
+            }
+            out.force(true);
+        }
+        // Readers of the old file are this object only, so swapping the channel is enough
+        channel.close();
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        jobs.clear();
+        jobs.putAll(rewritten);
+        records = written;
+    }
+
+    private static List<String> stringList(JsonNode array) {
+        List<String> values = new ArrayList<>(array.size());
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    // Progress of one job; a completed job keeps only where its final record is
+    private static final class Job {
+        String text;
+        List<String> scored;
+        Map<String, String> analyses;
+        long doneOffset = -1;
+        int doneLength;
+    }
+}
@@ -0,0 +1,207 @@
+package com.resumeanalyzer.cache;
+
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Two-tier cache for text extracted from resume files, keyed by a content hash of the file bytes.
+// The memory tier is an LRU bounded by the approximate heap size of the cached strings; the
+// optional disk tier stores gzipped text under the cache directory and survives restarts.
+public class ExtractedTextCache {
+    // Bump when extraction output changes so stale disk entries are no longer used
+    private static final String FORMAT_VERSION = "2";
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final LinkedHashMap<String, String> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExtractedTextCache(long maxMemoryBytes, Path directory) throws IOException {
+        if (maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("Memory bound must not be negative");
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = directory;
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    // Builds a cache from cache.text.memory.mb and cache.text.directory in config.properties
+    public static ExtractedTextCache fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        long memoryMb = config.getLong("cache.text.memory.mb", 64);
+        String dir = config.getProperty("cache.text.directory", null);
+        try {
+            return new ExtractedTextCache(memoryMb * 1024 * 1024, dir != null ? Paths.get(dir) : null);
+        } catch (IOException e) {
+            System.out.println("Warning: text cache directory unavailable, using memory only: " + e.getMessage());
+            try {
+                return new ExtractedTextCache(memoryMb * 1024 * 1024, null);
+            } catch (IOException impossible) {
+                throw new UncheckedIOException(impossible);
+            }
+        }
+    }
+
+    public static String keyFor(Path file) throws IOException {
+        return ContentHash.of(file) + "-v" + FORMAT_VERSION;
+    }
+
+    public static String keyFor(byte[] content) {
+        return ContentHash.of(content) + "-v" + FORMAT_VERSION;
+    }
+
+    public String get(String key) {
+        synchronized (memory) {
+            String text = memory.get(key);
+            if (text != null) {
+                memoryHits.incrementAndGet();
+                PipelineMetrics.recordCacheLookup("text", "memory_hit");
+                return text;
+            }
+        }
+        String text = readFromDisk(key);
+        if (text != null) {
+            diskHits.incrementAndGet();
+            PipelineMetrics.recordCacheLookup("text", "disk_hit");
+            putInMemory(key, text);
+            return text;
+        }
+        misses.incrementAndGet();
+        PipelineMetrics.recordCacheLookup("text", "miss");
+        return null;
+    }
+
+    public void put(String key, String text) {
+        putInMemory(key, text);
+        writeToDisk(key, text);
+    }
+
+    public Stats stats() {
+        synchronized (memory) {
+            return new Stats(memoryHits.get(), diskHits.get(), misses.get(), evictions.get(), memory.size(), memoryBytes);
+        }
+    }
+
+    private void putInMemory(String key, String text) {
+        long size = sizeOf(text);
+        if (size > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            String previous = memory.put(key, text);
+            if (previous != null) {
+                memoryBytes -= sizeOf(previous);
+            }
+            memoryBytes += size;
+            Iterator<Map.Entry<String, String>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                Map.Entry<String, String> entry = eldest.next();
+                memoryBytes -= sizeOf(entry.getValue());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private String readFromDisk(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = pathFor(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Warning: discarding unreadable cache entry " + file + ": " + e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, String text) {
+        if (directory == null) {
+            return;
+        }
+        Path file = pathFor(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Warning: could not write cache entry " + file + ": " + e.getMessage());
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    // Two-level fan-out keeps directories small for large corpora
+    private Path pathFor(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".txt.gz");
+    }
+
+    private static long sizeOf(String text) {
+        return ENTRY_OVERHEAD + 2L * text.length();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    public static class Stats {
+        private final long memoryHits;
+        private final long diskHits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long bytes;
+
+        public Stats(long memoryHits, long diskHits, long misses, long evictions, int entries, long bytes) {
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public long getMemoryHits() { return memoryHits; }
+        public long getDiskHits() { return diskHits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getEntries() { return entries; }
+        public long getBytes() { return bytes; }
+
+        @Override
+        public String toString() {
+            return String.format("memory hits=%d, disk hits=%d, misses=%d, evictions=%d, entries=%d, bytes=%d",
+                memoryHits, diskHits, misses, evictions, entries, bytes);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.resumeanalyzer.cache;
+
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cache for LLM responses keyed by a hash of everything that determines the answer (model,
+// prompt version, messages). Entries expire after a TTL and the memory tier is bounded by entry
+// count; an optional directory keeps responses across restarts. Concurrent requests for the
+// same key share one in-flight call (single flight).
+public class LlmResponseCache {
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Path directory;
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LlmResponseCache(long ttlMillis, int maxEntries, Path directory) throws IOException {
+        if (ttlMillis < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("TTL and size bound must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.directory = directory;
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    // Builds a cache from cache.llm.ttl.minutes, cache.llm.max.entries and cache.llm.directory
+    public static LlmResponseCache fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        long ttl = config.getLong("cache.llm.ttl.minutes", 24 * 60) * 60_000;
+        int maxEntries = config.getInt("cache.llm.max.entries", 1000);
+        String dir = config.getProperty("cache.llm.directory", null);
+        try {
+            return new LlmResponseCache(ttl, maxEntries, dir != null ? Paths.get(dir) : null);
+        } catch (IOException e) {
+            System.out.println("Warning: LLM cache directory unavailable, using memory only: " + e.getMessage());
+            try {
+                return new LlmResponseCache(ttl, maxEntries, null);
+            } catch (IOException impossible) {
+                throw new UncheckedIOException(impossible);
+            }
+        }
+    }
+
+    public static String keyFor(String... parts) {
+        return ContentHash.of(parts);
+    }
+
+    // Returns the cached response, joins an identical call in flight, or starts the loader.
+    // Each caller gets its own future; the shared call is cancelled only when every caller cancels.
+    public CompletableFuture<String> get(String key, Supplier<CompletableFuture<String>> loader) {
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            PipelineMetrics.recordCacheLookup("llm", "hit");
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        Flight created = new Flight();
+        Flight flight = inFlight.putIfAbsent(key, created);
+        if (flight != null) {
+            coalesced.incrementAndGet();
+            PipelineMetrics.recordCacheLookup("llm", "coalesced");
+            return flight.join();
+        }
+
+        misses.incrementAndGet();
+        PipelineMetrics.recordCacheLookup("llm", "miss");
+        CompletableFuture<String> caller = created.join();
+        CompletableFuture<String> call;
+        try {
+            call = loader.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        created.call = call;
+        call.whenComplete((value, error) -> {
+            // Store before releasing the callers so a follow-up lookup already sees the entry
+            if (error == null && value != null) {
+                store(key, value);
+            }
+            inFlight.remove(key, created);
+            created.finish(value, error);
+        });
+        return caller;
+    }
+
+    public Stats stats() {
+        synchronized (memory) {
+            return new Stats(hits.get(), misses.get(), coalesced.get(), evictions.get(), memory.size());
+        }
+    }
+
+    private String lookup(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    return entry.value;
+                }
+                memory.remove(key);
+            }
+        }
+        Entry entry = readFromDisk(key, now);
+        if (entry != null) {
+            putInMemory(key, entry);
+            return entry.value;
+        }
+        return null;
+    }
+
+    private void store(String key, String value) {
+        Entry entry = new Entry(value, System.currentTimeMillis() + ttlMillis);
+        putInMemory(key, entry);
+        writeToDisk(key, entry);
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        synchronized (memory) {
+            memory.put(key, entry);
+            Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+            while (memory.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Disk format: expiry time in epoch millis on the first line, the response after it
+    private Entry readFromDisk(String key, long now) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(key + ".txt");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int newline = content.indexOf('\n');
+            long expiresAt = Long.parseLong(content.substring(0, newline));
+            if (expiresAt <= now) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return new Entry(content.substring(newline + 1), expiresAt);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: discarding unreadable LLM cache entry " + file + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(key + ".txt");
+        try {
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.writeString(temp, entry.expiresAt + "\n" + entry.value, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Warning: could not write LLM cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // One shared call plus the per-caller futures attached to it
+    private static class Flight {
+        private final CompletableFuture<String> shared = new CompletableFuture<>();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private volatile CompletableFuture<String> call;
+
+        CompletableFuture<String> join() {
+            waiting.incrementAndGet();
+            CompletableFuture<String> caller = new CompletableFuture<>();
+            shared.whenComplete((value, error) -> {
+                if (error != null) {
+                    caller.completeExceptionally(error);
+                } else {
+                    caller.complete(value);
+                }
+            });
+            caller.whenComplete((value, error) -> {
+                if (caller.isCancelled() && waiting.decrementAndGet() == 0 && call != null) {
+                    call.cancel(true);
+                }
+            });
+            return caller;
+        }
+
+        void finish(String value, Throwable error) {
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
+            }
+        }
+    }
+
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long coalesced;
+        private final long evictions;
+        private final int entries;
+
+        public Stats(long hits, long misses, long coalesced, long evictions, int entries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.coalesced = coalesced;
+            this.evictions = evictions;
+            this.entries = entries;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getCoalesced() { return coalesced; }
+        public long getEvictions() { return evictions; }
+        public int getEntries() { return entries; }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, coalesced=%d, evictions=%d, entries=%d",
+                hits, misses, coalesced, evictions, entries);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.resumeanalyzer.dedup;
+
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The stage between text extraction and analysis that recognizes a resume seen before in another
+// form: the same CV sent to another posting with a new date, a reordered bullet or another file
+// name. Near-identical resumes form a group that keeps the AI analysis computed for each role.
+// Keyword scoring always runs on a resume's own text, so its results never depend on which copy
+// came first. In REUSE mode callers take the group's AI analysis instead of paying for another
+// LLM call; in FLAG mode they analyze as usual and only report the duplicate.
+public final class DuplicateDetector {
+    public enum Mode { REUSE, FLAG }
+
+    private final NearDuplicateIndex<Group> index;
+    private final Mode mode;
+
+    public DuplicateDetector(double threshold, int maxEntries, Mode mode) {
+        this.index = new NearDuplicateIndex<>(threshold, maxEntries);
+        this.mode = mode;
+    }
+
+    // Null when dedup.enabled is false
+    public static DuplicateDetector fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.getBoolean("dedup.enabled", true)) {
+            return null;
+        }
+        Mode mode;
+        String configured = config.getProperty("dedup.mode", "reuse");
+        try {
+            mode = Mode.valueOf(configured.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Warning: unknown dedup.mode " + configured + ", using reuse");
+            mode = Mode.REUSE;
+        }
+        return new DuplicateDetector(config.getDouble("dedup.threshold", 0.8),
+            config.getInt("dedup.max.entries", 20_000), mode);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Finds the group of an earlier near-identical resume, or starts a new one named after source
+    public Check check(String source, String text) {
+        long start = System.nanoTime();
+        MinHashSignature signature = MinHashSignature.of(text);
+        NearDuplicateIndex.Match<Group> match;
+        Group group;
+        // Two copies checked at the same time must not both start a group
+        synchronized (this) {
+            match = index.find(signature);
+            if (match != null) {
+                group = match.getValue();
+            } else {
+                group = new Group(source);
+                index.add(signature, group);
+            }
+        }
+        PipelineMetrics.recordDuplicateCheck(start, match != null);
+        return new Check(group, match != null, match != null ? match.getSimilarity() : 1, mode == Mode.REUSE);
+    }
+
+    public static final class Check {
+        private final Group group;
+        private final boolean duplicate;
+        private final double similarity;
+        private final boolean reuse;
+
+        private Check(Group group, boolean duplicate, double similarity, boolean reuse) {
+            this.group = group;
+            this.duplicate = duplicate;
+            this.similarity = similarity;
+            this.reuse = reuse;
+        }
+
+        public boolean isDuplicate() { return duplicate; }
+        // The resume that started the group, e.g. its file name
+        public String getOriginal() { return group.original; }
+        public double getSimilarity() { return similarity; }
+
+        // AI analysis for the role from an earlier resume of the group, or null when there is none
+        // or the mode is FLAG
+        public String reusableAiAnalysis(String jobRole) {
+            return reuse && duplicate ? group.aiAnalyses.get(jobRole) : null;
+        }
+
+        public void recordAiAnalysis(String jobRole, String analysis) {
+            group.aiAnalyses.put(jobRole, analysis);
+        }
+    }
+
+    private static final class Group {
+        final String original;
+        final Map<String, String> aiAnalyses = new ConcurrentHashMap<>();
+
+        Group(String original) {
+            this.original = original;
+        }
+    }
+}
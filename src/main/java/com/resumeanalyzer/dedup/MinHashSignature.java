@@ -0,0 +1,130 @@
+package com.resumeanalyzer.dedup;
+
+import java.util.Arrays;
+
+// MinHash signature of a resume: for each of NUM_HASHES hash functions, the smallest hash of any
+// shingle (SHINGLE_WORDS consecutive words) of the text. Two signatures agree in a position with
+// probability equal to the Jaccard similarity of the two shingle sets, so 512 bytes estimate how
+// much of two resumes is the same text. Words are lower-cased and every digit reads as 0, so a
+// changed date or phone number does not count as a change; moving a bullet only changes the
+// shingles that span its edges.
+public final class MinHashSignature {
+    public static final int NUM_HASHES = 128;
+    static final int SHINGLE_WORDS = 3;
+
+    // Odd multipliers and offsets of the hash functions, from a fixed seed so signatures computed
+    // in different runs compare
+    private static final long[] MULTIPLIERS = new long[NUM_HASHES];
+    private static final long[] OFFSETS = new long[NUM_HASHES];
+
+    static {
+        long state = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            state = mix(state + 0x9e3779b97f4a7c15L);
+            MULTIPLIERS[i] = state | 1;
+            state = mix(state + 0x9e3779b97f4a7c15L);
+            OFFSETS[i] = state;
+        }
+    }
+
+    private final int[] values;
+    private final boolean empty;
+
+    private MinHashSignature(int[] values, boolean empty) {
+        this.values = values;
+        this.empty = empty;
+    }
+
+    public static MinHashSignature of(CharSequence text) {
+        long[] minimums = new long[NUM_HASHES];
+        Arrays.fill(minimums, -1L);
+        // Hashes of the last SHINGLE_WORDS words, as a ring
+        long[] window = new long[SHINGLE_WORDS];
+        int words = 0;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            long hash = 0xcbf29ce484222325L;
+            while (i < length && isWordChar(text.charAt(i))) {
+                char c = text.charAt(i++);
+                c = Character.isDigit(c) ? '0' : Character.toLowerCase(c);
+                hash = (hash ^ c) * 0x100000001b3L;
+            }
+            window[words % SHINGLE_WORDS] = hash;
+            words++;
+            if (words >= SHINGLE_WORDS) {
+                addShingle(minimums, shingle(window, words));
+            }
+        }
+        if (words > 0 && words < SHINGLE_WORDS) {
+            // Too short for a full shingle: the words together make the only one
+            addShingle(minimums, shingle(window, words));
+        }
+        int[] values = new int[NUM_HASHES];
+        for (int h = 0; h < NUM_HASHES; h++) {
+            values[h] = (int) (minimums[h] >>> 32);
+        }
+        return new MinHashSignature(values, words == 0);
+    }
+
+    // True for text without words; such a signature matches nothing
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    // Estimated Jaccard similarity of the two texts' shingles, 0 to 1
+    public double similarity(MinHashSignature other) {
+        if (empty || other.empty) {
+            return 0;
+        }
+        int equal = 0;
+        for (int h = 0; h < NUM_HASHES; h++) {
+            if (values[h] == other.values[h]) {
+                equal++;
+            }
+        }
+        return equal / (double) NUM_HASHES;
+    }
+
+    int value(int h) {
+        return values[h];
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '+' || c == '#';
+    }
+
+    // Order-sensitive combination of the last min(words, SHINGLE_WORDS) word hashes
+    private static long shingle(long[] window, int words) {
+        long hash = 0;
+        int n = Math.min(words, SHINGLE_WORDS);
+        for (int k = n; k > 0; k--) {
+            hash = hash * 0x100000001b3L + window[(words - k) % SHINGLE_WORDS];
+        }
+        return mix(hash);
+    }
+
+    // Multiply-add hashing of an already mixed value; the high bits, which the signature keeps,
+    // are well distributed
+    private static void addShingle(long[] minimums, long shingle) {
+        for (int h = 0; h < NUM_HASHES; h++) {
+            long value = shingle * MULTIPLIERS[h] + OFFSETS[h];
+            if (Long.compareUnsigned(value, minimums[h]) < 0) {
+                minimums[h] = value;
+            }
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,122 @@
+package com.resumeanalyzer.dedup;
+
+import java.util.*;
+
+// Locality-sensitive hashing over MinHash signatures. A signature is cut into BANDS bands of
+// ROWS values, and only entries that share at least one whole band with the query are compared.
+// With 32 bands of 4 rows, a pair at 0.8 similarity shares a band with near certainty (a miss
+// is 1 in 20 million), one at 0.2 with probability 0.05 and unrelated resumes (below 0.1)
+// hardly ever, so a lookup compares a handful of signatures, not all of them. The oldest entries
+// are dropped beyond maxEntries. Thread-safe.
+public final class NearDuplicateIndex<T> {
+    static final int BANDS = 32;
+    static final int ROWS = MinHashSignature.NUM_HASHES / BANDS;
+
+    private final double threshold;
+    private final int maxEntries;
+    private final Map<Long, List<Entry<T>>> buckets = new HashMap<>();
+    private final ArrayDeque<Entry<T>> entries = new ArrayDeque<>();
+
+    public NearDuplicateIndex(double threshold, int maxEntries) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Similarity threshold must be in (0, 1]: " + threshold);
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // The most similar entry at or above the threshold, or null
+    public synchronized Match<T> find(MinHashSignature signature) {
+        if (signature.isEmpty()) {
+            return null;
+        }
+        Entry<T> best = null;
+        double bestSimilarity = 0;
+        Set<Entry<T>> compared = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry<T>> bucket = buckets.get(bandKey(signature, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry<T> entry : bucket) {
+                if (compared.add(entry)) {
+                    double similarity = signature.similarity(entry.signature);
+                    if (similarity >= threshold && similarity > bestSimilarity) {
+                        best = entry;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+        }
+        return best == null ? null : new Match<>(best.value, bestSimilarity);
+    }
+
+    public synchronized void add(MinHashSignature signature, T value) {
+        if (signature.isEmpty()) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(signature, value);
+        entries.addLast(entry);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), k -> new ArrayList<>(1)).add(entry);
+        }
+        if (entries.size() > maxEntries) {
+            remove(entries.removeFirst());
+        }
+    }
+
+    private void remove(Entry<T> entry) {
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(entry.signature, band);
+            List<Entry<T>> bucket = buckets.get(key);
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    // The band's values hashed together with its number, so equal values in different bands differ
+    private static long bandKey(MinHashSignature signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x100000001b3L + (signature.value(row) & 0xffffffffL);
+        }
+        return key;
+    }
+
+    private static final class Entry<T> {
+        final MinHashSignature signature;
+        final T value;
+
+        Entry(MinHashSignature signature, T value) {
+            this.signature = signature;
+            this.value = value;
+        }
+    }
+
+    public static final class Match<T> {
+        private final T value;
+        private final double similarity;
+
+        Match(T value, double similarity) {
+            this.value = value;
+            this.similarity = similarity;
+        }
+
+        public T getValue() { return value; }
+        // Estimated share of identical text, at least the index threshold
+        public double getSimilarity() { return similarity; }
+    }
+}
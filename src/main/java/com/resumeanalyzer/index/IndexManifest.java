@@ -0,0 +1,86 @@
+package com.resumeanalyzer.index;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The list of live segments, in doc id order, plus the counters for new segment names and doc
+// ids. Stored as a small text file that is replaced atomically, so readers always see either
+// the old or the new set of segments.
+final class IndexManifest {
+    static final String FILE_NAME = "segments";
+
+    private final int nextSegment;
+    private final int nextDoc;
+    private final List<Entry> segments;
+
+    IndexManifest(int nextSegment, int nextDoc, List<Entry> segments) {
+        this.nextSegment = nextSegment;
+        this.nextDoc = nextDoc;
+        this.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+    }
+
+    static IndexManifest load(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return new IndexManifest(1, 0, List.of());
+        }
+        int nextSegment = 1;
+        int nextDoc = 0;
+        List<Entry> segments = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields[0].isEmpty() || fields[0].startsWith("#")) {
+                continue;
+            }
+            try {
+                if (fields[0].equals("next")) {
+                    nextSegment = Integer.parseInt(fields[1]);
+                    nextDoc = Integer.parseInt(fields[2]);
+                } else {
+                    segments.add(new Entry(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2])));
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed index manifest line: " + line);
+            }
+        }
+        return new IndexManifest(nextSegment, nextDoc, segments);
+    }
+
+    void save(Path directory) throws IOException {
+        StringBuilder out = new StringBuilder("# segment base docs\n");
+        out.append("next ").append(nextSegment).append(' ').append(nextDoc).append('\n');
+        for (Entry segment : segments) {
+            out.append(segment.name).append(' ').append(segment.base).append(' ').append(segment.docCount).append('\n');
+        }
+        Path temp = Files.createTempFile(directory, FILE_NAME, ".tmp");
+        Files.writeString(temp, out, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int getNextSegment() { return nextSegment; }
+    int getNextDoc() { return nextDoc; }
+    List<Entry> getSegments() { return segments; }
+
+    static String segmentName(int number) {
+        return String.format("seg-%06d", number);
+    }
+
+    static final class Entry {
+        final String name;
+        final int base;
+        final int docCount;
+
+        Entry(String name, int base, int docCount) {
+            this.name = name;
+            this.base = base;
+            this.docCount = docCount;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.resumeanalyzer.index;
+
+import com.resumeanalyzer.scoring.CorpusStats;
+import com.resumeanalyzer.scoring.RelevanceScorer;
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+
+// A point-in-time view of an index directory. Segments are memory-mapped, so opening a reader
+// is cheap and queries touch only the posting lists they need; documents added after open()
+// are not visible until a new reader is opened. Readers are safe to share between threads.
+public class IndexReader {
+    private final List<Segment> segments;
+    private final int numDocs;
+    private final double averageWords;
+
+    private IndexReader(List<Segment> segments) {
+        this.segments = segments;
+        int docs = 0;
+        long words = 0;
+        for (Segment segment : segments) {
+            docs += segment.getDocCount();
+            words += segment.getTotalWords();
+        }
+        this.numDocs = docs;
+        this.averageWords = docs == 0 ? 0 : (double) words / docs;
+    }
+
+    public static IndexReader open(Path directory) throws IOException {
+        try {
+            return open(IndexManifest.load(directory), directory);
+        } catch (NoSuchFileException e) {
+            // A merge replaced the segments between reading the manifest and mapping them
+            return open(IndexManifest.load(directory), directory);
+        }
+    }
+
+    private static IndexReader open(IndexManifest manifest, Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        for (IndexManifest.Entry entry : manifest.getSegments()) {
+            segments.add(Segment.open(directory, entry.name, entry.base));
+        }
+        return new IndexReader(segments);
+    }
+
+    public int numDocs() {
+        return numDocs;
+    }
+
+    public int documentFrequency(String term) {
+        int df = 0;
+        for (Segment segment : segments) {
+            df += segment.documentFrequency(term);
+        }
+        return df;
+    }
+
+    // Ids of all matching resumes, ascending
+    public RoaringBitmap search(SkillQuery query) {
+        RoaringBitmap.Builder result = new RoaringBitmap.Builder();
+        for (Segment segment : segments) {
+            int base = segment.getBase();
+            matches(segment, query).forEach(doc -> result.add(base + doc));
+        }
+        return result.build();
+    }
+
+    public int count(SkillQuery query) {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += matches(segment, query).cardinality();
+        }
+        return count;
+    }
+
+    // The k resumes most relevant to a role, optionally restricted to those matching filter.
+    // Scores use the same weighting as RelevanceScorer, with IDF from this index.
+    public List<Hit> topK(String roleName, int k, SkillQuery filter) {
+        KeywordIndex index = KeywordTaxonomy.current();
+        KeywordIndex.Role role = index.role(roleName);
+        String[] terms = new String[role.keywordCount()];
+        double[] weights = new double[role.keywordCount()];
+        double possible = 0;
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = index.keyword(role.keywordId(i));
+            weights[i] = role.weight(i) * CorpusStats.idf(numDocs, documentFrequency(terms[i]));
+            possible += weights[i];
+        }
+        if (k <= 0 || possible == 0) {
+            return List.of();
+        }
+
+        // Min-heap of the best k so far; the root is the first to be displaced
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::getScore)
+            .thenComparing(Comparator.comparingInt(Hit::getDocId).reversed()));
+        for (Segment segment : segments) {
+            // Term-at-a-time accumulation over the segment's posting lists
+            double[] norms = null;
+            float[] scores = new float[segment.getDocCount()];
+            for (int i = 0; i < terms.length; i++) {
+                Segment.Posting posting = segment.posting(terms[i]);
+                if (posting.docs.isEmpty()) {
+                    continue;
+                }
+                if (norms == null) {
+                    norms = new double[segment.getDocCount()];
+                    for (int doc = 0; doc < norms.length; doc++) {
+                        norms[doc] = RelevanceScorer.lengthNorm(segment.words(doc), averageWords);
+                    }
+                }
+                double weight = weights[i];
+                double[] lengthNorms = norms;
+                int[] position = {0};
+                posting.docs.forEach(doc -> scores[doc] += (float) (weight
+                    * RelevanceScorer.credit(posting.frequency(position[0]++), lengthNorms[doc])));
+            }
+            if (norms == null) {
+                continue;
+            }
+            RoaringBitmap allowed = filter != null && !filter.isEmpty() ? matches(segment, filter) : null;
+            for (int doc = 0; doc < scores.length; doc++) {
+                if (scores[doc] <= 0 || (allowed != null && !allowed.contains(doc))) {
+                    continue;
+                }
+                double score = scores[doc] / possible * 100;
+                Hit root = heap.peek();
+                if (heap.size() < k || score > root.score) {
+                    heap.add(new Hit(segment.getBase() + doc, score, segment));
+                    if (heap.size() > k) {
+                        heap.poll();
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparingInt(Hit::getDocId));
+        return hits;
+    }
+
+    public StoredResume document(int docId) {
+        Segment segment = segmentOf(docId);
+        return segment.document(docId - segment.getBase());
+    }
+
+    private Segment segmentOf(int docId) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Segment segment = segments.get(mid);
+            if (docId < segment.getBase()) {
+                high = mid - 1;
+            } else if (docId >= segment.getBase() + segment.getDocCount()) {
+                low = mid + 1;
+            } else {
+                return segment;
+            }
+        }
+        throw new IllegalArgumentException("No document with id " + docId);
+    }
+
+    // Local doc ids of the segment matching the query
+    private static RoaringBitmap matches(Segment segment, SkillQuery query) {
+        RoaringBitmap result = null;
+        for (String term : query.getMust()) {
+            RoaringBitmap docs = segment.posting(term).docs;
+            result = result == null ? docs : result.and(docs);
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        if (result == null) {
+            if (query.getShould().isEmpty()) {
+                result = RoaringBitmap.range(segment.getDocCount());
+            } else {
+                result = RoaringBitmap.empty();
+                for (String term : query.getShould()) {
+                    result = result.or(segment.posting(term).docs);
+                }
+            }
+        }
+        for (String term : query.getMustNot()) {
+            result = result.andNot(segment.posting(term).docs);
+        }
+        return result;
+    }
+
+    public static final class Hit {
+        private final int docId;
+        private final double score;
+        private final Segment segment;
+
+        Hit(int docId, double score, Segment segment) {
+            this.docId = docId;
+            this.score = score;
+            this.segment = segment;
+        }
+
+        public int getDocId() { return docId; }
+        public double getScore() { return score; }
+
+        public String getPath() {
+            return segment.document(docId - segment.getBase()).getPath();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.resumeanalyzer.index;
+
+import com.resumeanalyzer.ResumeParser;
+import com.resumeanalyzer.cache.ContentHash;
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.Deflater;
+
+// Adds resumes to an index directory. Each resume is extracted with ResumeParser, matched
+// against the keyword taxonomy in one pass and buffered; every flushDocs resumes (and on
+// commit) the buffer is written as a new immutable segment. Segments are merged log-style:
+// whenever the newest MERGE_FACTOR segments are of the same size class they are combined into
+// one, so the segment count stays logarithmic in the number of resumes. Merges only combine
+// neighbouring segments, so doc ids never change.
+//
+// Resumes whose extracted text is already in the index are skipped. add() may be called from
+// several threads; only one writer can have a directory open at a time.
+public class IndexWriter implements Closeable {
+    public static final int DEFAULT_FLUSH_DOCS = 2000;
+    private static final int MERGE_FACTOR = 10;
+    // Keeps merged segments well below the 2 GB a single mapping can cover
+    private static final long MAX_MERGED_BYTES = 1L << 30;
+    private static final String LOCK_FILE = "write.lock";
+
+    private final Path directory;
+    private final int flushDocs;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Set<String> hashes = new HashSet<>();
+    private final List<PendingResume> pending = new ArrayList<>();
+    private IndexManifest manifest;
+
+    private IndexWriter(Path directory, int flushDocs) throws IOException {
+        if (flushDocs < 1) {
+            throw new IllegalArgumentException("flushDocs must be positive: " + flushDocs);
+        }
+        this.directory = directory;
+        this.flushDocs = flushDocs;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException("Index " + directory + " is already open for writing");
+        }
+        lock = acquired;
+
+        manifest = IndexManifest.load(directory);
+        deleteUnreferencedFiles();
+        for (IndexManifest.Entry entry : manifest.getSegments()) {
+            Segment segment = Segment.open(directory, entry.name, entry.base);
+            for (int doc = 0; doc < segment.getDocCount(); doc++) {
+                hashes.add(segment.hash(doc));
+            }
+        }
+    }
+
+    public static IndexWriter open(Path directory) throws IOException {
+        return new IndexWriter(directory, DEFAULT_FLUSH_DOCS);
+    }
+
+    public static IndexWriter open(Path directory, int flushDocs) throws IOException {
+        return new IndexWriter(directory, flushDocs);
+    }
+
+    // Returns false if a resume with the same text is already indexed
+    public boolean add(File file) throws IOException {
+        return add(file.getPath(), ResumeParser.extractText(file));
+    }
+
+    public boolean add(String path, String text) throws IOException {
+        String hash = ContentHash.of(text);
+        synchronized (this) {
+            if (!hashes.add(hash)) {
+                return false;
+            }
+        }
+        PendingResume resume;
+        try {
+            resume = prepare(path, hash, text);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                hashes.remove(hash);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pending.add(resume);
+            if (pending.size() >= flushDocs) {
+                flush();
+            }
+        }
+        return true;
+    }
+
+    // Makes everything added so far visible to newly opened readers
+    public synchronized void commit() throws IOException {
+        flush();
+    }
+
+    // Merges all segments into as few as the size limit allows
+    public synchronized void forceMerge() throws IOException {
+        flush();
+        List<IndexManifest.Entry> segments = manifest.getSegments();
+        int start = 0;
+        while (start < segments.size()) {
+            int end = start + 1;
+            long bytes = segmentBytes(segments.get(start));
+            while (end < segments.size() && bytes + segmentBytes(segments.get(end)) <= MAX_MERGED_BYTES) {
+                bytes += segmentBytes(segments.get(end));
+                end++;
+            }
+            if (end - start > 1) {
+                merge(start, end);
+                segments = manifest.getSegments();
+            }
+            start++;
+        }
+    }
+
+    public synchronized int numDocs() {
+        return manifest.getNextDoc() + pending.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private PendingResume prepare(String path, String hash, String text) {
+        KeywordIndex index = KeywordTaxonomy.current();
+        int[] counts = new int[index.idCount()];
+        long words = index.matcher().count(text, counts);
+        int found = 0;
+        for (int id = 0; id < index.keywordCount(); id++) {
+            if (counts[id] > 0) {
+                found++;
+            }
+        }
+        String[] terms = new String[found];
+        byte[] frequencies = new byte[found];
+        int n = 0;
+        for (int id = 0; id < index.keywordCount(); id++) {
+            if (counts[id] > 0) {
+                terms[n] = index.keyword(id);
+                frequencies[n++] = (byte) Math.min(255, counts[id]);
+            }
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 3 + 64);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        return new PendingResume(path, hash, (int) Math.min(Integer.MAX_VALUE, words), terms, frequencies,
+            compressed.toByteArray(), raw.length);
+    }
+
+    private void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        String name = IndexManifest.segmentName(manifest.getNextSegment());
+        TreeMap<String, Postings> postings = new TreeMap<>();
+        try (Segment.Writer writer = new Segment.Writer(directory, name)) {
+            for (int doc = 0; doc < pending.size(); doc++) {
+                PendingResume resume = pending.get(doc);
+                writer.addDocument(resume.path, resume.hash, resume.words, resume.compressedText, resume.rawLength);
+                for (int i = 0; i < resume.terms.length; i++) {
+                    postings.computeIfAbsent(resume.terms[i], term -> new Postings()).add(doc, resume.frequencies[i]);
+                }
+            }
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                writer.addPosting(entry.getKey(), entry.getValue().docs.build(), entry.getValue().frequencies());
+            }
+            writer.finish();
+        }
+
+        List<IndexManifest.Entry> segments = new ArrayList<>(manifest.getSegments());
+        segments.add(new IndexManifest.Entry(name, manifest.getNextDoc(), pending.size()));
+        manifest = new IndexManifest(manifest.getNextSegment() + 1, manifest.getNextDoc() + pending.size(), segments);
+        manifest.save(directory);
+        pending.clear();
+        maybeMerge();
+    }
+
+    private void maybeMerge() throws IOException {
+        while (true) {
+            List<IndexManifest.Entry> segments = manifest.getSegments();
+            int n = segments.size();
+            if (n < MERGE_FACTOR) {
+                return;
+            }
+            int level = level(segments.get(n - 1).docCount);
+            long bytes = 0;
+            for (int i = n - MERGE_FACTOR; i < n; i++) {
+                if (level(segments.get(i).docCount) != level) {
+                    return;
+                }
+                bytes += segmentBytes(segments.get(i));
+            }
+            if (bytes > MAX_MERGED_BYTES) {
+                return;
+            }
+            merge(n - MERGE_FACTOR, n);
+        }
+    }
+
+    // Size class: segments of up to flushDocs docs are level 0, up to flushDocs * MERGE_FACTOR level 1, ...
+    private int level(int docCount) {
+        int level = 0;
+        long limit = flushDocs;
+        while (docCount > limit) {
+            limit *= MERGE_FACTOR;
+            level++;
+        }
+        return level;
+    }
+
+    // Replaces segments [from, to) with one segment holding the same docs in the same order
+    private void merge(int from, int to) throws IOException {
+        List<IndexManifest.Entry> segments = manifest.getSegments();
+        List<Segment> sources = new ArrayList<>();
+        for (IndexManifest.Entry entry : segments.subList(from, to)) {
+            sources.add(Segment.open(directory, entry.name, entry.base));
+        }
+        int base = sources.get(0).getBase();
+        String name = IndexManifest.segmentName(manifest.getNextSegment());
+        try (Segment.Writer writer = new Segment.Writer(directory, name)) {
+            TreeSet<String> terms = new TreeSet<>();
+            for (Segment source : sources) {
+                for (int doc = 0; doc < source.getDocCount(); doc++) {
+                    source.copyRecord(doc, writer);
+                }
+                terms.addAll(source.terms());
+            }
+            for (String term : terms) {
+                RoaringBitmap.Builder docs = new RoaringBitmap.Builder();
+                ByteArrayOutputStream frequencies = new ByteArrayOutputStream();
+                for (Segment source : sources) {
+                    Segment.Posting posting = source.posting(term);
+                    int offset = source.getBase() - base;
+                    posting.docs.forEach(doc -> docs.add(offset + doc));
+                    for (int i = 0; i < posting.frequencies.limit(); i++) {
+                        frequencies.write(posting.frequencies.get(i));
+                    }
+                }
+                writer.addPosting(term, docs.build(), frequencies.toByteArray());
+            }
+            writer.finish();
+        }
+
+        int docCount = 0;
+        for (Segment source : sources) {
+            docCount += source.getDocCount();
+        }
+        List<IndexManifest.Entry> merged = new ArrayList<>(segments.subList(0, from));
+        merged.add(new IndexManifest.Entry(name, base, docCount));
+        merged.addAll(segments.subList(to, segments.size()));
+        manifest = new IndexManifest(manifest.getNextSegment() + 1, manifest.getNextDoc(), merged);
+        manifest.save(directory);
+        for (Segment source : sources) {
+            Segment.delete(directory, source.getName());
+        }
+    }
+
+    private long segmentBytes(IndexManifest.Entry entry) throws IOException {
+        return Files.size(directory.resolve(entry.name + ".post")) + Files.size(directory.resolve(entry.name + ".docs"));
+    }
+
+    // Leftovers of an interrupted flush or merge, or segments a reader kept from being deleted
+    private void deleteUnreferencedFiles() throws IOException {
+        Set<String> live = new HashSet<>();
+        for (IndexManifest.Entry entry : manifest.getSegments()) {
+            live.add(entry.name);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "seg-*")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                int dot = fileName.indexOf('.');
+                String segment = dot < 0 ? fileName : fileName.substring(0, dot);
+                if (!live.contains(segment)) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        System.out.println("Warning: could not delete " + file + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class PendingResume {
+        private final String path;
+        private final String hash;
+        private final int words;
+        private final String[] terms;
+        private final byte[] frequencies;
+        private final byte[] compressedText;
+        private final int rawLength;
+
+        PendingResume(String path, String hash, int words, String[] terms, byte[] frequencies,
+                      byte[] compressedText, int rawLength) {
+            this.path = path;
+            this.hash = hash;
+            this.words = words;
+            this.terms = terms;
+            this.frequencies = frequencies;
+            this.compressedText = compressedText;
+            this.rawLength = rawLength;
+        }
+    }
+
+    private static final class Postings {
+        private final RoaringBitmap.Builder docs = new RoaringBitmap.Builder();
+        private byte[] frequencies = new byte[16];
+        private int count;
+
+        void add(int doc, byte frequency) {
+            docs.add(doc);
+            if (count == frequencies.length) {
+                frequencies = Arrays.copyOf(frequencies, count * 2);
+            }
+            frequencies[count++] = frequency;
+        }
+
+        byte[] frequencies() {
+            return Arrays.copyOf(frequencies, count);
+        }
+    }
+}
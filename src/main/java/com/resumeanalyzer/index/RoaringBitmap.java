@@ -0,0 +1,434 @@
+package com.resumeanalyzer.index;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Compressed set of non-negative ints in the roaring bitmap layout: values are grouped by
+// their high 16 bits and each group is stored as a sorted char array while it has at most
+// 4096 values, or as a 65536-bit bitmap once it is denser. Used for posting lists, where
+// rare terms stay tiny and common ones cost at most 8 KB per 65536 documents. Immutable
+// once built; the set operations return new bitmaps.
+public final class RoaringBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final RoaringBitmap EMPTY = new RoaringBitmap(new char[0], new Container[0], 0);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int size;
+
+    private RoaringBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    public static RoaringBitmap empty() {
+        return EMPTY;
+    }
+
+    // All values 0..count-1
+    public static RoaringBitmap range(int count) {
+        Builder builder = new Builder();
+        for (int i = 0; i < count; i++) {
+            builder.add(i);
+        }
+        return builder.build();
+    }
+
+    public boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Visits the values in ascending order
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = {0};
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    public RoaringBitmap and(RoaringBitmap other) {
+        char[] newKeys = new char[Math.min(size, other.size)];
+        Container[] newContainers = new Container[newKeys.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality > 0) {
+                    newKeys[count] = keys[i];
+                    newContainers[count++] = c;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new RoaringBitmap(newKeys, newContainers, count);
+    }
+
+    public RoaringBitmap or(RoaringBitmap other) {
+        char[] newKeys = new char[size + other.size];
+        Container[] newContainers = new Container[newKeys.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                newKeys[count] = keys[i];
+                newContainers[count++] = containers[i++];
+            } else if (i == size || keys[i] > other.keys[j]) {
+                newKeys[count] = other.keys[j];
+                newContainers[count++] = other.containers[j++];
+            } else {
+                newKeys[count] = keys[i];
+                newContainers[count++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+        return new RoaringBitmap(newKeys, newContainers, count);
+    }
+
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        char[] newKeys = new char[size];
+        Container[] newContainers = new Container[size];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container c = j < other.size && other.keys[j] == keys[i]
+                ? containers[i].andNot(other.containers[j])
+                : containers[i];
+            if (c.cardinality > 0) {
+                newKeys[count] = keys[i];
+                newContainers[count++] = c;
+            }
+        }
+        return new RoaringBitmap(newKeys, newContainers, count);
+    }
+
+    // Layout: container count, then per container its key, kind (0 array, 1 bitmap) and
+    // cardinality, then the container data in the same order
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            out.writeByte(containers[i] instanceof BitmapContainer ? 1 : 0);
+            out.writeInt(containers[i].cardinality);
+        }
+        for (int i = 0; i < size; i++) {
+            containers[i].write(out);
+        }
+    }
+
+    // Size in bytes of write()'s output
+    public int serializedSize() {
+        int bytes = 4 + size * 7;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i] instanceof BitmapContainer ? BITMAP_WORDS * 8 : containers[i].cardinality * 2;
+        }
+        return bytes;
+    }
+
+    // Reads a bitmap written by write(), starting at the buffer's position
+    public static RoaringBitmap read(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        char[] keys = new char[count];
+        boolean[] bitmap = new boolean[count];
+        int[] cardinality = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = buffer.getChar();
+            bitmap[i] = buffer.get() == 1;
+            cardinality[i] = buffer.getInt();
+        }
+        Container[] containers = new Container[count];
+        for (int i = 0; i < count; i++) {
+            if (bitmap[i]) {
+                long[] words = new long[BITMAP_WORDS];
+                buffer.asLongBuffer().get(words);
+                buffer.position(buffer.position() + BITMAP_WORDS * 8);
+                containers[i] = new BitmapContainer(words, cardinality[i]);
+            } else {
+                char[] values = new char[cardinality[i]];
+                buffer.asCharBuffer().get(values);
+                buffer.position(buffer.position() + values.length * 2);
+                containers[i] = new ArrayContainer(values, values.length);
+            }
+        }
+        return new RoaringBitmap(keys, containers, count);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof RoaringBitmap)) {
+            return false;
+        }
+        return Arrays.equals(toArray(), ((RoaringBitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    // Collects values in ascending order
+    public static final class Builder {
+        private char[] keys = new char[4];
+        private Container[] containers = new Container[4];
+        private int size;
+        private int last = -1;
+        private char[] pending = new char[16];
+        private int pendingCount;
+
+        public Builder add(int value) {
+            if (value <= last) {
+                throw new IllegalArgumentException("Values must be added in ascending order: " + value + " after " + last);
+            }
+            if (last >= 0 && (value >>> 16) != (last >>> 16)) {
+                flush();
+            }
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pendingCount * 2);
+            }
+            pending[pendingCount++] = (char) value;
+            last = value;
+            return this;
+        }
+
+        public RoaringBitmap build() {
+            flush();
+            return size == 0 ? EMPTY : new RoaringBitmap(keys, containers, size);
+        }
+
+        private void flush() {
+            if (pendingCount == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = (char) (last >>> 16);
+            containers[size++] = Container.of(Arrays.copyOf(pending, pendingCount), pendingCount);
+            pendingCount = 0;
+        }
+    }
+
+    private abstract static class Container {
+        final int cardinality;
+
+        Container(int cardinality) {
+            this.cardinality = cardinality;
+        }
+
+        // Picks the smaller representation for the given sorted values
+        static Container of(char[] values, int count) {
+            if (count <= ARRAY_MAX) {
+                return new ArrayContainer(values, count);
+            }
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < count; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, count);
+        }
+
+        static Container of(long[] words) {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            if (count > ARRAY_MAX) {
+                return new BitmapContainer(words, count);
+            }
+            char[] values = new char[count];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+
+        abstract boolean contains(char value);
+        abstract void forEach(int high, IntConsumer consumer);
+        abstract long[] toWords();
+        abstract void write(DataOutput out) throws IOException;
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, true);
+            }
+            if (other instanceof ArrayContainer) {
+                return ((ArrayContainer) other).filter(this, true);
+            }
+            long[] a = ((BitmapContainer) this).words;
+            long[] b = ((BitmapContainer) other).words;
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = a[i] & b[i];
+            }
+            return of(words);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer
+                    && cardinality + other.cardinality <= ARRAY_MAX) {
+                return ((ArrayContainer) this).merge((ArrayContainer) other);
+            }
+            long[] words = toWords();
+            long[] b = other.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] |= b[i];
+            }
+            return of(words);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, false);
+            }
+            long[] words = toWords();
+            long[] b = other.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] &= ~b[i];
+            }
+            return of(words);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values, int count) {
+            super(count);
+            this.values = values;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        void write(DataOutput out) throws IOException {
+            for (int i = 0; i < cardinality; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+
+        // Values that are (keep) or are not (!keep) in the other container
+        Container filter(Container other, boolean keep) {
+            char[] result = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        Container merge(ArrayContainer other) {
+            char[] result = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cardinality || j < other.cardinality) {
+                if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                    result[n++] = values[i++];
+                } else if (i == cardinality || values[i] > other.values[j]) {
+                    result[n++] = other.values[j++];
+                } else {
+                    result[n++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+
+        BitmapContainer(long[] words, int cardinality) {
+            super(cardinality);
+            this.words = words;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(high | (w * 64 + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        void write(DataOutput out) throws IOException {
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.resumeanalyzer.index;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// One immutable, memory-mapped segment of the index: <name>.post holds the term dictionary,
+// the posting lists (a RoaringBitmap of local doc ids followed by one term-frequency byte
+// per doc) and the word count of every doc; <name>.docs holds the stored resumes (path,
+// content hash, deflated text). Local doc ids run from 0 to docCount-1; the index adds the
+// segment's base to get global ids.
+final class Segment {
+    private static final int POSTINGS_MAGIC = 0x52415850; // "RAXP"
+    private static final int DOCS_MAGIC = 0x52415844;     // "RAXD"
+    private static final int FORMAT_VERSION = 1;
+    private static final int POSTINGS_HEADER = 4 + 4 + 4 + 8 + 8;
+    private static final int DOCS_HEADER = 4 + 4 + 4;
+
+    private final String name;
+    private final int base;
+    private final int docCount;
+    private final long totalWords;
+    private final ByteBuffer postings;
+    private final ByteBuffer docs;
+    private final Map<String, Integer> termOffsets;
+    private final Map<String, Integer> documentFrequency;
+
+    private Segment(String name, int base, ByteBuffer postings, ByteBuffer docs) throws IOException {
+        this.name = name;
+        this.base = base;
+        this.postings = postings;
+        this.docs = docs;
+        if (postings.getInt(0) != POSTINGS_MAGIC || postings.getInt(4) != FORMAT_VERSION
+                || docs.getInt(0) != DOCS_MAGIC || docs.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Segment " + name + " is damaged or from an unsupported version");
+        }
+        this.docCount = postings.getInt(8);
+        this.totalWords = postings.getLong(12);
+        int dictionaryOffset = (int) postings.getLong(20);
+
+        // The dictionary is a few hundred terms at most, so it is decoded once
+        ByteBuffer dictionary = postings.duplicate();
+        dictionary.position(dictionaryOffset);
+        int terms = dictionary.getInt();
+        termOffsets = new HashMap<>(terms * 2);
+        documentFrequency = new HashMap<>(terms * 2);
+        for (int i = 0; i < terms; i++) {
+            byte[] term = new byte[dictionary.getShort() & 0xffff];
+            dictionary.get(term);
+            String text = new String(term, StandardCharsets.UTF_8);
+            documentFrequency.put(text, dictionary.getInt());
+            termOffsets.put(text, dictionary.getInt());
+        }
+    }
+
+    static Segment open(Path directory, String name, int base) throws IOException {
+        return new Segment(name, base, map(directory.resolve(name + ".post")), map(directory.resolve(name + ".docs")));
+    }
+
+    String getName() { return name; }
+    int getBase() { return base; }
+    int getDocCount() { return docCount; }
+    long getTotalWords() { return totalWords; }
+
+    Set<String> terms() {
+        return termOffsets.keySet();
+    }
+
+    int documentFrequency(String term) {
+        return documentFrequency.getOrDefault(term, 0);
+    }
+
+    // Empty when the term does not occur in this segment
+    Posting posting(String term) {
+        Integer offset = termOffsets.get(term);
+        if (offset == null) {
+            return Posting.EMPTY;
+        }
+        ByteBuffer buffer = postings.duplicate();
+        buffer.position(offset);
+        RoaringBitmap docs = RoaringBitmap.read(buffer);
+        ByteBuffer frequencies = buffer.slice();
+        frequencies.limit(docs.cardinality());
+        return new Posting(docs, frequencies);
+    }
+
+    int words(int doc) {
+        return postings.getInt(POSTINGS_HEADER + doc * 4);
+    }
+
+    StoredResume document(int doc) {
+        ByteBuffer record = record(doc);
+        String path = readUtf(record);
+        String hash = readUtf(record);
+        int words = record.getInt();
+        int rawLength = record.getInt();
+        int compressedLength = record.getInt();
+        ByteBuffer compressed = record.slice();
+        compressed.limit(compressedLength);
+        return new StoredResume(base + doc, path, hash, words, () -> inflate(compressed, rawLength));
+    }
+
+    // Path and hash only, without touching the text
+    String hash(int doc) {
+        ByteBuffer record = record(doc);
+        readUtf(record);
+        return readUtf(record);
+    }
+
+    private ByteBuffer record(int doc) {
+        ByteBuffer record = docs.duplicate();
+        record.position((int) docs.getLong(DOCS_HEADER + doc * 8));
+        return record;
+    }
+
+    void copyRecord(int doc, Writer writer) throws IOException {
+        int start = (int) docs.getLong(DOCS_HEADER + doc * 8);
+        int end = doc + 1 < docCount ? (int) docs.getLong(DOCS_HEADER + (doc + 1) * 8) : docs.limit();
+        byte[] bytes = new byte[end - start];
+        docs.duplicate().position(start).get(bytes);
+        writer.addRecord(bytes, words(doc));
+    }
+
+    private static String inflate(ByteBuffer compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.duplicate());
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                n += inflater.inflate(raw, n, rawLength - n);
+                if (n < rawLength && inflater.needsInput()) {
+                    break;
+                }
+            }
+            return new String(raw, 0, n, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Stored text is damaged: " + e.getMessage(), e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String readUtf(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment file too large to map: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    static void delete(Path directory, String name) {
+        for (String suffix : new String[] {".post", ".docs"}) {
+            try {
+                Files.deleteIfExists(directory.resolve(name + suffix));
+            } catch (IOException e) {
+                // Still mapped somewhere (e.g. on Windows); it is unreferenced and removed on a later merge
+                System.out.println("Warning: could not delete " + name + suffix + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // A term's documents, with frequencies.get(i) the (saturated) frequency of the i-th document
+    static final class Posting {
+        static final Posting EMPTY = new Posting(RoaringBitmap.empty(), ByteBuffer.allocate(0));
+
+        final RoaringBitmap docs;
+        final ByteBuffer frequencies;
+
+        Posting(RoaringBitmap docs, ByteBuffer frequencies) {
+            this.docs = docs;
+            this.frequencies = frequencies;
+        }
+
+        int frequency(int i) {
+            return frequencies.get(i) & 0xff;
+        }
+    }
+
+    // Writes a new segment. Documents are appended in doc id order; postings are added per term
+    // once all documents are in. Files are written under temporary names and renamed by finish().
+    static final class Writer implements Closeable {
+        private final Path directory;
+        private final String name;
+        private final Path recordsFile;
+        private final DataOutputStream records;
+        private final List<Long> recordOffsets = new ArrayList<>();
+        private int[] words = new int[256];
+        private long totalWords;
+        private long recordBytes;
+        private final TreeMap<String, PostingData> terms = new TreeMap<>();
+
+        Writer(Path directory, String name) throws IOException {
+            this.directory = directory;
+            this.name = name;
+            this.recordsFile = Files.createTempFile(directory, name, ".records");
+            this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+        }
+
+        int docCount() {
+            return recordOffsets.size();
+        }
+
+        void addDocument(String path, String hash, int wordCount, byte[] compressedText, int rawLength)
+                throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressedText.length + 128);
+            DataOutputStream record = new DataOutputStream(bytes);
+            writeUtf(record, path);
+            writeUtf(record, hash);
+            record.writeInt(wordCount);
+            record.writeInt(rawLength);
+            record.writeInt(compressedText.length);
+            record.write(compressedText);
+            addRecord(bytes.toByteArray(), wordCount);
+        }
+
+        void addRecord(byte[] record, int wordCount) throws IOException {
+            if (recordOffsets.size() == words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            words[recordOffsets.size()] = wordCount;
+            totalWords += wordCount;
+            recordOffsets.add(recordBytes);
+            records.write(record);
+            recordBytes += record.length;
+        }
+
+        // frequencies holds one byte per doc of docs, in ascending doc order
+        void addPosting(String term, RoaringBitmap docs, byte[] frequencies) {
+            if (terms.put(term, new PostingData(docs, frequencies)) != null) {
+                throw new IllegalStateException("Posting for " + term + " added twice");
+            }
+        }
+
+        void finish() throws IOException {
+            records.close();
+            int docCount = recordOffsets.size();
+
+            Path postingsTemp = directory.resolve(name + ".post.tmp");
+            long offset = POSTINGS_HEADER + docCount * 4L;
+            for (PostingData posting : terms.values()) {
+                offset += posting.docs.serializedSize() + posting.frequencies.length;
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + name + " would exceed 2 GB of postings");
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(postingsTemp), 1 << 16))) {
+                out.writeInt(POSTINGS_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(docCount);
+                out.writeLong(totalWords);
+                out.writeLong(offset);
+                for (int i = 0; i < docCount; i++) {
+                    out.writeInt(words[i]);
+                }
+                int postingOffset = POSTINGS_HEADER + docCount * 4;
+                List<Integer> offsets = new ArrayList<>(terms.size());
+                for (PostingData posting : terms.values()) {
+                    offsets.add(postingOffset);
+                    posting.docs.write(out);
+                    out.write(posting.frequencies);
+                    postingOffset += posting.docs.serializedSize() + posting.frequencies.length;
+                }
+                out.writeInt(terms.size());
+                int i = 0;
+                for (Map.Entry<String, PostingData> entry : terms.entrySet()) {
+                    writeUtf(out, entry.getKey());
+                    out.writeInt(entry.getValue().docs.cardinality());
+                    out.writeInt(offsets.get(i++));
+                }
+            }
+
+            Path docsTemp = directory.resolve(name + ".docs.tmp");
+            long recordsStart = DOCS_HEADER + docCount * 8L;
+            if (recordsStart + recordBytes > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + name + " would exceed 2 GB of stored text");
+            }
+            try (OutputStream file = Files.newOutputStream(docsTemp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(DOCS_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(docCount);
+                for (long recordOffset : recordOffsets) {
+                    out.writeLong(recordsStart + recordOffset);
+                }
+                Files.copy(recordsFile, out);
+            }
+            Files.deleteIfExists(recordsFile);
+
+            Files.move(postingsTemp, directory.resolve(name + ".post"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            Files.move(docsTemp, directory.resolve(name + ".docs"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Discards a segment that was not finished
+        @Override
+        public void close() throws IOException {
+            records.close();
+            Files.deleteIfExists(recordsFile);
+        }
+
+        private static void writeUtf(DataOutputStream out, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xffff) {
+                throw new IOException("Value too long to index: " + value.substring(0, 80) + "...");
+            }
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static final class PostingData {
+        private final RoaringBitmap docs;
+        private final byte[] frequencies;
+
+        PostingData(RoaringBitmap docs, byte[] frequencies) {
+            this.docs = docs;
+            this.frequencies = frequencies;
+        }
+    }
+}
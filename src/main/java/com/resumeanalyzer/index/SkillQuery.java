@@ -0,0 +1,154 @@
+package com.resumeanalyzer.index;
+
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.util.*;
+
+// A boolean query over skills. A resume matches when it has every "must" skill, none of the
+// "must not" skills and, if there are no "must" skills, at least one "should" skill. Skills are
+// resolved through the taxonomy, so synonyms find the same resumes as the keyword they stand
+// for. A skill the taxonomy does not know is never indexed, so it is an IllegalArgumentException
+// rather than a clause that silently matches nothing.
+//
+// parse() accepts a search-box syntax: +skill (must), -skill (must not), skill (should),
+// "quoted phrases" for multi-word skills and role:"Role Name" for all keywords of a role.
+public final class SkillQuery {
+    private final List<String> must;
+    private final List<String> should;
+    private final List<String> mustNot;
+
+    private SkillQuery(List<String> must, List<String> should, List<String> mustNot) {
+        this.must = List.copyOf(must);
+        this.should = List.copyOf(should);
+        this.mustNot = List.copyOf(mustNot);
+    }
+
+    public static Builder builder() {
+        return new Builder(KeywordTaxonomy.current());
+    }
+
+    public static SkillQuery parse(String query) {
+        Builder builder = builder();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            char occur = ' ';
+            if (c == '+' || c == '-') {
+                occur = c;
+                i++;
+            }
+            boolean role = query.startsWith("role:", i);
+            if (role) {
+                i += "role:".length();
+            }
+            String term;
+            if (i < query.length() && query.charAt(i) == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in query: " + query);
+                }
+                term = query.substring(i + 1, end);
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end))) {
+                    end++;
+                }
+                term = query.substring(i, end);
+                i = end;
+            }
+            if (term.isBlank()) {
+                continue;
+            }
+            if (role) {
+                if (occur != ' ') {
+                    throw new IllegalArgumentException("Roles can only be optional clauses: " + query);
+                }
+                builder.role(term);
+            } else if (occur == '+') {
+                builder.must(term);
+            } else if (occur == '-') {
+                builder.mustNot(term);
+            } else {
+                builder.should(term);
+            }
+        }
+        return builder.build();
+    }
+
+    public List<String> getMust() { return must; }
+    public List<String> getShould() { return should; }
+    public List<String> getMustNot() { return mustNot; }
+
+    public boolean isEmpty() {
+        return must.isEmpty() && should.isEmpty() && mustNot.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (String term : must) {
+            out.append(" +\"").append(term).append('"');
+        }
+        for (String term : should) {
+            out.append(" \"").append(term).append('"');
+        }
+        for (String term : mustNot) {
+            out.append(" -\"").append(term).append('"');
+        }
+        return out.toString().trim();
+    }
+
+    public static final class Builder {
+        private final KeywordIndex index;
+        private final Set<String> must = new LinkedHashSet<>();
+        private final Set<String> should = new LinkedHashSet<>();
+        private final Set<String> mustNot = new LinkedHashSet<>();
+
+        private Builder(KeywordIndex index) {
+            this.index = index;
+        }
+
+        public Builder must(String skill) {
+            must.add(resolve(skill));
+            return this;
+        }
+
+        public Builder should(String skill) {
+            should.add(resolve(skill));
+            return this;
+        }
+
+        public Builder mustNot(String skill) {
+            mustNot.add(resolve(skill));
+            return this;
+        }
+
+        // Any keyword of the role
+        public Builder role(String name) {
+            KeywordIndex.Role role = index.role(name);
+            for (int i = 0; i < role.keywordCount(); i++) {
+                should.add(index.keyword(role.keywordId(i)));
+            }
+            return this;
+        }
+
+        public SkillQuery build() {
+            should.removeAll(must);
+            return new SkillQuery(new ArrayList<>(must), new ArrayList<>(should), new ArrayList<>(mustNot));
+        }
+
+        private String resolve(String skill) {
+            int id = index.resolve(skill);
+            if (id < 0) {
+                throw new IllegalArgumentException("Unknown keyword: " + skill.strip());
+            }
+            return index.keyword(id);
+        }
+    }
+}
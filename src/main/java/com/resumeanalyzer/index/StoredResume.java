@@ -0,0 +1,29 @@
+package com.resumeanalyzer.index;
+
+import java.util.function.Supplier;
+
+// A resume as stored in the index; the text is inflated from the mapped segment on demand
+public class StoredResume {
+    private final int id;
+    private final String path;
+    private final String contentHash;
+    private final int words;
+    private final Supplier<String> text;
+
+    StoredResume(int id, String path, String contentHash, int words, Supplier<String> text) {
+        this.id = id;
+        this.path = path;
+        this.contentHash = contentHash;
+        this.words = words;
+        this.text = text;
+    }
+
+    public int getId() { return id; }
+    public String getPath() { return path; }
+    public String getContentHash() { return contentHash; }
+    public int getWords() { return words; }
+
+    public String getText() {
+        return text.get();
+    }
+}
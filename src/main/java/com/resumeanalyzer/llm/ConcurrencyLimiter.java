@@ -0,0 +1,51 @@
+package com.resumeanalyzer.llm;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+// Caps the number of requests in flight without parking threads: acquire() returns a future that
+// completes once a permit is free, and release() hands the permit straight to the next waiter.
+public class ConcurrencyLimiter {
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    public ConcurrencyLimiter(int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Permits must be positive");
+        }
+        this.available = permits;
+    }
+
+    public CompletableFuture<Void> acquire() {
+        synchronized (waiters) {
+            if (available > 0) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    public void release() {
+        CompletableFuture<Void> next;
+        synchronized (waiters) {
+            // Skip waiters that were cancelled while queued
+            do {
+                next = waiters.poll();
+            } while (next != null && next.isDone());
+            if (next == null) {
+                available++;
+                return;
+            }
+        }
+        next.complete(null);
+    }
+
+    public int waiting() {
+        synchronized (waiters) {
+            return waiters.size();
+        }
+    }
+}
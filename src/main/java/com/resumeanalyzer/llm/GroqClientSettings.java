@@ -0,0 +1,126 @@
+package com.resumeanalyzer.llm;
+
+import com.resumeanalyzer.config.ConfigManager;
+
+// Connection, quota and retry settings for GroqAnalyzer. Defaults fit Groq's free tier; the
+// endpoint can point at a local mock server for testing.
+public class GroqClientSettings {
+    public static final String DEFAULT_ENDPOINT = "https://api.groq.com/openai/v1/chat/completions";
+    public static final String DEFAULT_MODEL = "llama-3.3-70b-versatile";
+
+    private final String endpoint;
+    private final String model;
+    private final int maxConcurrency;
+    private final int requestsPerMinute;
+    private final int burst;
+    private final int maxRetries;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+    private final long deadlineMillis;
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final int promptMaxTokens;
+    private final int batchMaxTokens;
+    private final int batchMaxResumes;
+
+    private GroqClientSettings(Builder builder) {
+        this.endpoint = builder.endpoint;
+        this.model = builder.model;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.requestsPerMinute = builder.requestsPerMinute;
+        this.burst = builder.burst;
+        this.maxRetries = builder.maxRetries;
+        this.retryBaseMillis = builder.retryBaseMillis;
+        this.retryMaxMillis = builder.retryMaxMillis;
+        this.deadlineMillis = builder.deadlineMillis;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.promptMaxTokens = builder.promptMaxTokens;
+        this.batchMaxTokens = builder.batchMaxTokens;
+        this.batchMaxResumes = builder.batchMaxResumes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Reads the groq.* keys from config.properties, falling back to the builder defaults
+    public static GroqClientSettings fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        Builder defaults = new Builder();
+        return builder()
+            .endpoint(config.getProperty("groq.api.url", defaults.endpoint))
+            .model(config.getProperty("groq.model", defaults.model))
+            .maxConcurrency(config.getInt("groq.max.concurrency", defaults.maxConcurrency))
+            .requestsPerMinute(config.getInt("groq.requests.per.minute", defaults.requestsPerMinute))
+            .burst(config.getInt("groq.requests.burst", defaults.burst))
+            .maxRetries(config.getInt("groq.max.retries", defaults.maxRetries))
+            .retryBaseMillis(config.getLong("groq.retry.base.ms", defaults.retryBaseMillis))
+            .retryMaxMillis(config.getLong("groq.retry.max.ms", defaults.retryMaxMillis))
+            .deadlineMillis(config.getLong("groq.deadline.ms", defaults.deadlineMillis))
+            .connectTimeoutMillis(config.getLong("groq.connect.timeout.ms", defaults.connectTimeoutMillis))
+            .readTimeoutMillis(config.getLong("groq.read.timeout.ms", defaults.readTimeoutMillis))
+            .promptMaxTokens(config.getInt("groq.prompt.max.tokens", defaults.promptMaxTokens))
+            .batchMaxTokens(config.getInt("groq.batch.max.tokens", defaults.batchMaxTokens))
+            .batchMaxResumes(config.getInt("groq.batch.max.resumes", defaults.batchMaxResumes))
+            .build();
+    }
+
+    public String getEndpoint() { return endpoint; }
+    public String getModel() { return model; }
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public int getRequestsPerMinute() { return requestsPerMinute; }
+    public int getBurst() { return burst; }
+    public int getMaxRetries() { return maxRetries; }
+    public long getRetryBaseMillis() { return retryBaseMillis; }
+    public long getRetryMaxMillis() { return retryMaxMillis; }
+    public long getDeadlineMillis() { return deadlineMillis; }
+    public long getConnectTimeoutMillis() { return connectTimeoutMillis; }
+    public long getReadTimeoutMillis() { return readTimeoutMillis; }
+    public int getPromptMaxTokens() { return promptMaxTokens; }
+    public int getBatchMaxTokens() { return batchMaxTokens; }
+    public int getBatchMaxResumes() { return batchMaxResumes; }
+
+    public static class Builder {
+        private String endpoint = DEFAULT_ENDPOINT;
+        private String model = DEFAULT_MODEL;
+        private int maxConcurrency = 16;
+        private int requestsPerMinute = 30;
+        private int burst = 5;
+        private int maxRetries = 4;
+        private long retryBaseMillis = 500;
+        private long retryMaxMillis = 30_000;
+        private long deadlineMillis = 120_000;
+        private long connectTimeoutMillis = 10_000;
+        private long readTimeoutMillis = 60_000;
+        private int promptMaxTokens = 6_000;
+        private int batchMaxTokens = 12_000;
+        private int batchMaxResumes = 5;
+
+        public Builder endpoint(String endpoint) { this.endpoint = endpoint; return this; }
+        public Builder model(String model) { this.model = model; return this; }
+        public Builder maxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; return this; }
+        public Builder requestsPerMinute(int requestsPerMinute) { this.requestsPerMinute = requestsPerMinute; return this; }
+        public Builder burst(int burst) { this.burst = burst; return this; }
+        public Builder maxRetries(int maxRetries) { this.maxRetries = maxRetries; return this; }
+        public Builder retryBaseMillis(long retryBaseMillis) { this.retryBaseMillis = retryBaseMillis; return this; }
+        public Builder retryMaxMillis(long retryMaxMillis) { this.retryMaxMillis = retryMaxMillis; return this; }
+        public Builder deadlineMillis(long deadlineMillis) { this.deadlineMillis = deadlineMillis; return this; }
+        public Builder connectTimeoutMillis(long connectTimeoutMillis) { this.connectTimeoutMillis = connectTimeoutMillis; return this; }
+        public Builder readTimeoutMillis(long readTimeoutMillis) { this.readTimeoutMillis = readTimeoutMillis; return this; }
+        public Builder promptMaxTokens(int promptMaxTokens) { this.promptMaxTokens = promptMaxTokens; return this; }
+        public Builder batchMaxTokens(int batchMaxTokens) { this.batchMaxTokens = batchMaxTokens; return this; }
+        public Builder batchMaxResumes(int batchMaxResumes) { this.batchMaxResumes = batchMaxResumes; return this; }
+
+        public GroqClientSettings build() {
+            if (endpoint == null || endpoint.isBlank() || model == null || model.isBlank()) {
+                throw new IllegalArgumentException("Endpoint and model are required");
+            }
+            if (maxConcurrency < 1 || requestsPerMinute < 1 || burst < 1 || deadlineMillis < 1
+                    || promptMaxTokens < 1 || batchMaxTokens < 1 || batchMaxResumes < 1) {
+                throw new IllegalArgumentException("Concurrency, rate, burst, deadline and token limits must be positive");
+            }
+            return new GroqClientSettings(this);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.resumeanalyzer.llm;
+
+import com.resumeanalyzer.matching.KeywordMatcher;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Cleans extracted resume text before it goes into a prompt: normalizes whitespace, removes page
+// furniture, and, when the text is still over the token budget, keeps whole sections in priority
+// order and cuts the first one that does not fit. Sections are found by short heading lines built
+// around one of the section markers (see headingPriority); text before the first heading (name,
+// contact, summary) ranks highest. Page furniture is only looked for at page edges, the first and
+// last few lines of each form-feed separated page: page numbers there, and lines that are at the
+// edge of most pages (running headers and footers), of which the first is kept. Text without page
+// breaks, like DOCX, is left as it is. Instances are immutable.
+public class PromptPreprocessor {
+    private static final Pattern PAGE_NUMBER =
+        Pattern.compile("(?i)(page\\s*)?\\d{1,3}(\\s*(of|/)\\s*\\d{1,3})?|-\\s*\\d{1,3}\\s*-");
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\h\\u200B]+");
+    // Digits and commas belong to job titles and dates ("Project Manager, Acme", "2019 - 2023"),
+    // leading bullets and a final full stop to list items ("- Shipped two side projects."), not headings
+    private static final Pattern NOT_A_HEADING = Pattern.compile("[\\d,]|^[-*\u2022\u25AA\u25E6\u00B7]|\\.$");
+    private static final Set<String> HEADING_CONNECTORS = Set.of("&", "and", "/", "+");
+    private static final int MAX_HEADING_LENGTH = 40;
+    private static final int MAX_HEADING_WORDS = 5;
+    // Lines at the top and at the bottom of a page that can be headers or footers
+    private static final int PAGE_EDGE_LINES = 3;
+    // A cut section is kept only if at least this many tokens of it fit
+    private static final int MIN_PARTIAL_TOKENS = 40;
+    private static final String TRUNCATED = "[...]";
+
+    private final int maxTokens;
+    private final KeywordMatcher headingMatcher;
+
+    // Section markers are given in priority order, most important first
+    public PromptPreprocessor(int maxTokens, List<String> sectionMarkers) {
+        if (maxTokens < 1 || sectionMarkers.isEmpty()) {
+            throw new IllegalArgumentException("Token budget and section markers are required");
+        }
+        this.maxTokens = maxTokens;
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        for (int i = 0; i < sectionMarkers.size(); i++) {
+            builder.add(sectionMarkers.get(i), i, KeywordMatcher.Boundary.PREFIX);
+        }
+        this.headingMatcher = builder.build();
+    }
+
+    public String prepare(String text) {
+        List<String> lines = dropPageFurniture(text);
+        int tokens = 0;
+        for (String line : lines) {
+            tokens += lineTokens(line);
+        }
+        if (tokens <= maxTokens) {
+            return String.join("\n", lines);
+        }
+        return trimToBudget(splitSections(lines));
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    // Collapses runs of spaces and blank lines and strips every line
+    private static List<String> normalizeWhitespace(String text) {
+        List<String> lines = new ArrayList<>();
+        boolean previousBlank = true;
+        for (String raw : text.split("\\R")) {
+            String line = HORIZONTAL_SPACE.matcher(raw).replaceAll(" ").strip();
+            if (line.isEmpty()) {
+                if (!previousBlank) {
+                    lines.add(line);
+                }
+                previousBlank = true;
+            } else {
+                lines.add(line);
+                previousBlank = false;
+            }
+        }
+        if (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    private List<String> dropPageFurniture(String text) {
+        List<List<String>> pages = new ArrayList<>();
+        for (String page : text.split("\f")) {
+            List<String> lines = normalizeWhitespace(page);
+            if (!lines.isEmpty()) {
+                pages.add(lines);
+            }
+        }
+        boolean paged = pages.size() > 1;
+        // On how many pages each line occurs at the edge
+        Map<String, Integer> edgePages = new HashMap<>();
+        if (paged) {
+            for (List<String> page : pages) {
+                Set<String> keys = new HashSet<>();
+                BitSet edges = pageEdges(page);
+                for (int i = edges.nextSetBit(0); i >= 0; i = edges.nextSetBit(i + 1)) {
+                    keys.add(furnitureKey(page.get(i)));
+                }
+                keys.forEach(key -> edgePages.merge(key, 1, Integer::sum));
+            }
+        }
+        int mostPages = pages.size() / 2 + 1;
+
+        Set<String> seen = new HashSet<>();
+        List<String> kept = new ArrayList<>();
+        for (List<String> page : pages) {
+            BitSet edges = paged ? pageEdges(page) : new BitSet();
+            for (int i = 0; i < page.size(); i++) {
+                String line = page.get(i);
+                if (line.isEmpty()) {
+                    if (!kept.isEmpty() && !kept.get(kept.size() - 1).isEmpty()) {
+                        kept.add(line);
+                    }
+                    continue;
+                }
+                if (edges.get(i)) {
+                    if (PAGE_NUMBER.matcher(line).matches()) {
+                        continue;
+                    }
+                    // Section headings are kept even when repeated since they start new sections
+                    String key = furnitureKey(line);
+                    if (markerPriority(line) < 0 && edgePages.get(key) >= mostPages && !seen.add(key)) {
+                        continue;
+                    }
+                }
+                kept.add(line);
+            }
+        }
+        if (!kept.isEmpty() && kept.get(kept.size() - 1).isEmpty()) {
+            kept.remove(kept.size() - 1);
+        }
+        return kept;
+    }
+
+    // Indexes of the first and last PAGE_EDGE_LINES non-blank lines of a page
+    private static BitSet pageEdges(List<String> page) {
+        List<Integer> text = new ArrayList<>();
+        for (int i = 0; i < page.size(); i++) {
+            if (!page.get(i).isEmpty()) {
+                text.add(i);
+            }
+        }
+        BitSet edges = new BitSet();
+        for (int n = 0; n < text.size(); n++) {
+            if (n < PAGE_EDGE_LINES || n >= text.size() - PAGE_EDGE_LINES) {
+                edges.set(text.get(n));
+            }
+        }
+        return edges;
+    }
+
+    // Lines mentioning a page compare equal whatever the page number ("Jane Doe - page 2")
+    private static String furnitureKey(String line) {
+        String key = line.toLowerCase(Locale.ROOT);
+        return key.contains("page") ? key.replaceAll("\\d+", "#") : key;
+    }
+
+    private List<Section> splitSections(List<String> lines) {
+        List<Section> sections = new ArrayList<>();
+        Section current = new Section(0);
+        for (String line : lines) {
+            int priority = headingPriority(line);
+            if (priority > 0) {
+                if (!current.lines.isEmpty()) {
+                    sections.add(current);
+                }
+                current = new Section(priority);
+            }
+            current.add(line);
+        }
+        if (!current.lines.isEmpty()) {
+            sections.add(current);
+        }
+        return sections;
+    }
+
+    private String trimToBudget(List<Section> sections) {
+        List<Section> byPriority = new ArrayList<>(sections);
+        byPriority.sort(Comparator.comparingInt(section -> section.priority));
+        int remaining = maxTokens;
+        for (Section section : byPriority) {
+            if (section.tokens <= remaining) {
+                section.keep = section.lines.size();
+                remaining -= section.tokens;
+            } else if (remaining - lineTokens(TRUNCATED) >= MIN_PARTIAL_TOKENS) {
+                // Keep the leading lines of the section that fit
+                int budget = remaining - lineTokens(TRUNCATED);
+                int used = 0;
+                int keep = 0;
+                while (keep < section.lines.size() && used + lineTokens(section.lines.get(keep)) <= budget) {
+                    used += lineTokens(section.lines.get(keep));
+                    keep++;
+                }
+                if (keep > 0) {
+                    section.keep = keep;
+                    section.truncated = true;
+                    remaining -= used + lineTokens(TRUNCATED);
+                }
+            }
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (Section section : sections) {
+            for (int i = 0; i < section.keep; i++) {
+                result.append(section.lines.get(i)).append('\n');
+            }
+            if (section.truncated) {
+                result.append(TRUNCATED).append('\n');
+            }
+        }
+        if (result.length() > 0) {
+            result.setLength(result.length() - 1);
+        }
+        return result.toString();
+    }
+
+    // 0 for ordinary lines, otherwise the priority of the section the heading starts. A heading is
+    // a short line without digits, commas or bullets whose last word is a marker ("Work Experience"), or
+    // whose first word is one and that is marked as a heading: the marker alone, followed by a
+    // connector ("Skills & Interests"), in capitals or ending in a colon. Job titles that merely
+    // contain a marker ("User Experience Designer", "Project Manager") stay in their section, as
+    // do headings without a marker ("Languages").
+    private int headingPriority(String line) {
+        if (line.length() > MAX_HEADING_LENGTH || NOT_A_HEADING.matcher(line).find()) {
+            return 0;
+        }
+        String[] words = line.split(" ");
+        if (words.length > MAX_HEADING_WORDS) {
+            return 0;
+        }
+        boolean heading = markerPriority(words[words.length - 1]) >= 0;
+        if (!heading && markerPriority(words[0]) >= 0) {
+            heading = words.length == 1
+                || HEADING_CONNECTORS.contains(words[1].toLowerCase(Locale.ROOT))
+                || line.endsWith(":")
+                || line.equals(line.toUpperCase(Locale.ROOT));
+        }
+        return heading ? markerPriority(line) + 1 : 0;
+    }
+
+    // Index of the most important marker in a heading-sized line, or -1
+    private int markerPriority(String line) {
+        if (line.length() > MAX_HEADING_LENGTH) {
+            return -1;
+        }
+        BitSet found = headingMatcher.match(line);
+        return found.isEmpty() ? -1 : found.nextSetBit(0);
+    }
+
+    private static int lineTokens(String line) {
+        // One extra token for the line break
+        return TokenEstimator.estimate(line) + 1;
+    }
+
+    private static class Section {
+        private final int priority;
+        private final List<String> lines = new ArrayList<>();
+        private int tokens;
+        private int keep;
+        private boolean truncated;
+
+        Section(int priority) {
+            this.priority = priority;
+        }
+
+        void add(String line) {
+            lines.add(line);
+            tokens += lineTokens(line);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.resumeanalyzer.llm;
+
+// Token bucket rate limiter that hands out reservations instead of blocking: callers ask how long
+// to wait before their request may start and schedule it accordingly. Waiting callers queue up
+// as debt on the bucket, so the long-run rate never exceeds the refill rate.
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double tokensPerSecond) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public static TokenBucket perMinute(int requestsPerMinute, int burst) {
+        return new TokenBucket(Math.max(1, burst), requestsPerMinute / 60d);
+    }
+
+    // Takes the given number of tokens and returns how many nanoseconds the caller must wait
+    public synchronized long reserve(double permits) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,34 @@
+package com.resumeanalyzer.llm;
+
+// Local approximation of the model's token count, used for budgeting prompts without a
+// tokenizer. BPE vocabularies encode common English words as one token and split longer or
+// rarer ones into pieces of roughly four characters; punctuation is usually a token of its own.
+// The estimate errs on the high side so budgets are not exceeded.
+public final class TokenEstimator {
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        int tokens = 0;
+        int wordLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                wordLength++;
+                continue;
+            }
+            tokens += wordTokens(wordLength);
+            wordLength = 0;
+            if (c == '\n' || !Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(wordLength);
+    }
+
+    private static int wordTokens(int length) {
+        return (length + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
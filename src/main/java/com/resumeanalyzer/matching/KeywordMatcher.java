@@ -0,0 +1,409 @@
+package com.resumeanalyzer.matching;
+
+import java.util.*;
+
+// Aho-Corasick automaton that finds every registered pattern in a single pass over the text.
+// Matching is case-insensitive, treats any whitespace as a single space character and
+// respects word boundaries, so "java" does not match inside "javascript" and "r" does not
+// match inside "career". Instances are immutable and safe to share between threads.
+public final class KeywordMatcher {
+
+    public enum Boundary {
+        // The pattern must start and end on a word boundary
+        WORD,
+        // Only the start must be on a word boundary, so "project" also matches "projects"
+        PREFIX
+    }
+
+    private static final int ROOT = 0;
+    // Scratch for count(): end of the last occurrence counted for each id, reused per thread so
+    // counting a document allocates nothing
+    private static final ThreadLocal<int[]> LAST_END = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final char[] asciiClass;
+    private final char[] extraChars;
+    private final char[] extraClass;
+    private final int alphabetSize;
+    private final int[] delta;
+    private final int[][] outputs;
+    private final int[] patternLength;
+    private final int[] patternId;
+    private final boolean[] checkStart;
+    private final boolean[] checkEnd;
+    private final int maxId;
+    private final int maxPatternLength;
+    private final int maxOutputs;
+
+    private KeywordMatcher(Builder builder) {
+        // Map every character used by a pattern to a dense class so the transition table stays small
+        asciiClass = new char[128];
+        TreeMap<Character, Integer> extra = new TreeMap<>();
+        int classes = 1;
+        for (String pattern : builder.patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < 128) {
+                    if (asciiClass[c] == 0) {
+                        asciiClass[c] = (char) classes++;
+                    }
+                } else if (!extra.containsKey(c)) {
+                    extra.put(c, classes++);
+                }
+            }
+        }
+        alphabetSize = classes;
+        extraChars = new char[extra.size()];
+        extraClass = new char[extra.size()];
+        int e = 0;
+        for (Map.Entry<Character, Integer> entry : extra.entrySet()) {
+            extraChars[e] = entry.getKey();
+            extraClass[e] = (char) entry.getValue().intValue();
+            e++;
+        }
+
+        // Build the trie
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> own = new ArrayList<>();
+        gotoTable.add(newRow());
+        own.add(new ArrayList<>());
+        int patternCount = builder.patterns.size();
+        patternLength = new int[patternCount];
+        patternId = new int[patternCount];
+        checkStart = new boolean[patternCount];
+        checkEnd = new boolean[patternCount];
+        int highestId = -1;
+        for (int p = 0; p < patternCount; p++) {
+            String pattern = builder.patterns.get(p);
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = classOf(pattern.charAt(i));
+                int next = gotoTable.get(state)[cls];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.add(newRow());
+                    own.add(new ArrayList<>());
+                    gotoTable.get(state)[cls] = next;
+                }
+                state = next;
+            }
+            own.get(state).add(p);
+            patternLength[p] = pattern.length();
+            patternId[p] = builder.ids.get(p);
+            checkStart[p] = isWordChar(pattern.charAt(0));
+            checkEnd[p] = builder.boundaries.get(p) == Boundary.WORD
+                && isWordChar(pattern.charAt(pattern.length() - 1));
+            highestId = Math.max(highestId, patternId[p]);
+        }
+        maxId = highestId;
+        maxPatternLength = Arrays.stream(patternLength).max().orElse(0);
+
+        // Breadth-first pass computing failure links and the full transition function
+        int states = gotoTable.size();
+        delta = new int[states * alphabetSize];
+        outputs = new int[states][];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] rootRow = gotoTable.get(ROOT);
+        for (int c = 0; c < alphabetSize; c++) {
+            int next = rootRow[c];
+            if (next > 0) {
+                delta[c] = next;
+                fail[next] = ROOT;
+                queue.add(next);
+            }
+        }
+        outputs[ROOT] = toArray(own.get(ROOT), null);
+        int widestOutput = 0;
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = toArray(own.get(state), outputs[fail[state]]);
+            if (outputs[state] != null) {
+                widestOutput = Math.max(widestOutput, outputs[state].length);
+            }
+            int[] row = gotoTable.get(state);
+            for (int c = 0; c < alphabetSize; c++) {
+                int next = row[c];
+                if (next > 0) {
+                    fail[next] = delta[fail[state] * alphabetSize + c];
+                    delta[state * alphabetSize + c] = next;
+                    queue.add(next);
+                } else {
+                    delta[state * alphabetSize + c] = delta[fail[state] * alphabetSize + c];
+                }
+            }
+        }
+        maxOutputs = widestOutput;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Returns the ids of all patterns found in the text
+    public BitSet match(CharSequence text) {
+        BitSet found = new BitSet(maxId + 1);
+        match(text, found);
+        return found;
+    }
+
+    public void match(CharSequence text, BitSet found) {
+        int n = text.length();
+        int state = ROOT;
+        for (int i = 0; i < n; i++) {
+            state = delta[state * alphabetSize + classOf(normalize(text.charAt(i)))];
+            int[] out = outputs[state];
+            if (out == null) {
+                continue;
+            }
+            for (int p : out) {
+                int start = i - patternLength[p] + 1;
+                if (checkStart[p] && start > 0 && isWordChar(text.charAt(start - 1))) {
+                    continue;
+                }
+                if (checkEnd[p] && i + 1 < n && isWordChar(text.charAt(i + 1))) {
+                    continue;
+                }
+                found.set(patternId[p]);
+            }
+        }
+    }
+
+    // Adds one to counts[id] for every occurrence of a pattern (counts must hold maxId() + 1
+    // entries) and returns the number of words in the text, all in one pass. Overlapping matches
+    // of one id, such as the aliases "restful" and "restful api", count as one occurrence.
+    public long count(CharSequence text, int[] counts) {
+        int n = text.length();
+        int state = ROOT;
+        long words = 0;
+        int[] lastEnd = LAST_END.get();
+        if (lastEnd.length < maxId + 1) {
+            lastEnd = new int[maxId + 1];
+            LAST_END.set(lastEnd);
+        }
+        Arrays.fill(lastEnd, 0, maxId + 1, -1);
+        boolean inWord = false;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            boolean wordChar = isWordChar(c);
+            if (wordChar && !inWord) {
+                words++;
+            }
+            inWord = wordChar;
+            state = delta[state * alphabetSize + classOf(normalize(c))];
+            int[] out = outputs[state];
+            if (out == null) {
+                continue;
+            }
+            for (int p : out) {
+                int start = i - patternLength[p] + 1;
+                if (checkStart[p] && start > 0 && isWordChar(text.charAt(start - 1))) {
+                    continue;
+                }
+                if (checkEnd[p] && i + 1 < n && isWordChar(text.charAt(i + 1))) {
+                    continue;
+                }
+                int id = patternId[p];
+                if (start <= lastEnd[id]) {
+                    continue;
+                }
+                lastEnd[id] = i;
+                counts[id]++;
+            }
+        }
+        return words;
+    }
+
+    // Starts an incremental match for text that arrives in chunks (pages, paragraphs)
+    public Session newSession(BitSet found) {
+        return new Session(found, null);
+    }
+
+    // Incremental version of count(): finish() leaves the occurrences in counts
+    public Session newCountingSession(int[] counts) {
+        return new Session(null, counts);
+    }
+
+    // Highest id registered with this matcher
+    public int maxId() {
+        return maxId;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int idx = Arrays.binarySearch(extraChars, c);
+        return idx >= 0 ? extraClass[idx] : 0;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited) {
+        int inheritedLength = inherited == null ? 0 : inherited.length;
+        if (own.isEmpty() && inheritedLength == 0) {
+            return null;
+        }
+        int[] result = new int[own.size() + inheritedLength];
+        for (int i = 0; i < own.size(); i++) {
+            result[i] = own.get(i);
+        }
+        if (inheritedLength > 0) {
+            System.arraycopy(inherited, 0, result, own.size(), inheritedLength);
+        }
+        return result;
+    }
+
+    static char normalize(char c) {
+        if (c < 128) {
+            if (c >= 'A' && c <= 'Z') {
+                return (char) (c + ('a' - 'A'));
+            }
+            return c == '\t' || c == '\n' || c == '\r' || c == '\f' ? ' ' : c;
+        }
+        return Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c);
+    }
+
+    static boolean isWordChar(char c) {
+        if (c < 128) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+        return Character.isLetterOrDigit(c);
+    }
+
+    // Matches text fed in consecutive chunks exactly as if it were one string. Keeps only the
+    // automaton state, the last few characters for the start-boundary check, and the matches
+    // whose end boundary depends on the next character. Not thread-safe.
+    public final class Session {
+        private final BitSet found;
+        private final int[] counts;
+        private final char[] history;
+        private final int historyMask;
+        private final int[] pending;
+        private final long[] pendingStart;
+        private int pendingCount;
+        // End of the last occurrence counted for each id, when counting
+        private final long[] lastEnd;
+        private int state = ROOT;
+        private long position;
+        private long words;
+
+        private Session(BitSet found, int[] counts) {
+            this.found = found;
+            this.counts = counts;
+            int size = Integer.highestOneBit(Math.max(1, maxPatternLength)) << 1;
+            history = new char[size];
+            historyMask = size - 1;
+            pending = new int[Math.max(1, maxOutputs)];
+            pendingStart = new long[pending.length];
+            if (counts != null) {
+                lastEnd = new long[maxId + 1];
+                Arrays.fill(lastEnd, -1);
+            } else {
+                lastEnd = null;
+            }
+        }
+
+        public void feed(CharSequence chunk) {
+            int n = chunk.length();
+            for (int i = 0; i < n; i++) {
+                char c = chunk.charAt(i);
+                boolean wordChar = isWordChar(c);
+                if (pendingCount > 0) {
+                    resolvePending(!wordChar);
+                }
+                if (wordChar && (position == 0 || !isWordChar(history[(int) ((position - 1) & historyMask)]))) {
+                    words++;
+                }
+                history[(int) (position & historyMask)] = c;
+                state = delta[state * alphabetSize + classOf(normalize(c))];
+                int[] out = outputs[state];
+                if (out != null) {
+                    for (int p : out) {
+                        long start = position - patternLength[p] + 1;
+                        if (checkStart[p] && start > 0 && isWordChar(history[(int) ((start - 1) & historyMask)])) {
+                            continue;
+                        }
+                        if (checkEnd[p]) {
+                            pendingStart[pendingCount] = start;
+                            pending[pendingCount++] = patternId[p];
+                        } else {
+                            record(patternId[p], start, position);
+                        }
+                    }
+                }
+                position++;
+            }
+        }
+
+        // Ends the text; matches at the very end satisfy their end boundary. Returns the bitset
+        // of found ids, or null for a counting session
+        public BitSet finish() {
+            resolvePending(true);
+            return found;
+        }
+
+        // Words fed so far
+        public long wordCount() {
+            return words;
+        }
+
+        private void resolvePending(boolean accept) {
+            if (accept) {
+                // Pending matches all end on the character before this one
+                for (int i = 0; i < pendingCount; i++) {
+                    record(pending[i], pendingStart[i], position - 1);
+                }
+            }
+            pendingCount = 0;
+        }
+
+        // Matches arrive in order of their end, as in count()
+        private void record(int id, long start, long end) {
+            if (counts != null) {
+                if (start <= lastEnd[id]) {
+                    return;
+                }
+                lastEnd[id] = end;
+                counts[id]++;
+            } else {
+                found.set(id);
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Integer> ids = new ArrayList<>();
+        private final List<Boundary> boundaries = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        // Registers a pattern; several patterns may share an id (e.g. synonyms of one keyword)
+        public Builder add(String pattern, int id, Boundary boundary) {
+            if (pattern == null || pattern.isBlank()) {
+                throw new IllegalArgumentException("Pattern cannot be null or empty");
+            }
+            if (id < 0) {
+                throw new IllegalArgumentException("Pattern id must not be negative: " + id);
+            }
+            StringBuilder normalized = new StringBuilder(pattern.length());
+            String trimmed = pattern.strip();
+            for (int i = 0; i < trimmed.length(); i++) {
+                normalized.append(normalize(trimmed.charAt(i)));
+            }
+            patterns.add(normalized.toString());
+            ids.add(id);
+            boundaries.add(boundary);
+            return this;
+        }
+
+        public KeywordMatcher build() {
+            return new KeywordMatcher(this);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.resumeanalyzer.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Publishes every series of a registry as an MXBean under com.resumeanalyzer:type=<counter|histogram>,
+// name=<metric>,<label>=<value>..., so JConsole or VisualVM show live counts and percentiles
+// grouped by metric and label. Series created later are registered as they appear.
+public class JmxExporter implements AutoCloseable {
+    private static final String DOMAIN = "com.resumeanalyzer";
+
+    private final MBeanServer server;
+    private final Set<ObjectName> registered = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public JmxExporter(MetricsRegistry registry) {
+        this(registry, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxExporter(MetricsRegistry registry, MBeanServer server) {
+        this.server = server;
+        registry.addListener(this::register);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException ignored) {
+            }
+        }
+        registered.clear();
+    }
+
+    private void register(MetricsRegistry.Series series) {
+        if (closed) {
+            return;
+        }
+        try {
+            ObjectName name = objectName(series);
+            Object bean = series instanceof MetricsRegistry.CounterSeries
+                ? new StandardMBean(new CounterBean((MetricsRegistry.CounterSeries) series), CounterMXBean.class, true)
+                : new StandardMBean(new HistogramBean((MetricsRegistry.HistogramSeries) series), HistogramMXBean.class, true);
+            try {
+                server.registerMBean(bean, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // Left by another exporter of the same metric; the newest registry wins
+                server.unregisterMBean(name);
+                server.registerMBean(bean, name);
+            }
+            registered.add(name);
+        } catch (JMException e) {
+            System.out.println("Warning: could not register metric " + series.getFamily().getName()
+                + " with JMX: " + e.getMessage());
+        }
+    }
+
+    private static ObjectName objectName(MetricsRegistry.Series series) throws JMException {
+        Hashtable<String, String> keys = new Hashtable<>();
+        keys.put("type", series.getFamily().getType() == MetricsRegistry.Type.COUNTER ? "counter" : "histogram");
+        keys.put("name", series.getFamily().getName());
+        List<String> labels = series.getLabels();
+        for (int i = 0; i < labels.size(); i += 2) {
+            keys.put(labels.get(i), quoteIfNeeded(labels.get(i + 1)));
+        }
+        return new ObjectName(DOMAIN, keys);
+    }
+
+    private static String quoteIfNeeded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (",=:\"*?\n".indexOf(value.charAt(i)) >= 0) {
+                return ObjectName.quote(value);
+            }
+        }
+        return value;
+    }
+
+    public interface CounterMXBean {
+        long getValue();
+    }
+
+    public interface HistogramMXBean {
+        long getCount();
+        double getSum();
+        double getMean();
+        double getMax();
+        double getP50();
+        double getP90();
+        double getP99();
+    }
+
+    private static class CounterBean implements CounterMXBean {
+        private final MetricsRegistry.CounterSeries series;
+
+        CounterBean(MetricsRegistry.CounterSeries series) {
+            this.series = series;
+        }
+
+        @Override
+        public long getValue() {
+            return series.getValue();
+        }
+    }
+
+    // Percentiles are interpolated within the histogram buckets, so they are estimates
+    private static class HistogramBean implements HistogramMXBean {
+        private final MetricsRegistry.HistogramSeries series;
+
+        HistogramBean(MetricsRegistry.HistogramSeries series) {
+            this.series = series;
+        }
+
+        @Override public long getCount() { return series.getCount(); }
+        @Override public double getSum() { return series.getSum(); }
+        @Override public double getMax() { return series.getMax(); }
+        @Override public double getP50() { return series.quantile(0.50); }
+        @Override public double getP90() { return series.quantile(0.90); }
+        @Override public double getP99() { return series.quantile(0.99); }
+
+        @Override
+        public double getMean() {
+            long count = series.getCount();
+            return count == 0 ? 0 : series.getSum() / count;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.resumeanalyzer.metrics;
+
+// Backend-neutral metrics interface. Metrics are identified by name plus label pairs
+// ("format", "pdf", "role", "Data Analyst"); asking twice for the same name and labels returns
+// the same series. Implementations must be thread-safe.
+public interface Metrics {
+
+    Counter counter(String name, String help, String... labels);
+
+    // Buckets are the ascending upper bounds of the histogram buckets
+    Histogram histogram(String name, String help, double[] buckets, String... labels);
+
+    interface Counter {
+        void increment(long amount);
+
+        default void increment() {
+            increment(1);
+        }
+    }
+
+    interface Histogram {
+        void observe(double value);
+    }
+
+    // Discards everything; used until a real backend is installed
+    Metrics NOOP = new Metrics() {
+        private final Counter counter = amount -> { };
+        private final Histogram histogram = value -> { };
+
+        @Override
+        public Counter counter(String name, String help, String... labels) {
+            return counter;
+        }
+
+        @Override
+        public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+            return histogram;
+        }
+    };
+}
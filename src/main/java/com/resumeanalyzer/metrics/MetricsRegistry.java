@@ -0,0 +1,217 @@
+package com.resumeanalyzer.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// In-memory Metrics backend that the exporters (Prometheus text file, JMX) read from. Counters
+// and histogram buckets are LongAdders, so recording from many threads does not contend.
+public class MetricsRegistry implements Metrics {
+    private final ConcurrentHashMap<String, Family> families = new ConcurrentHashMap<>();
+    private final List<Consumer<Series>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public CounterSeries counter(String name, String help, String... labels) {
+        return (CounterSeries) family(name, help, Type.COUNTER, null).series(labels);
+    }
+
+    @Override
+    public HistogramSeries histogram(String name, String help, double[] buckets, String... labels) {
+        return (HistogramSeries) family(name, help, Type.HISTOGRAM, buckets).series(labels);
+    }
+
+    // Families sorted by name
+    public List<Family> families() {
+        List<Family> result = new ArrayList<>(families.values());
+        result.sort(Comparator.comparing(Family::getName));
+        return result;
+    }
+
+    // Calls the listener for every existing series and for each one created later
+    public void addListener(Consumer<Series> listener) {
+        listeners.add(listener);
+        for (Family family : families()) {
+            family.getSeries().forEach(listener);
+        }
+    }
+
+    private Family family(String name, String help, Type type, double[] buckets) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type, buckets));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    public enum Type { COUNTER, HISTOGRAM }
+
+    // All series of one metric name
+    public class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final double[] buckets;
+        private final ConcurrentHashMap<List<String>, Series> series = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type, double[] buckets) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.buckets = buckets != null ? buckets.clone() : null;
+        }
+
+        public String getName() { return name; }
+        public String getHelp() { return help; }
+        public Type getType() { return type; }
+
+        // Series sorted by label values
+        public List<Series> getSeries() {
+            List<Series> result = new ArrayList<>(series.values());
+            result.sort(Comparator.comparing(s -> String.join("\u0000", s.labels)));
+            return result;
+        }
+
+        Series series(String[] labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("Labels must be name/value pairs: " + Arrays.toString(labels));
+            }
+            List<String> key = Arrays.asList(labels);
+            Series existing = series.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            Series created = type == Type.COUNTER
+                ? new CounterSeries(this, labels.clone())
+                : new HistogramSeries(this, labels.clone(), buckets);
+            existing = series.putIfAbsent(List.of(labels), created);
+            if (existing != null) {
+                return existing;
+            }
+            for (Consumer<Series> listener : listeners) {
+                listener.accept(created);
+            }
+            return created;
+        }
+    }
+
+    public abstract static class Series {
+        private final Family family;
+        private final String[] labels;
+
+        Series(Family family, String[] labels) {
+            this.family = family;
+            this.labels = labels;
+        }
+
+        public Family getFamily() { return family; }
+
+        // Label name/value pairs
+        public List<String> getLabels() { return List.of(labels); }
+    }
+
+    public static class CounterSeries extends Series implements Counter {
+        private final LongAdder value = new LongAdder();
+
+        CounterSeries(Family family, String[] labels) {
+            super(family, labels);
+        }
+
+        @Override
+        public void increment(long amount) {
+            value.add(amount);
+        }
+
+        public long getValue() {
+            return value.sum();
+        }
+    }
+
+    public static class HistogramSeries extends Series implements Histogram {
+        private final double[] bounds;
+        // One slot per bound plus the overflow (+Inf) bucket
+        private final LongAdder[] counts;
+        private final DoubleAdder sum = new DoubleAdder();
+        private final AtomicLong maxBits = new AtomicLong(Double.doubleToLongBits(0));
+
+        HistogramSeries(Family family, String[] labels, double[] bounds) {
+            super(family, labels);
+            this.bounds = bounds;
+            this.counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void observe(double value) {
+            int bucket = Arrays.binarySearch(bounds, value);
+            counts[bucket >= 0 ? bucket : -bucket - 1].increment();
+            sum.add(value);
+            long bits;
+            while (value > Double.longBitsToDouble(bits = maxBits.get())) {
+                if (maxBits.compareAndSet(bits, Double.doubleToLongBits(value))) {
+                    break;
+                }
+            }
+        }
+
+        public double[] getBounds() {
+            return bounds.clone();
+        }
+
+        // Non-cumulative counts per bucket, the last one being the overflow bucket
+        public long[] getBucketCounts() {
+            long[] result = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                result[i] = counts[i].sum();
+            }
+            return result;
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : counts) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+
+        public double getMax() {
+            return Double.longBitsToDouble(maxBits.get());
+        }
+
+        // Estimate interpolated linearly inside the bucket holding the quantile
+        public double quantile(double q) {
+            long[] buckets = getBucketCounts();
+            long total = 0;
+            for (long count : buckets) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            double rank = q * total;
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] > 0 && seen + buckets[i] >= rank) {
+                    if (i == bounds.length) {
+                        return getMax();
+                    }
+                    double lower = i == 0 ? 0 : bounds[i - 1];
+                    double upper = Math.min(bounds[i], getMax());
+                    return lower + (upper - lower) * Math.max(0, rank - seen) / buckets[i];
+                }
+                seen += buckets[i];
+            }
+            return getMax();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.resumeanalyzer.metrics;
+
+import com.resumeanalyzer.config.ConfigManager;
+
+import java.nio.file.Paths;
+
+// The metrics recorded by the analysis pipeline, in one place so names, labels and buckets stay
+// consistent. Recording goes to the installed backend, which is a no-op until install() or
+// installFromConfig() is called, so instrumented code costs next to nothing when metrics are off.
+public final class PipelineMetrics {
+    // Seconds, 1 ms to 2 minutes
+    public static final double[] LATENCY_BUCKETS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 20, 30, 60, 120
+    };
+
+    private static volatile Metrics metrics = Metrics.NOOP;
+    // The registry installFromConfig() created, shared by later calls
+    private static MetricsRegistry configured;
+    // Set on threads whose recording goes nowhere, see withoutRecording()
+    private static final ThreadLocal<Boolean> muted = new ThreadLocal<>();
+
+    private PipelineMetrics() {
+    }
+
+    public static Metrics get() {
+        return muted.get() == null ? metrics : Metrics.NOOP;
+    }
+
+    // Runs the task with this thread recording nothing, whatever backend is installed; for synthetic
+    // work such as the warm-up, which would otherwise show up in the counters and histograms
+    public static void withoutRecording(Runnable task) {
+        if (muted.get() != null) {
+            task.run();
+            return;
+        }
+        muted.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            muted.remove();
+        }
+    }
+
+    public static void install(Metrics backend) {
+        metrics = backend != null ? backend : Metrics.NOOP;
+    }
+
+    // Installs a registry when metrics.jmx.enabled is true or metrics.prometheus.file is set, and
+    // starts the configured exporters. Returns null when metrics stay off. Only the first call sets
+    // anything up; later ones, e.g. the GUI and the HTTP service in one process, get its registry.
+    public static synchronized MetricsRegistry installFromConfig() {
+        if (configured != null) {
+            return configured;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        boolean jmx = config.getBoolean("metrics.jmx.enabled", false);
+        String prometheusFile = config.getProperty("metrics.prometheus.file", null);
+        if (!jmx && prometheusFile == null) {
+            return null;
+        }
+        MetricsRegistry registry = new MetricsRegistry();
+        if (jmx) {
+            new JmxExporter(registry);
+        }
+        if (prometheusFile != null) {
+            PrometheusTextExporter exporter = new PrometheusTextExporter(registry, Paths.get(prometheusFile));
+            exporter.start(config.getLong("metrics.prometheus.interval.seconds", 15));
+            Runtime.getRuntime().addShutdownHook(new Thread(exporter::close, "metrics-final-dump"));
+        }
+        install(registry);
+        configured = registry;
+        return registry;
+    }
+
+    public static double secondsSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    // Text extraction; format is the file extension ("pdf", "docx")
+    public static void recordParse(String format, long startNanos, long bytes, long chars, boolean failed) {
+        Metrics m = get();
+        String outcome = failed ? "error" : "ok";
+        m.histogram("resume_parse_seconds", "Time to extract the text of one resume", LATENCY_BUCKETS,
+            "format", format, "outcome", outcome).observe(secondsSince(startNanos));
+        m.counter("resume_parsed_bytes_total", "File bytes of resumes extracted", "format", format).increment(bytes);
+        m.counter("resume_parsed_chars_total", "Characters of text extracted", "format", format).increment(chars);
+    }
+
+    public static void recordPages(String format, int pages) {
+        get().counter("resume_parsed_pages_total", "Pages of resumes extracted", "format", format).increment(pages);
+    }
+
+    // Keyword scoring; role is the job role, or "all" for one pass over several roles
+    public static void recordScore(String role, long startNanos) {
+        get().histogram("resume_score_seconds", "Time to match keywords and score a resume", LATENCY_BUCKETS,
+            "role", role).observe(secondsSince(startNanos));
+    }
+
+    public static void recordSemanticMatch(String role, long startNanos) {
+        get().histogram("semantic_match_seconds", "Time to embed a resume and match it against a role",
+            LATENCY_BUCKETS, "role", role).observe(secondsSince(startNanos));
+    }
+
+    // Near-duplicate lookup of one resume; duplicate when an earlier near-identical resume was found
+    public static void recordDuplicateCheck(long startNanos, boolean duplicate) {
+        Metrics m = get();
+        m.histogram("duplicate_check_seconds", "Time to sign a resume and look up near-duplicates", LATENCY_BUCKETS)
+            .observe(secondsSince(startNanos));
+        m.counter("duplicate_checks_total", "Near-duplicate lookups by outcome", "result",
+            duplicate ? "duplicate" : "unique").increment();
+    }
+
+    // Where the LLM cascade sent a resume, e.g. "score" or "below_gate"
+    public static void recordCascadeRoute(String route) {
+        get().counter("cascade_routes_total", "Resumes routed by the keyword-to-LLM cascade", "route", route).increment();
+    }
+
+    public static void recordKeywordsMatched(String role, int matched) {
+        Metrics m = get();
+        m.counter("resume_scored_total", "Resumes scored", "role", role).increment();
+        m.counter("resume_keywords_matched_total", "Role keywords found in scored resumes", "role", role).increment(matched);
+    }
+
+    // cache is "text" or "llm"; result is e.g. "memory_hit", "disk_hit", "hit", "miss", "coalesced"
+    public static void recordCacheLookup(String cache, String result) {
+        get().counter("cache_lookups_total", "Cache lookups by outcome", "cache", cache, "result", result).increment();
+    }
+
+    // One HTTP exchange with the LLM API; status is the HTTP code or "network_error"
+    public static void recordLlmRequest(String status, long startNanos) {
+        Metrics m = get();
+        m.histogram("llm_http_request_seconds", "Duration of one HTTP exchange with the LLM API", LATENCY_BUCKETS,
+            "status", status).observe(secondsSince(startNanos));
+        m.counter("llm_http_responses_total", "HTTP exchanges with the LLM API by status", "status", status).increment();
+    }
+
+    public static void recordLlmRetry() {
+        get().counter("llm_retries_total", "LLM requests retried after a retryable failure").increment();
+    }
+
+    public static void recordLlmTokens(long promptTokens, long completionTokens) {
+        Metrics m = get();
+        m.counter("llm_tokens_total", "LLM tokens by direction", "direction", "in").increment(promptTokens);
+        m.counter("llm_tokens_total", "LLM tokens by direction", "direction", "out").increment(completionTokens);
+    }
+
+    // A whole AI analysis including cache lookup, queueing and retries
+    public static void recordLlmAnalysis(String role, long startNanos, boolean failed) {
+        get().histogram("llm_analysis_seconds", "End-to-end time of an AI analysis", LATENCY_BUCKETS,
+            "role", role, "outcome", failed ? "error" : "ok").observe(secondsSince(startNanos));
+    }
+
+    // One request to the HTTP service; outcome is ok, error, rejected (over capacity) or timeout (queued too long)
+    public static void recordServerRequest(String outcome, long startNanos) {
+        get().histogram("server_request_seconds", "Time to answer an analysis request, including queueing",
+            LATENCY_BUCKETS, "outcome", outcome).observe(secondsSince(startNanos));
+    }
+
+    public static void recordRender(long startNanos, int markdownChars) {
+        Metrics m = get();
+        m.histogram("markdown_render_seconds", "Time to render the report markdown to HTML", LATENCY_BUCKETS)
+            .observe(secondsSince(startNanos));
+        m.counter("markdown_rendered_chars_total", "Markdown characters rendered").increment(markdownChars);
+    }
+}
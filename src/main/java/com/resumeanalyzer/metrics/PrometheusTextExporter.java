@@ -0,0 +1,122 @@
+package com.resumeanalyzer.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Writes a registry in the Prometheus text exposition format (version 0.0.4) to a file, once or
+// periodically. Point node_exporter's textfile collector at the directory to scrape it.
+public class PrometheusTextExporter implements AutoCloseable {
+    private final MetricsRegistry registry;
+    private final Path file;
+    private ScheduledExecutorService scheduler;
+
+    public PrometheusTextExporter(MetricsRegistry registry, Path file) {
+        this.registry = registry;
+        this.file = file;
+    }
+
+    // Rewrites the file every interval and once more on close
+    public synchronized void start(long intervalSeconds) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Replaces the file atomically so a collector never reads a half-written dump
+    public void write() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        Files.writeString(temp, format(registry), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        writeQuietly();
+    }
+
+    public static String format(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder();
+        for (MetricsRegistry.Family family : registry.families()) {
+            String name = family.getName();
+            out.append("# HELP ").append(name).append(' ').append(escapeHelp(family.getHelp())).append('\n');
+            out.append("# TYPE ").append(name).append(' ')
+                .append(family.getType().name().toLowerCase(Locale.ROOT)).append('\n');
+            for (MetricsRegistry.Series series : family.getSeries()) {
+                if (series instanceof MetricsRegistry.CounterSeries) {
+                    sample(out, name, series.getLabels(), null, ((MetricsRegistry.CounterSeries) series).getValue());
+                } else {
+                    MetricsRegistry.HistogramSeries histogram = (MetricsRegistry.HistogramSeries) series;
+                    double[] bounds = histogram.getBounds();
+                    long[] counts = histogram.getBucketCounts();
+                    long cumulative = 0;
+                    for (int i = 0; i < counts.length; i++) {
+                        cumulative += counts[i];
+                        String le = i < bounds.length ? number(bounds[i]) : "+Inf";
+                        sample(out, name + "_bucket", series.getLabels(), le, cumulative);
+                    }
+                    sample(out, name + "_sum", series.getLabels(), null, histogram.getSum());
+                    sample(out, name + "_count", series.getLabels(), null, cumulative);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException e) {
+            System.out.println("Warning: could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, List<String> labels, String le, double value) {
+        out.append(name);
+        if (!labels.isEmpty() || le != null) {
+            out.append('{');
+            for (int i = 0; i < labels.size(); i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labels.get(i)).append("=\"").append(escapeLabel(labels.get(i + 1))).append('"');
+            }
+            if (le != null) {
+                out.append(labels.isEmpty() ? "" : ",").append("le=\"").append(le).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(number(value)).append('\n');
+    }
+
+    private static String number(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,97 @@
+package com.resumeanalyzer.results;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.List;
+
+// Writes rows of a ResultReader as CSV (RFC 4180, with a header) or JSON Lines, one row at a time,
+// so an export of any size needs no more memory than its largest row. Keyword and suggestion lists
+// are joined with "; " in CSV and kept as arrays in JSON.
+public final class ResultExporter {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String[] CSV_HEADER = {
+        "file", "role", "score", "analyzed_at", "found_keywords", "missing_keywords", "suggestions", "ai_analysis"
+    };
+
+    private ResultExporter() {
+    }
+
+    public static void writeCsv(ResultReader reader, int[] rows, Writer out) throws IOException {
+        writeCsvRow(out, CSV_HEADER);
+        for (int row : rows) {
+            String analysis = reader.aiAnalysis(row);
+            writeCsvRow(out, new String[] {
+                reader.file(row),
+                reader.role(row),
+                formatScore(reader.score(row)),
+                Instant.ofEpochMilli(reader.analyzedAtMillis(row)).toString(),
+                String.join("; ", reader.foundKeywords(row)),
+                String.join("; ", reader.missingKeywords(row)),
+                String.join("; ", reader.suggestions(row)),
+                analysis != null ? analysis : ""
+            });
+        }
+        out.flush();
+    }
+
+    // Same field names as BatchScorer's output, plus analyzedAt
+    public static void writeJsonLines(ResultReader reader, int[] rows, Writer out) throws IOException {
+        JsonGenerator json = JSON.createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows end with the newline written below, not the default space between root values
+        json.setRootValueSeparator(new SerializedString(""));
+        for (int row : rows) {
+            json.writeStartObject();
+            json.writeStringField("file", reader.file(row));
+            json.writeStringField("role", reader.role(row));
+            json.writeNumberField("score", Math.round(reader.score(row) * 10) / 10.0);
+            json.writeStringField("analyzedAt", Instant.ofEpochMilli(reader.analyzedAtMillis(row)).toString());
+            writeArray(json, "foundKeywords", reader.foundKeywords(row));
+            writeArray(json, "missingKeywords", reader.missingKeywords(row));
+            writeArray(json, "suggestions", reader.suggestions(row));
+            String analysis = reader.aiAnalysis(row);
+            if (analysis != null) {
+                json.writeStringField("aiAnalysis", analysis);
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        json.close();
+        out.flush();
+    }
+
+    private static void writeArray(JsonGenerator json, String field, List<String> values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+
+    private static String formatScore(float score) {
+        return String.valueOf(Math.round(score * 10) / 10.0);
+    }
+
+    private static void writeCsvRow(Writer out, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0
+                    || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write("\r\n");
+    }
+}
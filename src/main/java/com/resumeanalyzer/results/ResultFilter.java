@@ -0,0 +1,109 @@
+package com.resumeanalyzer.results;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Which rows a ResultReader scan returns, and in what order. Without sortByScore rows come in the
+// order they were stored.
+public final class ResultFilter {
+    private final String role;
+    private final double minScore;
+    private final double maxScore;
+    private final Set<String> requiredKeywords;
+    private final Set<String> excludedKeywords;
+    private final boolean latestOnly;
+    private final boolean sortByScore;
+    private final int limit;
+
+    private ResultFilter(Builder builder) {
+        this.role = builder.role;
+        this.minScore = builder.minScore;
+        this.maxScore = builder.maxScore;
+        this.requiredKeywords = Collections.unmodifiableSet(new LinkedHashSet<>(builder.requiredKeywords));
+        this.excludedKeywords = Collections.unmodifiableSet(new LinkedHashSet<>(builder.excludedKeywords));
+        this.latestOnly = builder.latestOnly;
+        this.sortByScore = builder.sortByScore;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Null for every role
+    public String getRole() { return role; }
+    public double getMinScore() { return minScore; }
+    public double getMaxScore() { return maxScore; }
+    public Set<String> getRequiredKeywords() { return requiredKeywords; }
+    public Set<String> getExcludedKeywords() { return excludedKeywords; }
+    // Only the last result stored for each file and role, e.g. after a resume was analyzed again
+    public boolean isLatestOnly() { return latestOnly; }
+    // Best score first; equal scores in the order they were stored
+    public boolean isSortByScore() { return sortByScore; }
+    // 0 for no limit
+    public int getLimit() { return limit; }
+
+    public static final class Builder {
+        private String role;
+        private double minScore = Double.NEGATIVE_INFINITY;
+        private double maxScore = Double.POSITIVE_INFINITY;
+        private final Set<String> requiredKeywords = new LinkedHashSet<>();
+        private final Set<String> excludedKeywords = new LinkedHashSet<>();
+        private boolean latestOnly;
+        private boolean sortByScore;
+        private int limit;
+
+        private Builder() {
+        }
+
+        public Builder role(String role) {
+            this.role = role;
+            return this;
+        }
+
+        // Inclusive
+        public Builder minScore(double minScore) {
+            this.minScore = minScore;
+            return this;
+        }
+
+        // Inclusive
+        public Builder maxScore(double maxScore) {
+            this.maxScore = maxScore;
+            return this;
+        }
+
+        public Builder withKeyword(String keyword) {
+            requiredKeywords.add(keyword);
+            return this;
+        }
+
+        public Builder withoutKeyword(String keyword) {
+            excludedKeywords.add(keyword);
+            return this;
+        }
+
+        public Builder latestOnly() {
+            this.latestOnly = true;
+            return this;
+        }
+
+        public Builder sortByScore() {
+            this.sortByScore = true;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public ResultFilter build() {
+            return new ResultFilter(this);
+        }
+    }
+}
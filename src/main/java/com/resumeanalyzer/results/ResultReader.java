@@ -0,0 +1,292 @@
+package com.resumeanalyzer.results;
+
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// A point-in-time view of a result store: the rows committed when it was opened. Every column
+// except the AI text is memory-mapped, so a scan over hundreds of thousands of rows reads a few
+// bytes per row from the page cache and allocates nothing per row that does not match. AI text is
+// only read for the rows exported. Safe to share between threads; close() releases the AI file.
+public final class ResultReader implements Closeable {
+    private final Path directory;
+    private final int rows;
+    private final ByteBuffer scores;
+    private final ByteBuffer roles;
+    private final ByteBuffer files;
+    private final ByteBuffer times;
+    private final ByteBuffer foundOffsets;
+    private final ByteBuffer found;
+    private final ByteBuffer missingOffsets;
+    private final ByteBuffer missing;
+    private final ByteBuffer suggestionOffsets;
+    private final ByteBuffer suggestions;
+    private final ByteBuffer aiOffsets;
+    private final FileChannel ai;
+    private final String[] keywords;
+    private final String[] strings;
+    private final Map<String, Integer> keywordIds = new HashMap<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    private ResultReader(Path directory, ResultStore.Meta meta) throws IOException {
+        if (meta.rows > Integer.MAX_VALUE) {
+            throw new IOException("Result store " + directory + " has too many rows to read");
+        }
+        this.directory = directory;
+        this.rows = (int) meta.rows;
+        scores = map(directory, meta, ResultStore.SCORE);
+        roles = map(directory, meta, ResultStore.ROLE);
+        files = map(directory, meta, ResultStore.FILE);
+        times = map(directory, meta, ResultStore.TIME);
+        foundOffsets = map(directory, meta, ResultStore.FOUND_OFF);
+        found = map(directory, meta, ResultStore.FOUND_DAT);
+        missingOffsets = map(directory, meta, ResultStore.MISSING_OFF);
+        missing = map(directory, meta, ResultStore.MISSING_DAT);
+        suggestionOffsets = map(directory, meta, ResultStore.SUGGESTIONS_OFF);
+        suggestions = map(directory, meta, ResultStore.SUGGESTIONS_DAT);
+        aiOffsets = map(directory, meta, ResultStore.AI_OFF);
+        keywords = readDictionary(directory.resolve(ResultStore.FILES[ResultStore.KEYWORDS]), meta.keywordCount);
+        strings = readDictionary(directory.resolve(ResultStore.FILES[ResultStore.STRINGS]), meta.stringCount);
+        for (int id = 0; id < keywords.length; id++) {
+            keywordIds.put(keywords[id], id);
+        }
+        for (int id = 0; id < strings.length; id++) {
+            stringIds.put(strings[id], id);
+        }
+        ai = FileChannel.open(directory.resolve(ResultStore.FILES[ResultStore.AI_DAT]), StandardOpenOption.READ);
+    }
+
+    public static ResultReader open(Path directory) throws IOException {
+        return new ResultReader(directory, ResultStore.Meta.load(directory));
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    // Matching rows, in store order or best score first. Keywords are matched like the taxonomy
+    // matches them: in any case, and a synonym stands for its keyword. A keyword that neither the
+    // store nor the taxonomy knows is an IllegalArgumentException rather than an empty result.
+    public int[] scan(ResultFilter filter) {
+        int role = -1;
+        if (filter.getRole() != null) {
+            Integer id = stringIds.get(filter.getRole());
+            if (id == null) {
+                return new int[0];
+            }
+            role = id;
+        }
+        int[] required = new int[filter.getRequiredKeywords().size()];
+        int i = 0;
+        for (String keyword : filter.getRequiredKeywords()) {
+            int id = keywordId(keyword);
+            if (id < 0) {
+                return new int[0];
+            }
+            required[i++] = id;
+        }
+        int[] excluded = filter.getExcludedKeywords().stream()
+            .mapToInt(this::keywordId).filter(id -> id >= 0).toArray();
+        double minScore = filter.getMinScore();
+        double maxScore = filter.getMaxScore();
+
+        int[] matches = new int[64];
+        int count = 0;
+        // Later rows of the same file and role replace earlier ones, so walk backwards and keep the first seen
+        Set<Long> seen = filter.isLatestOnly() ? new HashSet<>() : null;
+        for (int n = 0; n < rows; n++) {
+            int row = seen != null ? rows - 1 - n : n;
+            if (role >= 0 && roles.getInt(row * 4) != role) {
+                continue;
+            }
+            if (seen != null && !seen.add(((long) files.getInt(row * 4) << 32) | (roles.getInt(row * 4) & 0xffffffffL))) {
+                continue;
+            }
+            float score = scores.getFloat(row * 4);
+            if (score < minScore || score > maxScore || !hasAll(row, required) || hasAny(row, excluded)) {
+                continue;
+            }
+            if (count == matches.length) {
+                matches = Arrays.copyOf(matches, count * 2);
+            }
+            matches[count++] = row;
+        }
+        if (seen != null) {
+            // Back to store order
+            for (int a = 0, b = count - 1; a < b; a++, b--) {
+                int swap = matches[a];
+                matches[a] = matches[b];
+                matches[b] = swap;
+            }
+        }
+        if (filter.isSortByScore()) {
+            sortByScore(matches, count);
+        }
+        int limit = filter.getLimit() > 0 ? Math.min(filter.getLimit(), count) : count;
+        return Arrays.copyOf(matches, limit);
+    }
+
+    public float score(int row) {
+        return scores.getFloat(row * 4);
+    }
+
+    public String role(int row) {
+        return strings[roles.getInt(row * 4)];
+    }
+
+    public String file(int row) {
+        return strings[files.getInt(row * 4)];
+    }
+
+    public long analyzedAtMillis(int row) {
+        return times.getLong(row * 8);
+    }
+
+    // In keyword dictionary order
+    public List<String> foundKeywords(int row) {
+        return keywords(foundOffsets, found, row);
+    }
+
+    public List<String> missingKeywords(int row) {
+        return keywords(missingOffsets, missing, row);
+    }
+
+    public List<String> suggestions(int row) {
+        int start = (int) start(suggestionOffsets, row);
+        int end = (int) suggestionOffsets.getLong(row * 8);
+        List<String> list = new ArrayList<>((end - start) / 4);
+        for (int offset = start; offset < end; offset += 4) {
+            list.add(strings[suggestions.getInt(offset)]);
+        }
+        return list;
+    }
+
+    // Null when the row has no AI analysis
+    public String aiAnalysis(int row) throws IOException {
+        long start = start(aiOffsets, row);
+        long end = aiOffsets.getLong(row * 8);
+        if (end == start) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (ai.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("Result store " + directory + " ends inside an AI analysis");
+            }
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        ai.close();
+    }
+
+    private boolean hasAll(int row, int[] keywordIds) {
+        for (int id : keywordIds) {
+            if (!isSet(foundOffsets, found, row, id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasAny(int row, int[] keywordIds) {
+        for (int id : keywordIds) {
+            if (isSet(foundOffsets, found, row, id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSet(ByteBuffer offsets, ByteBuffer bits, int row, int id) {
+        long word = start(offsets, row) + (id >>> 6) * 8L;
+        return word < offsets.getLong(row * 8) && (bits.getLong((int) word) & (1L << id)) != 0;
+    }
+
+    private List<String> keywords(ByteBuffer offsets, ByteBuffer bits, int row) {
+        int start = (int) start(offsets, row);
+        int end = (int) offsets.getLong(row * 8);
+        List<String> list = new ArrayList<>();
+        for (int offset = start; offset < end; offset += 8) {
+            long word = bits.getLong(offset);
+            while (word != 0) {
+                list.add(keywords[(offset - start) * 8 + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return list;
+    }
+
+    // Rows end where the next begins; the first begins at 0
+    private static long start(ByteBuffer offsets, int row) {
+        return row == 0 ? 0 : offsets.getLong((row - 1) * 8);
+    }
+
+    // Scores are 0 to 100, where the float bits order like the values; the inverted row number
+    // breaks ties in favour of the row stored first
+    private void sortByScore(int[] matches, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = matches[i];
+            keys[i] = ((long) Float.floatToIntBits(Math.max(0f, scores.getFloat(row * 4))) << 32) | (~row & 0xffffffffL);
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            matches[i] = ~(int) keys[count - 1 - i];
+        }
+    }
+
+    private static ByteBuffer map(Path directory, ResultStore.Meta meta, int column) throws IOException {
+        long length = meta.lengths[column];
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Result store column " + ResultStore.FILES[column] + " exceeds 2 GB");
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(ResultStore.FILES[column]), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+
+    // Id in this store's dictionary; -1 for a taxonomy keyword no stored result mentions
+    private int keywordId(String term) {
+        String normalized = term.strip().toLowerCase(Locale.ROOT);
+        Integer id = keywordIds.get(normalized);
+        if (id != null) {
+            return id;
+        }
+        KeywordIndex index = KeywordTaxonomy.current();
+        int taxonomyId = index.resolve(normalized);
+        if (taxonomyId < 0) {
+            throw new IllegalArgumentException("Unknown keyword: " + term.strip());
+        }
+        id = keywordIds.get(index.keyword(taxonomyId));
+        return id != null ? id : -1;
+    }
+
+    private static String[] readDictionary(Path file, int count) throws IOException {
+        String[] values = new String[count];
+        if (count == 0) {
+            return values;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            for (int id = 0; id < count; id++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                values[id] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+}
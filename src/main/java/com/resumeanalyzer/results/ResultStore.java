@@ -0,0 +1,301 @@
+package com.resumeanalyzer.results;
+
+import com.resumeanalyzer.config.ConfigManager;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Append-only, columnar store of analysis results, one row per resume and role. Every field is a
+// file of its own, so a scan reads only the columns it filters on:
+//   score.col, role.col, file.col, time.col   float score, role and file ids, epoch millis
+//   found.*, missing.*                         keyword ids as bitsets (long words)
+//   suggestions.*                              suggestion ids (int)
+//   ai.*                                       AI analysis text (UTF-8)
+// Variable-length columns are a .dat heap plus an .off column with each row's end offset. Role,
+// file and suggestion text is kept once in strings.dict and keywords in keywords.dict, so a row
+// is a few dozen bytes besides its AI text. Keywords are stored by name, not by taxonomy id, so
+// rows stay readable after the taxonomy changes.
+//
+// Appends become visible with commit(), which forces the columns to disk and then atomically
+// replaces store.meta with the new row count and file lengths. Opening a store cuts every file
+// back to those lengths, so a crash between commits loses the uncommitted rows and nothing else.
+// One writer per directory; any number of ResultReaders. Thread-safe.
+public final class ResultStore implements Closeable {
+    static final int MAGIC = 0x52415253; // "RARS"
+    static final int FORMAT_VERSION = 1;
+    static final String META = "store.meta";
+    // Order of the file lengths in store.meta
+    static final String[] FILES = {
+        "score.col", "role.col", "file.col", "time.col",
+        "found.off", "found.dat", "missing.off", "missing.dat",
+        "suggestions.off", "suggestions.dat", "ai.off", "ai.dat",
+        "keywords.dict", "strings.dict"
+    };
+    static final int SCORE = 0, ROLE = 1, FILE = 2, TIME = 3, FOUND_OFF = 4, FOUND_DAT = 5, MISSING_OFF = 6,
+        MISSING_DAT = 7, SUGGESTIONS_OFF = 8, SUGGESTIONS_DAT = 9, AI_OFF = 10, AI_DAT = 11, KEYWORDS = 12,
+        STRINGS = 13;
+
+    private final Path directory;
+    private final Column[] columns = new Column[FILES.length];
+    private final Map<String, Integer> keywordIds = new HashMap<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long rows;
+    private long committedRows;
+    // Set when an append failed halfway; the columns no longer line up, so nothing more is committed
+    private boolean failed;
+
+    private ResultStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        Meta meta = Meta.loadOrEmpty(directory);
+        rows = meta.rows;
+        committedRows = meta.rows;
+        for (int i = 0; i < FILES.length; i++) {
+            columns[i] = new Column(directory.resolve(FILES[i]), meta.lengths[i]);
+        }
+        readDictionary(directory.resolve(FILES[KEYWORDS]), meta.keywordCount, keywordIds);
+        readDictionary(directory.resolve(FILES[STRINGS]), meta.stringCount, stringIds);
+    }
+
+    public static ResultStore open(Path directory) throws IOException {
+        return new ResultStore(directory);
+    }
+
+    // The store in results.store.directory, or null when that is not set
+    public static ResultStore fromConfig() {
+        String directory = ConfigManager.getInstance().getProperty("results.store.directory", null);
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return open(Paths.get(directory.trim()));
+        } catch (IOException e) {
+            System.out.println("Warning: cannot open result store " + directory + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized long rows() {
+        return rows;
+    }
+
+    // aiAnalysis may be null
+    public synchronized void append(String file, String role, double score, Collection<String> foundKeywords,
+                                    Collection<String> missingKeywords, List<String> suggestions, String aiAnalysis,
+                                    long analyzedAtMillis) throws IOException {
+        if (failed) {
+            throw new IOException("Result store " + directory + " failed earlier; reopen it");
+        }
+        failed = true;
+        columns[SCORE].writeFloat((float) score);
+        columns[ROLE].writeInt(stringId(role));
+        columns[FILE].writeInt(stringId(file));
+        columns[TIME].writeLong(analyzedAtMillis);
+        writeBits(FOUND_OFF, FOUND_DAT, foundKeywords);
+        writeBits(MISSING_OFF, MISSING_DAT, missingKeywords);
+        Column codes = columns[SUGGESTIONS_DAT];
+        for (String suggestion : suggestions) {
+            codes.writeInt(stringId(suggestion));
+        }
+        columns[SUGGESTIONS_OFF].writeLong(codes.length);
+        Column text = columns[AI_DAT];
+        if (aiAnalysis != null) {
+            text.write(aiAnalysis.getBytes(StandardCharsets.UTF_8));
+        }
+        columns[AI_OFF].writeLong(text.length);
+        rows++;
+        failed = false;
+    }
+
+    // Makes the rows appended so far durable and visible to readers opened from now on
+    public synchronized void commit() throws IOException {
+        if (failed) {
+            throw new IOException("Result store " + directory + " failed earlier; reopen it");
+        }
+        if (rows == committedRows) {
+            return;
+        }
+        long[] lengths = new long[FILES.length];
+        for (int i = 0; i < FILES.length; i++) {
+            lengths[i] = columns[i].sync();
+        }
+        new Meta(rows, keywordIds.size(), stringIds.size(), lengths).save(directory);
+        committedRows = rows;
+    }
+
+    // Commits what was appended
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (!failed) {
+                commit();
+            }
+        } finally {
+            for (Column column : columns) {
+                column.close();
+            }
+        }
+    }
+
+    private void writeBits(int offsetColumn, int dataColumn, Collection<String> keywords) throws IOException {
+        BitSet bits = new BitSet();
+        for (String keyword : keywords) {
+            bits.set(dictionaryId(keyword, keywordIds, KEYWORDS));
+        }
+        Column data = columns[dataColumn];
+        for (long word : bits.toLongArray()) {
+            data.writeLong(word);
+        }
+        columns[offsetColumn].writeLong(data.length);
+    }
+
+    private int stringId(String value) throws IOException {
+        return dictionaryId(value, stringIds, STRINGS);
+    }
+
+    private int dictionaryId(String value, Map<String, Integer> ids, int column) throws IOException {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = ids.size();
+            ids.put(value, id);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            columns[column].writeInt(bytes.length);
+            columns[column].write(bytes);
+        }
+        return id;
+    }
+
+    private static void readDictionary(Path file, int count, Map<String, Integer> ids) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            for (int id = 0; id < count; id++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                ids.put(new String(bytes, StandardCharsets.UTF_8), id);
+            }
+        }
+    }
+
+    // One column file, cut back to its committed length and appended to through a buffer
+    private static final class Column {
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private long length;
+
+        Column(Path path, long committedLength) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                if (channel.size() < committedLength) {
+                    throw new IOException("Result store file " + path + " is shorter than its last commit");
+                }
+                channel.truncate(committedLength);
+            }
+            this.file = new FileOutputStream(path.toFile(), true);
+            this.out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+            this.length = committedLength;
+        }
+
+        void writeInt(int value) throws IOException {
+            out.writeInt(value);
+            length += 4;
+        }
+
+        void writeLong(long value) throws IOException {
+            out.writeLong(value);
+            length += 8;
+        }
+
+        void writeFloat(float value) throws IOException {
+            out.writeFloat(value);
+            length += 4;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            out.write(bytes);
+            length += bytes.length;
+        }
+
+        // Flushes and forces the column; returns its length
+        long sync() throws IOException {
+            out.flush();
+            file.getChannel().force(false);
+            return length;
+        }
+
+        void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // Row count, dictionary sizes and the committed length of every file
+    static final class Meta {
+        final long rows;
+        final int keywordCount;
+        final int stringCount;
+        final long[] lengths;
+
+        Meta(long rows, int keywordCount, int stringCount, long[] lengths) {
+            this.rows = rows;
+            this.keywordCount = keywordCount;
+            this.stringCount = stringCount;
+            this.lengths = lengths;
+        }
+
+        static Meta loadOrEmpty(Path directory) throws IOException {
+            try {
+                return load(directory);
+            } catch (NoSuchFileException e) {
+                return new Meta(0, 0, 0, new long[FILES.length]);
+            }
+        }
+
+        static Meta load(Path directory) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(directory.resolve(META))))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Result store " + directory + " is damaged or from an unsupported version");
+                }
+                long rows = in.readLong();
+                int keywordCount = in.readInt();
+                int stringCount = in.readInt();
+                long[] lengths = new long[FILES.length];
+                for (int i = 0; i < lengths.length; i++) {
+                    lengths[i] = in.readLong();
+                }
+                return new Meta(rows, keywordCount, stringCount, lengths);
+            }
+        }
+
+        void save(Path directory) throws IOException {
+            Path temp = directory.resolve(META + ".tmp");
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(rows);
+                out.writeInt(keywordCount);
+                out.writeInt(stringCount);
+                for (long length : lengths) {
+                    out.writeLong(length);
+                }
+                out.flush();
+                file.getChannel().force(true);
+            }
+            Files.move(temp, directory.resolve(META), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
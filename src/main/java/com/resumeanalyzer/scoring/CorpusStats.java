@@ -0,0 +1,175 @@
+package com.resumeanalyzer.scoring;
+
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Document frequencies of taxonomy keywords over the resumes processed so far, plus document
+// count and total word count for length normalization. Terms are stored by name with dense
+// ids into a plain int[], so the store survives taxonomy changes and stays compact; add()
+// only touches the counters of the keywords a resume contains. Thread-safe.
+public final class CorpusStats {
+    private static final int MAGIC = 0x52414353; // "RACS"
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private String[] terms = new String[64];
+    private int[] documentFrequency = new int[64];
+    private int termCount;
+    private long documents;
+    private long totalWords;
+    private volatile long version;
+
+    // Term id for every keyword id of the last index seen by add(), so lookups are array reads
+    private KeywordIndex mappedIndex;
+    private int[] termIdByKeyword;
+
+    // Records one resume; counts are keyword occurrences indexed by keyword id
+    public synchronized void add(KeywordIndex index, int[] counts, long words) {
+        int[] mapping = mapping(index);
+        for (int id = 0; id < mapping.length; id++) {
+            if (counts[id] > 0) {
+                documentFrequency[mapping[id]]++;
+            }
+        }
+        documents++;
+        totalWords += words;
+        version++;
+    }
+
+    public synchronized void merge(CorpusStats other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge corpus statistics into themselves");
+        }
+        String[] otherTerms;
+        int[] otherFrequency;
+        long otherDocuments;
+        long otherWords;
+        synchronized (other) {
+            otherTerms = Arrays.copyOf(other.terms, other.termCount);
+            otherFrequency = Arrays.copyOf(other.documentFrequency, other.termCount);
+            otherDocuments = other.documents;
+            otherWords = other.totalWords;
+        }
+        for (int i = 0; i < otherTerms.length; i++) {
+            int id = termId(otherTerms[i]);
+            documentFrequency[id] += otherFrequency[i];
+        }
+        documents += otherDocuments;
+        totalWords += otherWords;
+        version++;
+    }
+
+    public synchronized long getDocuments() {
+        return documents;
+    }
+
+    public synchronized double getAverageWords() {
+        return documents == 0 ? 0 : (double) totalWords / documents;
+    }
+
+    public synchronized int documentFrequency(String term) {
+        Integer id = termIds.get(term);
+        return id == null ? 0 : documentFrequency[id];
+    }
+
+    // Increases with every change, so derived tables know when to refresh
+    public long version() {
+        return version;
+    }
+
+    // Inverse document frequency of every keyword of the index, indexed by keyword id. Uses the
+    // BM25 form ln(1 + (N - df + 0.5) / (df + 0.5)), which stays positive for common terms and
+    // gives every keyword the same value while the corpus is empty.
+    public synchronized double[] idf(KeywordIndex index) {
+        double[] idf = new double[index.keywordCount()];
+        for (int id = 0; id < idf.length; id++) {
+            Integer termId = termIds.get(index.keyword(id));
+            int df = termId == null ? 0 : documentFrequency[termId];
+            idf[id] = idf(documents, df);
+        }
+        return idf;
+    }
+
+    public static double idf(long documents, int documentFrequency) {
+        return Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    public static CorpusStats load(Path file) throws IOException {
+        CorpusStats stats = new CorpusStats();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a corpus statistics file: " + file);
+            }
+            stats.documents = in.readLong();
+            stats.totalWords = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = stats.termId(in.readUTF());
+                stats.documentFrequency[id] = in.readInt();
+            }
+        }
+        return stats;
+    }
+
+    // Loads the file if it exists, otherwise starts empty
+    public static CorpusStats loadOrEmpty(Path file) throws IOException {
+        return Files.exists(file) ? load(file) : new CorpusStats();
+    }
+
+    // Replaces the file atomically, so a crash never leaves a truncated store behind
+    public synchronized void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(documents);
+            out.writeLong(totalWords);
+            out.writeInt(termCount);
+            for (int i = 0; i < termCount; i++) {
+                out.writeUTF(terms[i]);
+                out.writeInt(documentFrequency[i]);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d documents, %d terms, %.0f words on average", documents, termCount, getAverageWords());
+    }
+
+    private int[] mapping(KeywordIndex index) {
+        if (mappedIndex != index) {
+            int[] mapping = new int[index.keywordCount()];
+            for (int id = 0; id < mapping.length; id++) {
+                mapping[id] = termId(index.keyword(id));
+            }
+            termIdByKeyword = mapping;
+            mappedIndex = index;
+        }
+        return termIdByKeyword;
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        if (termCount == terms.length) {
+            terms = Arrays.copyOf(terms, termCount * 2);
+            documentFrequency = Arrays.copyOf(documentFrequency, termCount * 2);
+        }
+        terms[termCount] = term;
+        termIds.put(term, termCount);
+        return termCount++;
+    }
+}
@@ -0,0 +1,121 @@
+package com.resumeanalyzer.scoring;
+
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+
+import java.util.Arrays;
+
+// BM25-style relevance of a resume to a role, from 0 to 100. Each keyword contributes its
+// taxonomy weight times its IDF from the corpus statistics, scaled by how often it is
+// mentioned: term frequency saturates BM25-fashion and is normalized by resume length, and a
+// keyword counts fully once it appears REFERENCE_MENTIONS times in an average-length resume.
+// Capping each keyword at full credit keeps one repeated term from hiding missing ones.
+// score() allocates nothing; the IDF table is rebuilt only when the statistics or the
+// taxonomy change.
+public final class RelevanceScorer {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REFERENCE_MENTIONS = 3;
+    private static final double REFERENCE_SATURATION = saturation(REFERENCE_MENTIONS, 1);
+
+    private final CorpusStats stats;
+    private volatile IdfTable table;
+
+    public RelevanceScorer(CorpusStats stats) {
+        this.stats = stats;
+    }
+
+    public CorpusStats getStats() {
+        return stats;
+    }
+
+    // counts are occurrences indexed by keyword id; words is the length of the resume
+    public double score(KeywordIndex index, KeywordIndex.Role role, int[] counts, long words) {
+        IdfTable idf = table(index);
+        double lengthNorm = lengthNorm(words, idf.averageWords);
+        double achieved = 0;
+        double possible = 0;
+        for (int i = 0; i < role.keywordCount(); i++) {
+            int id = role.keywordId(i);
+            double weight = role.weight(i) * idf.values[id];
+            possible += weight;
+            if (counts[id] > 0) {
+                achieved += weight * credit(counts[id], lengthNorm);
+            }
+        }
+        return possible == 0 ? 0 : achieved / possible * 100;
+    }
+
+    // Ids of up to n keywords of the role the resume lacks, the ones that would add most to the
+    // score first (keyword weight times IDF, or just the weight while the corpus is empty and every
+    // IDF is the same); equal priorities go to the lower keyword id
+    public int[] topMissing(KeywordIndex index, KeywordIndex.Role role, int[] counts, int n) {
+        if (n <= 0) {
+            return new int[0];
+        }
+        IdfTable table = table(index);
+        double[] idf = table.documents > 0 ? table.values : null;
+        int[] top = new int[n];
+        double[] priorities = new double[n];
+        int size = 0;
+        // Role keyword ids ascend, so an insertion never passes an equal priority
+        for (int i = 0; i < role.keywordCount(); i++) {
+            int id = role.keywordId(i);
+            if (counts[id] > 0) {
+                continue;
+            }
+            double priority = idf != null ? role.weight(i) * idf[id] : role.weight(i);
+            if (size == n && priority <= priorities[n - 1]) {
+                continue;
+            }
+            int slot = size < n ? size++ : n - 1;
+            while (slot > 0 && priorities[slot - 1] < priority) {
+                top[slot] = top[slot - 1];
+                priorities[slot] = priorities[slot - 1];
+                slot--;
+            }
+            top[slot] = id;
+            priorities[slot] = priority;
+        }
+        return size == n ? top : Arrays.copyOf(top, size);
+    }
+
+    // BM25 length normalization of a resume against the corpus average (1 when unknown)
+    public static double lengthNorm(long words, double averageWords) {
+        return averageWords > 0 ? 1 - B + B * words / averageWords : 1;
+    }
+
+    // Share of a keyword's full credit earned by the given number of mentions
+    public static double credit(int frequency, double lengthNorm) {
+        return Math.min(1, saturation(frequency, lengthNorm) / REFERENCE_SATURATION);
+    }
+
+    private IdfTable table(KeywordIndex index) {
+        IdfTable current = table;
+        long version = stats.version();
+        if (current == null || current.index != index || current.version != version) {
+            current = new IdfTable(index, version, stats.getDocuments(), stats.idf(index), stats.getAverageWords());
+            table = current;
+        }
+        return current;
+    }
+
+    private static double saturation(int frequency, double lengthNorm) {
+        return frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+    }
+
+    private static final class IdfTable {
+        private final KeywordIndex index;
+        private final long version;
+        private final long documents;
+        private final double[] values;
+        private final double averageWords;
+
+        IdfTable(KeywordIndex index, long version, long documents, double[] values, double averageWords) {
+            this.index = index;
+            this.version = version;
+            this.documents = documents;
+            this.values = values;
+            this.averageWords = averageWords;
+        }
+    }
+}
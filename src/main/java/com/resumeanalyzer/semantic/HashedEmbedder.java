@@ -0,0 +1,147 @@
+package com.resumeanalyzer.semantic;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+// Turns text into a fixed-size vector by feature hashing: each word (lightly stemmed), each pair
+// of adjacent words and the character trigrams of each word are hashed to one of DIMENSIONS
+// buckets with a pseudo-random sign. Texts sharing words, word stems or phrases end up with a
+// high cosine similarity, so "built CI pipelines" lands close to a skill described as "ci
+// pipelines", with no model to ship and no network. Vectors are L2-normalized, so a dot
+// product is the cosine similarity.
+public final class HashedEmbedder {
+    public static final int DIMENSIONS = 2048;
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float PAIR_WEIGHT = 0.7f;
+    private static final float TRIGRAM_WEIGHT = 0.3f;
+    private static final int WORD_SEED = 0x2f1a3c55;
+    private static final int PAIR_SEED = 0x61c88647;
+    private static final int TRIGRAM_SEED = 0x7feb352d;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "i", "in", "into",
+        "is", "it", "its", "of", "on", "or", "our", "that", "the", "their", "this", "to", "was", "we",
+        "were", "with", "my", "using", "used", "use", "such", "also", "etc");
+
+    private HashedEmbedder() {
+    }
+
+    public static float[] embed(CharSequence text) {
+        float[] vector = new float[DIMENSIONS];
+        embed(text, vector);
+        return vector;
+    }
+
+    // Overwrites vector (DIMENSIONS long) with the embedding; false if the text has no words
+    public static boolean embed(CharSequence text, float[] vector) {
+        Arrays.fill(vector, 0);
+        String previous = null;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && !isWordChar(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && isWordChar(text.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+            String word = text.subSequence(start, i).toString().toLowerCase(Locale.ROOT);
+            if (STOP_WORDS.contains(word)) {
+                continue;
+            }
+            String stem = stem(word);
+            add(vector, hash(stem, WORD_SEED), WORD_WEIGHT);
+            if (previous != null) {
+                add(vector, mix(hash(previous, PAIR_SEED) * 31 + hash(stem, PAIR_SEED)), PAIR_WEIGHT);
+            }
+            previous = stem;
+            // Trigrams of the word with boundary marks catch inflections the stemmer misses
+            if (word.length() >= 3) {
+                for (int j = -1; j + 2 <= word.length(); j++) {
+                    add(vector, trigramHash(word, j), TRIGRAM_WEIGHT);
+                }
+            }
+        }
+        return normalize(vector);
+    }
+
+    // Cosine similarity of two normalized vectors
+    public static float similarity(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '+' || c == '#';
+    }
+
+    private static String stem(String word) {
+        int n = word.length();
+        if (n > 5 && word.endsWith("ing")) {
+            return word.substring(0, n - 3);
+        }
+        if (n > 4 && word.endsWith("ed")) {
+            return word.substring(0, n - 2);
+        }
+        if (n > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+
+    private static void add(float[] vector, int hash, float weight) {
+        vector[hash & (DIMENSIONS - 1)] += hash < 0 ? -weight : weight;
+    }
+
+    // FNV-1a over the chars, finished with a mixer so the low bits and the sign are well spread
+    private static int hash(String s, int seed) {
+        int h = 0x811c9dc5 ^ seed;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    // The three chars from start, with the positions before and after the word as boundary marks
+    private static int trigramHash(String word, int start) {
+        int h = 0x811c9dc5 ^ TRIGRAM_SEED;
+        for (int i = start; i < start + 3; i++) {
+            char c = i < 0 ? '^' : i >= word.length() ? '$' : word.charAt(i);
+            h = (h ^ c) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static boolean normalize(float[] vector) {
+        double sum = 0;
+        for (float v : vector) {
+            sum += v * v;
+        }
+        if (sum == 0) {
+            return false;
+        }
+        float scale = (float) (1 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,180 @@
+package com.resumeanalyzer.semantic;
+
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+
+import java.util.*;
+
+// Offline semantic matching of a resume against a role. Every keyword is described by a few
+// phrases (its multi-word synonyms and the comma-separated parts of its taxonomy description),
+// each embedded once with HashedEmbedder when the matcher is built. Single words are left to
+// exact matching: on their own they only add noise from shared trigrams. A resume is
+// split into sentences; a keyword's similarity is the best cosine between any sentence and any
+// of its phrases, so paraphrases of a skill get credit that exact matching would miss.
+//
+// The phrase vectors are stored dimension-major, so scoring one sentence is a handful of
+// multiply-adds over contiguous rows (one per non-zero dimension of the sentence), a loop
+// HotSpot compiles to SIMD instructions.
+public final class SemanticMatcher {
+    // Below this similarity a keyword earns nothing, from FULL_CREDIT on it counts as present
+    private static final float NO_CREDIT = 0.3f;
+    private static final float FULL_CREDIT = 0.55f;
+    // Long lines without punctuation are cut into windows so one skill is not drowned out
+    private static final int MAX_SENTENCE_WORDS = 30;
+
+    private static volatile SemanticMatcher current;
+
+    private final KeywordIndex index;
+    private final int phraseCount;
+    // phraseVectors[d * phraseCount + p] is dimension d of phrase p
+    private final float[] phraseVectors;
+    private final int[] phraseKeyword;
+
+    private SemanticMatcher(KeywordIndex index) {
+        this.index = index;
+        List<float[]> vectors = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int id = 0; id < index.keywordCount(); id++) {
+            for (String phrase : index.description(id).split("[,:;]")) {
+                if (phrase.strip().split("\\s+").length < 2) {
+                    continue;
+                }
+                float[] vector = new float[HashedEmbedder.DIMENSIONS];
+                if (HashedEmbedder.embed(phrase, vector)) {
+                    vectors.add(vector);
+                    owners.add(id);
+                }
+            }
+        }
+        phraseCount = vectors.size();
+        phraseVectors = new float[HashedEmbedder.DIMENSIONS * phraseCount];
+        phraseKeyword = new int[phraseCount];
+        for (int p = 0; p < phraseCount; p++) {
+            float[] vector = vectors.get(p);
+            for (int d = 0; d < vector.length; d++) {
+                phraseVectors[d * phraseCount + p] = vector[d];
+            }
+            phraseKeyword[p] = owners.get(p);
+        }
+    }
+
+    public static SemanticMatcher of(KeywordIndex index) {
+        return new SemanticMatcher(index);
+    }
+
+    // Matcher for the current taxonomy; built on first use and again after a taxonomy reload
+    public static SemanticMatcher current() {
+        KeywordIndex index = KeywordTaxonomy.current();
+        SemanticMatcher matcher = current;
+        if (matcher == null || matcher.index != index) {
+            matcher = new SemanticMatcher(index);
+            current = matcher;
+        }
+        return matcher;
+    }
+
+    public KeywordIndex getIndex() {
+        return index;
+    }
+
+    public SemanticResult match(String resumeText, String jobRole) {
+        long start = System.nanoTime();
+        KeywordIndex.Role role = index.role(jobRole);
+        int[] counts = new int[index.idCount()];
+        index.matcher().count(resumeText, counts);
+
+        List<String> sentences = sentences(resumeText);
+        float[] best = new float[index.keywordCount()];
+        int[] bestSentence = new int[index.keywordCount()];
+        Arrays.fill(bestSentence, -1);
+        float[] sentence = new float[HashedEmbedder.DIMENSIONS];
+        float[] similarities = new float[phraseCount];
+        for (int s = 0; s < sentences.size(); s++) {
+            if (!HashedEmbedder.embed(sentences.get(s), sentence)) {
+                continue;
+            }
+            Arrays.fill(similarities, 0);
+            for (int d = 0; d < sentence.length; d++) {
+                float weight = sentence[d];
+                if (weight != 0) {
+                    accumulate(weight, phraseVectors, d * phraseCount, similarities, phraseCount);
+                }
+            }
+            for (int p = 0; p < phraseCount; p++) {
+                int id = phraseKeyword[p];
+                if (similarities[p] > best[id]) {
+                    best[id] = similarities[p];
+                    bestSentence[id] = s;
+                }
+            }
+        }
+
+        double achieved = 0;
+        double possible = 0;
+        List<SemanticResult.Match> matches = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < role.keywordCount(); i++) {
+            int id = role.keywordId(i);
+            boolean exact = counts[id] > 0;
+            double credit = exact ? 1 : credit(best[id]);
+            achieved += role.weight(i) * credit;
+            possible += role.weight(i);
+            if (credit > 0) {
+                String evidence = bestSentence[id] >= 0 ? sentences.get(bestSentence[id]) : null;
+                matches.add(new SemanticResult.Match(index.keyword(id), exact ? 1 : best[id], exact, evidence));
+            } else {
+                missing.add(index.keyword(id));
+            }
+        }
+        matches.sort(Comparator.comparing(SemanticResult.Match::isExact)
+            .thenComparing(Comparator.comparingDouble(SemanticResult.Match::getSimilarity).reversed())
+            .thenComparing(SemanticResult.Match::getKeyword));
+        PipelineMetrics.recordSemanticMatch(jobRole, start);
+        return new SemanticResult(possible == 0 ? 0 : achieved / possible * 100, matches, missing);
+    }
+
+    // similarities[p] += weight * row[p]; contiguous and branch-free, so it vectorizes
+    private static void accumulate(float weight, float[] rows, int offset, float[] similarities, int count) {
+        for (int p = 0; p < count; p++) {
+            similarities[p] += weight * rows[offset + p];
+        }
+    }
+
+    private static double credit(float similarity) {
+        if (similarity <= NO_CREDIT) {
+            return 0;
+        }
+        return Math.min(1, (similarity - NO_CREDIT) / (FULL_CREDIT - NO_CREDIT));
+    }
+
+    // Sentences and bullet points; a period only ends a sentence before whitespace, so node.js stays whole
+    static List<String> sentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : '\n';
+            boolean end = c == '\n' || c == '!' || c == '?' || c == ';' || c == '•' || c == '▪'
+                || (c == '.' && (i + 1 >= text.length() || Character.isWhitespace(text.charAt(i + 1))));
+            if (Character.isWhitespace(c) || end) {
+                if (inWord) {
+                    words++;
+                    inWord = false;
+                }
+            } else {
+                inWord = true;
+            }
+            if (end || words >= MAX_SENTENCE_WORDS) {
+                String sentence = text.substring(start, i).strip();
+                if (sentence.length() > 2) {
+                    sentences.add(sentence);
+                }
+                start = end ? i + 1 : i;
+                words = 0;
+            }
+        }
+        return sentences;
+    }
+}
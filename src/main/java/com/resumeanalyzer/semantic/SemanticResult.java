@@ -0,0 +1,43 @@
+package com.resumeanalyzer.semantic;
+
+import java.util.List;
+
+// Outcome of SemanticMatcher.match: a 0-100 score weighted like the keyword score, the role
+// keywords found exactly or by paraphrase with the sentence that matched best, and the rest
+public class SemanticResult {
+    private final double score;
+    private final List<Match> matches;
+    private final List<String> missingKeywords;
+
+    SemanticResult(double score, List<Match> matches, List<String> missingKeywords) {
+        this.score = score;
+        this.matches = List.copyOf(matches);
+        this.missingKeywords = List.copyOf(missingKeywords);
+    }
+
+    public double getScore() { return score; }
+    // Paraphrased matches first, most similar first; then exact matches
+    public List<Match> getMatches() { return matches; }
+    public List<String> getMissingKeywords() { return missingKeywords; }
+
+    public static class Match {
+        private final String keyword;
+        private final double similarity;
+        private final boolean exact;
+        private final String evidence;
+
+        Match(String keyword, double similarity, boolean exact, String evidence) {
+            this.keyword = keyword;
+            this.similarity = similarity;
+            this.exact = exact;
+            this.evidence = evidence;
+        }
+
+        public String getKeyword() { return keyword; }
+        public double getSimilarity() { return similarity; }
+        // True when the keyword or a synonym appears literally
+        public boolean isExact() { return exact; }
+        // Resume sentence closest to the keyword, or null
+        public String getEvidence() { return evidence; }
+    }
+}
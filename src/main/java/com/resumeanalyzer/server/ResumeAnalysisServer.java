@@ -0,0 +1,430 @@
+package com.resumeanalyzer.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeanalyzer.GroqAnalyzer;
+import com.resumeanalyzer.ResumeAnalyzer;
+import com.resumeanalyzer.ResumeParser;
+import com.resumeanalyzer.WarmUp;
+import com.resumeanalyzer.cache.ContentHash;
+import com.resumeanalyzer.cache.ExtractedTextCache;
+import com.resumeanalyzer.config.ConfigManager;
+import com.resumeanalyzer.dedup.DuplicateDetector;
+import com.resumeanalyzer.metrics.MetricsRegistry;
+import com.resumeanalyzer.metrics.PipelineMetrics;
+import com.resumeanalyzer.metrics.PrometheusTextExporter;
+import com.resumeanalyzer.semantic.SemanticMatcher;
+import com.resumeanalyzer.semantic.SemanticResult;
+import com.resumeanalyzer.taxonomy.KeywordIndex;
+import com.resumeanalyzer.taxonomy.KeywordTaxonomy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless HTTP service for applicant-tracking systems and other backends.
+//
+//   java -cp resume-analyzer.jar com.resumeanalyzer.server.ResumeAnalysisServer [--port n] [--bind address]
+//
+//   POST /analyze?roles=A,B&semantic=true&ai=true&id=X   body: PDF/DOCX (filename=... or Content-Type),
+//                                                          text/plain, or a multipart/form-data file field
+//   GET  /roles     job roles of the current taxonomy
+//   GET  /health    status and load
+//   GET  /metrics   Prometheus text format, when metrics are enabled
+//
+// Each request runs on its own virtual thread on Java 21 and later (a bounded pool of platform
+// threads before that). At most server.max.concurrent analyses run at once; up to
+// server.max.queued more wait for server.queue.timeout.ms, and anything beyond that is turned away
+// immediately with 503 and Retry-After, so latency stays stable under bursts. An admitted
+// request's upload is read before it waits for one of the running slots. The taxonomy, semantic
+// vectors, parsers and the Groq client are warmed up before the port opens and shared by all
+// requests. A near-duplicate of an earlier upload (see dedup.* in config.properties) is scored on
+// its own text, takes that upload's AI analysis where it has one and is marked with duplicateOf,
+// the id of that upload. An upload's id is the id parameter, e.g. the caller's applicant id, or
+// else the SHA-256 of its content; the response repeats it. On shutdown the port stops accepting
+// and running requests get server.shutdown.grace.seconds to finish.
+public class ResumeAnalysisServer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore running;
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final long maxUploadBytes;
+    private final int shutdownGraceSeconds;
+    private final ExtractedTextCache textCache;
+    private final GroqAnalyzer groqAnalyzer;
+    private final DuplicateDetector duplicates;
+    private final MetricsRegistry metrics;
+    private final boolean virtualThreads;
+    private volatile boolean draining;
+
+    public ResumeAnalysisServer(InetSocketAddress address) throws IOException {
+        ConfigManager config = ConfigManager.getInstance();
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.maxConcurrent = config.getInt("server.max.concurrent", cores * 2);
+        this.maxQueued = config.getInt("server.max.queued", 64);
+        this.queueTimeoutMillis = config.getLong("server.queue.timeout.ms", 5000);
+        this.maxUploadBytes = config.getLong("server.max.upload.mb", 10) * 1024 * 1024;
+        this.shutdownGraceSeconds = config.getInt("server.shutdown.grace.seconds", 30);
+        if (maxConcurrent < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("server.max.concurrent must be positive and server.max.queued not negative");
+        }
+        this.running = new Semaphore(maxConcurrent);
+        this.metrics = PipelineMetrics.installFromConfig();
+        this.textCache = ExtractedTextCache.fromConfig();
+        this.groqAnalyzer = createGroqAnalyzer(config);
+        this.duplicates = DuplicateDetector.fromConfig();
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformExecutor(maxConcurrent + maxQueued);
+
+        this.server = HttpServer.create(address, 256);
+        server.setExecutor(executor);
+        server.createContext("/analyze", this::analyze);
+        server.createContext("/roles", this::roles);
+        server.createContext("/health", this::health);
+        server.createContext("/metrics", this::metrics);
+    }
+
+    public static void main(String[] args) throws IOException {
+        ConfigManager config = ConfigManager.getInstance();
+        int port = config.getInt("server.port", 8080);
+        String bind = config.getProperty("server.bind", "127.0.0.1");
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--bind") && i + 1 < args.length) {
+                bind = args[++i];
+            } else {
+                System.err.println("Usage: ResumeAnalysisServer [--port n] [--bind address]");
+                System.exit(2);
+            }
+        }
+        ResumeAnalysisServer service = new ResumeAnalysisServer(new InetSocketAddress(bind, port));
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop, "server-shutdown"));
+        service.start();
+    }
+
+    public void start() {
+        long start = System.nanoTime();
+        WarmUp.run();
+        server.start();
+        System.out.printf("Resume analysis service listening on %s (%s threads, %d concurrent, %d queued, warm-up %d ms)%n",
+            server.getAddress(), virtualThreads ? "virtual" : "platform", maxConcurrent, maxQueued,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Stops accepting, lets running requests finish within the grace period, then stops the threads
+    public void stop() {
+        if (draining) {
+            return;
+        }
+        draining = true;
+        System.out.println("Resume analysis service stopping; waiting for " + admitted.get() + " requests");
+        // One grace period for both waits: the executor only gets what server.stop left of it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownGraceSeconds);
+        server.stop(shutdownGraceSeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void analyze(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "Use POST");
+                return;
+            }
+            if (draining) {
+                reject(exchange, "Service is shutting down");
+                return;
+            }
+            // Admission: a bounded number run, a bounded number wait, the rest are rejected at once
+            if (admitted.incrementAndGet() > maxConcurrent + maxQueued) {
+                admitted.decrementAndGet();
+                PipelineMetrics.recordServerRequest("rejected", System.nanoTime());
+                reject(exchange, "Too many requests in progress");
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                Map<String, String> query = query(exchange.getRequestURI());
+                boolean ai = Boolean.parseBoolean(query.get("ai"));
+                if (ai && groqAnalyzer == null) {
+                    throw new IllegalArgumentException("AI analysis is not configured on this server");
+                }
+                List<String> roles = roles(query);
+                // The body is read before taking a worker, so slow uploads hold only admission slots
+                // and cannot keep the workers from the requests that are ready to run
+                Upload upload = Upload.read(exchange.getRequestHeaders(), exchange.getRequestBody(),
+                    query.get("filename"), maxUploadBytes);
+                if (!running.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    PipelineMetrics.recordServerRequest("timeout", start);
+                    reject(exchange, "Timed out waiting for a free worker");
+                    return;
+                }
+                try {
+                    respond(exchange, 200, analyze(upload, query.get("id"), roles,
+                        Boolean.parseBoolean(query.get("semantic")), ai, start));
+                    PipelineMetrics.recordServerRequest("ok", start);
+                } finally {
+                    running.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sendError(exchange, 503, "Interrupted");
+            } catch (Upload.TooLargeException e) {
+                PipelineMetrics.recordServerRequest("error", start);
+                sendError(exchange, 413, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                PipelineMetrics.recordServerRequest("error", start);
+                sendError(exchange, 400, e.getMessage());
+            } catch (IOException e) {
+                // Usually a damaged or password-protected document
+                PipelineMetrics.recordServerRequest("error", start);
+                sendError(exchange, 422, "Could not read the resume: " + e.getMessage());
+            } catch (RuntimeException e) {
+                PipelineMetrics.recordServerRequest("error", start);
+                sendError(exchange, 500, e.toString());
+            } finally {
+                admitted.decrementAndGet();
+            }
+        }
+    }
+
+    private ObjectNode analyze(Upload upload, String id, List<String> roles, boolean semantic, boolean ai,
+                               long start) throws IOException {
+        if (id == null || id.isBlank()) {
+            id = upload.getText() != null ? ContentHash.of(upload.getText()) : ContentHash.of(upload.getContent());
+        }
+        String text = upload.getText() != null
+            ? upload.getText()
+            : ResumeParser.extractText(upload.getContent(), upload.getFileName(), textCache);
+        // A resubmission of a resume analyzed before can take its results, including the AI analyses
+        DuplicateDetector.Check duplicate = duplicates != null ? duplicates.check(id, text) : null;
+
+        // Start the AI analyses first so they run while the keyword scoring happens. The roles are
+        // known to exist, so no paid request or metric series is created for a made-up name.
+        Map<String, CompletableFuture<String>> analyses = new LinkedHashMap<>();
+        if (ai) {
+            for (String role : roles) {
+                String reused = duplicate != null ? duplicate.reusableAiAnalysis(role) : null;
+                CompletableFuture<String> analysis = reused != null
+                    ? CompletableFuture.completedFuture(reused)
+                    : groqAnalyzer.analyzeResumeAsync(text, role);
+                if (duplicate != null && reused == null) {
+                    analysis.thenAccept(answer -> duplicate.recordAiAnalysis(role, answer));
+                }
+                analyses.put(role, analysis);
+            }
+        }
+        Map<String, ResumeAnalyzer.AnalysisResult> results;
+        try {
+            results = ResumeAnalyzer.analyzeRoles(text, roles);
+        } catch (IllegalArgumentException e) {
+            // Only when the taxonomy was reloaded without one of the roles in the meantime
+            analyses.values().forEach(analysis -> analysis.cancel(true));
+            throw e;
+        }
+
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("id", id);
+        response.put("file", upload.getFileName());
+        response.put("characters", text.length());
+        if (duplicate != null && duplicate.isDuplicate()) {
+            response.put("duplicateOf", duplicate.getOriginal());
+            response.put("similarity", Math.round(duplicate.getSimilarity() * 100) / 100.0);
+        }
+        ArrayNode resultNodes = response.putArray("results");
+        for (Map.Entry<String, ResumeAnalyzer.AnalysisResult> entry : results.entrySet()) {
+            ResumeAnalyzer.AnalysisResult result = entry.getValue();
+            ObjectNode node = resultNodes.addObject();
+            node.put("role", entry.getKey());
+            node.put("score", Math.round(result.getScore() * 10) / 10.0);
+            result.getFoundKeywords().forEach(node.putArray("foundKeywords")::add);
+            result.getMissingKeywords().forEach(node.putArray("missingKeywords")::add);
+            result.getSuggestions().forEach(node.putArray("suggestions")::add);
+            if (semantic) {
+                SemanticResult match = SemanticMatcher.current().match(text, entry.getKey());
+                ObjectNode semanticNode = node.putObject("semantic");
+                semanticNode.put("score", Math.round(match.getScore() * 10) / 10.0);
+                ArrayNode paraphrased = semanticNode.putArray("paraphrased");
+                for (SemanticResult.Match m : match.getMatches()) {
+                    if (!m.isExact()) {
+                        ObjectNode matchNode = paraphrased.addObject();
+                        matchNode.put("keyword", m.getKeyword());
+                        matchNode.put("similarity", Math.round(m.getSimilarity() * 100) / 100.0);
+                        matchNode.put("evidence", m.getEvidence());
+                    }
+                }
+            }
+            CompletableFuture<String> analysis = analyses.get(entry.getKey());
+            if (analysis != null) {
+                try {
+                    node.put("aiAnalysis", analysis.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    node.put("aiError", cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                } catch (InterruptedException e) {
+                    analyses.values().forEach(pending -> pending.cancel(true));
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the AI analysis");
+                }
+            }
+        }
+        response.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    // The roles or role parameter, or every role; an unknown role is an IllegalArgumentException
+    private static List<String> roles(Map<String, String> query) {
+        String requested = query.getOrDefault("roles", query.get("role"));
+        if (requested == null) {
+            return new ArrayList<>(ResumeAnalyzer.getJobRoles());
+        }
+        KeywordIndex index = KeywordTaxonomy.current();
+        List<String> roles = new ArrayList<>();
+        for (String role : requested.split(",")) {
+            if (role.isBlank()) {
+                continue;
+            }
+            if (!index.hasRole(role.trim())) {
+                throw new IllegalArgumentException("Unsupported job role: " + role.trim());
+            }
+            roles.add(role.trim());
+        }
+        if (roles.isEmpty()) {
+            throw new IllegalArgumentException("No job role given");
+        }
+        return roles;
+    }
+
+    private void roles(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ObjectNode response = MAPPER.createObjectNode();
+            KeywordTaxonomy.current().roleNames().forEach(response.putArray("roles")::add);
+            respond(exchange, 200, response);
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ObjectNode response = MAPPER.createObjectNode();
+            response.put("status", draining ? "stopping" : "ok");
+            response.put("inFlight", admitted.get());
+            response.put("running", maxConcurrent - running.availablePermits());
+            response.put("maxConcurrent", maxConcurrent);
+            response.put("maxQueued", maxQueued);
+            response.put("virtualThreads", virtualThreads);
+            response.put("aiAvailable", groqAnalyzer != null);
+            respond(exchange, draining ? 503 : 200, response);
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (metrics == null) {
+                sendError(exchange, 404, "Metrics are disabled");
+                return;
+            }
+            byte[] body = PrometheusTextExporter.format(metrics).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private void reject(HttpExchange exchange, String message) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        sendError(exchange, 503, message);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ObjectNode error = MAPPER.createObjectNode();
+        error.put("error", message);
+        respond(exchange, status, error);
+    }
+
+    private static void respond(HttpExchange exchange, int status, ObjectNode body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> parameters = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return parameters;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "true" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.put(name, value);
+        }
+        return parameters;
+    }
+
+    // Same key lookup as the GUI: GROQ_API_KEY, then groq.api.key
+    private static GroqAnalyzer createGroqAnalyzer(ConfigManager config) {
+        String apiKey = System.getenv("GROQ_API_KEY");
+        if (apiKey == null || apiKey.isEmpty()) {
+            apiKey = config.getGroqApiKey();
+        }
+        if (apiKey == null || apiKey.isEmpty() || apiKey.equals("your_api_key_here")) {
+            return null;
+        }
+        return new GroqAnalyzer(apiKey);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when the JDK has it (21+); null otherwise
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // Enough threads for every admitted request; a full pool makes the accept thread run the
+    // handler itself, which then rejects the request immediately
+    private static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "http-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
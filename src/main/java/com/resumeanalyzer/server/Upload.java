@@ -0,0 +1,155 @@
+package com.resumeanalyzer.server;
+
+import com.sun.net.httpserver.Headers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+// A resume sent to the service: either the raw file as the request body (name from the
+// "filename" parameter or the Content-Type), plain text, or the first file of a
+// multipart/form-data form.
+final class Upload {
+    private static final String DOCX_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private final String fileName;
+    private final byte[] content;
+    private final String text;
+
+    private Upload(String fileName, byte[] content, String text) {
+        this.fileName = fileName;
+        this.content = content;
+        this.text = text;
+    }
+
+    String getFileName() { return fileName; }
+    // File bytes, or null when the resume was sent as plain text
+    byte[] getContent() { return content; }
+    // Plain text, or null for a file
+    String getText() { return text; }
+
+    static Upload read(Headers headers, InputStream body, String fileNameParameter, long maxBytes) throws IOException {
+        String contentType = headers.getFirst("Content-Type");
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        byte[] bytes = readLimited(body, maxBytes);
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Empty upload");
+        }
+        if (type.startsWith("multipart/form-data")) {
+            return multipart(bytes, parameter(contentType, "boundary"));
+        }
+        if (type.startsWith("text/plain")) {
+            return new Upload(fileNameParameter != null ? fileNameParameter : "resume.txt", null,
+                new String(bytes, StandardCharsets.UTF_8));
+        }
+        String fileName = fileNameParameter;
+        if (fileName == null) {
+            fileName = parameter(headers.getFirst("Content-Disposition"), "filename");
+        }
+        if (fileName == null) {
+            if (type.startsWith("application/pdf")) {
+                fileName = "resume.pdf";
+            } else if (type.startsWith(DOCX_TYPE)) {
+                fileName = "resume.docx";
+            } else {
+                throw new IllegalArgumentException("Send a PDF or DOCX with a filename parameter or a matching Content-Type");
+            }
+        }
+        return new Upload(fileName, bytes, null);
+    }
+
+    static final class TooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        TooLargeException(long maxBytes) {
+            super("Upload exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    private static byte[] readLimited(InputStream body, long maxBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16384];
+        long total = 0;
+        int n;
+        while ((n = body.read(buffer)) > 0) {
+            total += n;
+            if (total > maxBytes) {
+                throw new TooLargeException(maxBytes);
+            }
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    // The first part that carries a filename
+    private static Upload multipart(byte[] body, String boundary) {
+        if (boundary == null) {
+            throw new IllegalArgumentException("multipart/form-data without a boundary");
+        }
+        byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] headerEnd = "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        int position = indexOf(body, delimiter, 0);
+        while (position >= 0) {
+            int headersStart = position + delimiter.length + 2;
+            int contentStart = indexOf(body, headerEnd, headersStart);
+            if (contentStart < 0) {
+                break;
+            }
+            String partHeaders = new String(body, headersStart, contentStart - headersStart, StandardCharsets.UTF_8);
+            contentStart += headerEnd.length;
+            int next = indexOf(body, delimiter, contentStart);
+            if (next < 0) {
+                break;
+            }
+            // The CRLF before the next delimiter belongs to the delimiter
+            int contentEnd = next - 2;
+            for (String line : partHeaders.split("\r\n")) {
+                if (line.toLowerCase(Locale.ROOT).startsWith("content-disposition:")) {
+                    String fileName = parameter(line, "filename");
+                    if (fileName != null && !fileName.isEmpty()) {
+                        return new Upload(fileName, Arrays.copyOfRange(body, contentStart, contentEnd), null);
+                    }
+                }
+            }
+            position = next;
+        }
+        throw new IllegalArgumentException("No file found in the form upload");
+    }
+
+    // Value of name=value or name="value" in a header such as Content-Type or Content-Disposition
+    static String parameter(String header, String name) {
+        if (header == null) {
+            return null;
+        }
+        for (String part : header.split(";")) {
+            String trimmed = part.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                String value = trimmed.substring(equals + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                // Browsers may send a full path
+                int slash = Math.max(value.lastIndexOf('/'), value.lastIndexOf('\\'));
+                return name.equals("filename") ? value.substring(slash + 1) : value;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle, int from) {
+        outer:
+        for (int i = Math.max(0, from); i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,368 @@
+package com.resumeanalyzer.taxonomy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resumeanalyzer.matching.KeywordMatcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+// Immutable, compiled form of the keyword taxonomy (see taxonomy.json). Every distinct keyword
+// gets a dense id 0..keywordCount()-1 and is stored once, so roles are just bitsets over those
+// ids. Synonyms map to the id of their keyword and rule markers (section headings, portfolio
+// links) take the ids after the keywords, so one automaton finds everything in a single pass.
+// Optional descriptions paraphrase a keyword for semantic matching.
+// Instances are safe to share between threads.
+public final class KeywordIndex {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String[] keywords;
+    private final Map<String, Integer> keywordIds;
+    // Keywords and their synonyms
+    private final Map<String, Integer> termIds;
+    // Keyword, synonyms and description of each keyword id
+    private final String[] descriptions;
+    private final String[] markers;
+    private final List<String> sections;
+    private final Map<String, Role> roles;
+    private final KeywordMatcher matcher;
+
+    private KeywordIndex(String[] keywords, Map<String, Integer> keywordIds, Map<String, Integer> termIds,
+                         String[] descriptions, String[] markers, List<String> sections, Map<String, Role> roles,
+                         KeywordMatcher matcher) {
+        this.keywords = keywords;
+        this.keywordIds = keywordIds;
+        this.termIds = termIds;
+        this.descriptions = descriptions;
+        this.markers = markers;
+        this.sections = sections;
+        this.roles = roles;
+        this.matcher = matcher;
+    }
+
+    public static KeywordIndex load(InputStream input) throws IOException {
+        return compile(OBJECT_MAPPER.readTree(input));
+    }
+
+    public static KeywordIndex compile(JsonNode root) {
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Invalid taxonomy: expected a JSON object");
+        }
+
+        // Roles first, so includes can be resolved and every keyword is known before ids are assigned
+        Map<String, Map<String, Double>> roleWeights = new LinkedHashMap<>();
+        Map<String, List<RuleSpec>> roleRules = new LinkedHashMap<>();
+        for (JsonNode roleNode : array(root, "roles")) {
+            String name = text(roleNode, "name");
+            if (roleWeights.containsKey(name)) {
+                throw new IllegalArgumentException("Invalid taxonomy: duplicate role " + name);
+            }
+            Map<String, Double> weights = new LinkedHashMap<>();
+            for (JsonNode include : array(roleNode, "includes")) {
+                Map<String, Double> included = roleWeights.get(include.asText());
+                if (included == null) {
+                    throw new IllegalArgumentException("Invalid taxonomy: role " + name
+                        + " includes " + include.asText() + ", which is not defined before it");
+                }
+                weights.putAll(included);
+            }
+            for (JsonNode keywordNode : array(roleNode, "keywords")) {
+                String keyword = normalize(keywordNode.isObject() ? text(keywordNode, "term") : keywordNode.asText());
+                double weight = keywordNode.isObject() ? keywordNode.path("weight").asDouble(1) : 1;
+                if (keyword.isEmpty() || !(weight > 0)) {
+                    throw new IllegalArgumentException("Invalid taxonomy: bad keyword " + keywordNode + " in role " + name);
+                }
+                weights.put(keyword, weight);
+            }
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("Invalid taxonomy: role " + name + " has no keywords");
+            }
+            roleWeights.put(name, weights);
+            roleRules.put(name, rules(roleNode));
+        }
+        if (roleWeights.isEmpty()) {
+            throw new IllegalArgumentException("Invalid taxonomy: no roles defined");
+        }
+
+        // Dense keyword ids in alphabetical order; each keyword string is kept once and shared by all roles
+        TreeSet<String> distinct = new TreeSet<>();
+        roleWeights.values().forEach(weights -> distinct.addAll(weights.keySet()));
+        String[] keywords = distinct.toArray(new String[0]);
+        Map<String, Integer> keywordIds = new HashMap<>();
+        for (int i = 0; i < keywords.length; i++) {
+            keywordIds.put(keywords[i], i);
+        }
+
+        List<String> sections = new ArrayList<>();
+        for (JsonNode section : array(root, "sections")) {
+            sections.add(normalize(section.asText()));
+        }
+        List<RuleSpec> globalRules = rules(root);
+
+        // Markers are everything the rules and section list refer to, after the keyword ids
+        LinkedHashMap<String, Integer> markerIds = new LinkedHashMap<>();
+        for (String section : sections) {
+            markerIds.putIfAbsent(section, keywords.length + markerIds.size());
+        }
+        List<RuleSpec> allRules = new ArrayList<>(globalRules);
+        roleRules.values().forEach(allRules::addAll);
+        for (RuleSpec rule : allRules) {
+            for (String marker : rule.unless) {
+                markerIds.putIfAbsent(marker, keywords.length + markerIds.size());
+            }
+        }
+
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        for (int i = 0; i < keywords.length; i++) {
+            builder.add(keywords[i], i, KeywordMatcher.Boundary.WORD);
+        }
+        Map<String, String> aliasOf = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> synonyms = root.path("synonyms").fields();
+        while (synonyms.hasNext()) {
+            Map.Entry<String, JsonNode> entry = synonyms.next();
+            Integer id = keywordIds.get(normalize(entry.getKey()));
+            if (id == null) {
+                // Synonyms of keywords no role uses are harmless; they just match nothing
+                continue;
+            }
+            for (JsonNode aliasNode : entry.getValue()) {
+                String alias = normalize(aliasNode.asText());
+                if (alias.isEmpty() || keywordIds.containsKey(alias)) {
+                    throw new IllegalArgumentException("Invalid taxonomy: synonym \"" + aliasNode.asText()
+                        + "\" of " + entry.getKey() + " is empty or a keyword itself");
+                }
+                String previous = aliasOf.putIfAbsent(alias, keywords[id]);
+                if (previous != null && !previous.equals(keywords[id])) {
+                    throw new IllegalArgumentException("Invalid taxonomy: synonym \"" + alias
+                        + "\" is used for both " + previous + " and " + keywords[id]);
+                }
+                builder.add(alias, id, KeywordMatcher.Boundary.WORD);
+            }
+        }
+        for (Map.Entry<String, Integer> marker : markerIds.entrySet()) {
+            builder.add(marker.getKey(), marker.getValue(), KeywordMatcher.Boundary.PREFIX);
+        }
+
+        Map<String, Role> roles = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Double>> entry : roleWeights.entrySet()) {
+            roles.put(entry.getKey(), new Role(entry.getKey(), entry.getValue(), keywordIds,
+                compileRules(globalRules, roleRules.get(entry.getKey()), markerIds)));
+        }
+
+        Map<String, Integer> termIds = new HashMap<>(keywordIds);
+        aliasOf.forEach((alias, keyword) -> termIds.put(alias, keywordIds.get(keyword)));
+
+        StringBuilder[] describe = new StringBuilder[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            describe[i] = new StringBuilder(keywords[i]);
+        }
+        new TreeMap<>(aliasOf).forEach((alias, keyword) -> describe[keywordIds.get(keyword)].append(", ").append(alias));
+        Iterator<Map.Entry<String, JsonNode>> described = root.path("descriptions").fields();
+        while (described.hasNext()) {
+            Map.Entry<String, JsonNode> entry = described.next();
+            Integer id = keywordIds.get(normalize(entry.getKey()));
+            if (id != null) {
+                describe[id].append(": ").append(entry.getValue().asText());
+            }
+        }
+        String[] descriptions = new String[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            descriptions[i] = describe[i].toString();
+        }
+
+        return new KeywordIndex(keywords, Collections.unmodifiableMap(keywordIds), termIds, descriptions,
+            markerIds.keySet().toArray(new String[0]), List.copyOf(sections),
+            Collections.unmodifiableMap(roles), builder.build());
+    }
+
+    public int keywordCount() {
+        return keywords.length;
+    }
+
+    public String keyword(int id) {
+        return keywords[id];
+    }
+
+    // The keyword with its synonyms and taxonomy description, e.g. for embedding it
+    public String description(int id) {
+        return descriptions[id];
+    }
+
+    // -1 for terms that are not keywords of any role
+    public int keywordId(String keyword) {
+        Integer id = keywordIds.get(normalize(keyword));
+        return id == null ? -1 : id;
+    }
+
+    // Id of the keyword a term or one of its synonyms stands for, -1 if it is neither
+    public int resolve(String term) {
+        Integer id = termIds.get(normalize(term));
+        return id == null ? -1 : id;
+    }
+
+    public int markerCount() {
+        return markers.length;
+    }
+
+    // Size of the id space of matcher(): keywords followed by markers
+    public int idCount() {
+        return keywords.length + markers.length;
+    }
+
+    // Roles in taxonomy order
+    public Set<String> roleNames() {
+        return roles.keySet();
+    }
+
+    public Role role(String name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            throw new IllegalArgumentException("Unsupported job role: " + name);
+        }
+        return role;
+    }
+
+    public boolean hasRole(String name) {
+        return roles.containsKey(name);
+    }
+
+    // Section headings, most important for an analysis first
+    public List<String> sections() {
+        return sections;
+    }
+
+    // Matches every keyword, synonym and marker; keyword bits are keyword ids
+    public KeywordMatcher matcher() {
+        return matcher;
+    }
+
+    private static List<RuleSpec> rules(JsonNode parent) {
+        List<RuleSpec> result = new ArrayList<>();
+        for (JsonNode ruleNode : array(parent, "rules")) {
+            List<String> unless = new ArrayList<>();
+            for (JsonNode marker : array(ruleNode, "unless")) {
+                unless.add(normalize(marker.asText()));
+            }
+            if (unless.isEmpty()) {
+                throw new IllegalArgumentException("Invalid taxonomy: rule without markers: " + ruleNode);
+            }
+            result.add(new RuleSpec(unless, text(ruleNode, "suggest")));
+        }
+        return result;
+    }
+
+    private static List<Rule> compileRules(List<RuleSpec> global, List<RuleSpec> own, Map<String, Integer> markerIds) {
+        List<Rule> result = new ArrayList<>(global.size() + own.size());
+        for (List<RuleSpec> specs : List.of(global, own)) {
+            for (RuleSpec spec : specs) {
+                int[] ids = spec.unless.stream().mapToInt(markerIds::get).toArray();
+                result.add(new Rule(ids, spec.suggestion));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static Iterable<JsonNode> array(JsonNode parent, String field) {
+        JsonNode node = parent.path(field);
+        if (node.isMissingNode() || node.isNull()) {
+            return List.of();
+        }
+        if (!node.isArray()) {
+            throw new IllegalArgumentException("Invalid taxonomy: \"" + field + "\" must be an array");
+        }
+        return node;
+    }
+
+    private static String text(JsonNode parent, String field) {
+        JsonNode node = parent.path(field);
+        if (!node.isTextual() || node.asText().isBlank()) {
+            throw new IllegalArgumentException("Invalid taxonomy: missing \"" + field + "\" in " + parent);
+        }
+        return node.asText().strip();
+    }
+
+    private static String normalize(String term) {
+        return term.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // A job role: its keywords as a bitset over keyword ids, their weights and its suggestion rules
+    public static final class Role {
+        private final String name;
+        private final BitSet keywordSet;
+        // Keyword ids in alphabetical order of the keywords, with the matching weights
+        private final int[] keywordIds;
+        private final double[] weights;
+        private final double totalWeight;
+        private final List<Rule> rules;
+
+        private Role(String name, Map<String, Double> weightsByKeyword, Map<String, Integer> ids, List<Rule> rules) {
+            this.name = name;
+            this.keywordSet = new BitSet(ids.size());
+            double[] weightById = new double[ids.size()];
+            for (Map.Entry<String, Double> entry : weightsByKeyword.entrySet()) {
+                int id = ids.get(entry.getKey());
+                keywordSet.set(id);
+                weightById[id] = entry.getValue();
+            }
+            this.keywordIds = keywordSet.stream().toArray();
+            this.weights = new double[keywordIds.length];
+            double total = 0;
+            for (int i = 0; i < keywordIds.length; i++) {
+                weights[i] = weightById[keywordIds[i]];
+                total += weights[i];
+            }
+            this.totalWeight = total;
+            this.rules = rules;
+        }
+
+        public String getName() { return name; }
+        public int keywordCount() { return keywordIds.length; }
+        public int keywordId(int i) { return keywordIds[i]; }
+        public double weight(int i) { return weights[i]; }
+        public double getTotalWeight() { return totalWeight; }
+        public List<Rule> getRules() { return rules; }
+
+        public boolean hasKeyword(int keywordId) {
+            return keywordSet.get(keywordId);
+        }
+
+        // Copy, so callers can combine it with match results freely
+        public BitSet keywordSet() {
+            return (BitSet) keywordSet.clone();
+        }
+    }
+
+    // Suggests something unless at least one of its markers was found
+    public static final class Rule {
+        private final int[] markerIds;
+        private final String suggestion;
+
+        private Rule(int[] markerIds, String suggestion) {
+            this.markerIds = markerIds;
+            this.suggestion = suggestion;
+        }
+
+        public String getSuggestion() { return suggestion; }
+
+        // counts are occurrences indexed by matcher id
+        public boolean applies(int[] counts) {
+            for (int id : markerIds) {
+                if (counts[id] > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class RuleSpec {
+        private final List<String> unless;
+        private final String suggestion;
+
+        RuleSpec(List<String> unless, String suggestion) {
+            this.unless = unless;
+            this.suggestion = suggestion;
+        }
+    }
+}
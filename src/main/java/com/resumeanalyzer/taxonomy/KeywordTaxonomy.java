@@ -0,0 +1,150 @@
+package com.resumeanalyzer.taxonomy;
+
+import com.resumeanalyzer.config.ConfigManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Holds the current KeywordIndex. The taxonomy comes from the file named by taxonomy.file, or
+// the bundled taxonomy.json when that is not set. When taxonomy.watch is on (the default) the
+// file is watched and recompiled on change; the new index replaces the old one in a single
+// atomic swap, so scoring that already took current() finishes on the index it started with.
+// A file that fails to load or validate is reported and the previous index stays in use.
+public final class KeywordTaxonomy {
+    private static final String BUNDLED_TAXONOMY = "taxonomy.json";
+    // Editors often write a file in several steps; wait for them to settle before reloading
+    private static final long SETTLE_MILLIS = 250;
+
+    private static final AtomicReference<KeywordIndex> CURRENT = new AtomicReference<>();
+    private static final List<Consumer<KeywordIndex>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static Path taxonomyFile;
+
+    private KeywordTaxonomy() {
+    }
+
+    public static KeywordIndex current() {
+        KeywordIndex index = CURRENT.get();
+        return index != null ? index : initialize();
+    }
+
+    // Called with the new index after every successful reload
+    public static void addListener(Consumer<KeywordIndex> listener) {
+        LISTENERS.add(listener);
+    }
+
+    // Reloads the configured file now; returns false and keeps the current index if it is invalid
+    public static synchronized boolean reload() {
+        current();
+        if (taxonomyFile == null) {
+            return false;
+        }
+        try {
+            install(loadFile(taxonomyFile));
+            System.out.println("Reloaded keyword taxonomy from " + taxonomyFile);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: keeping the previous keyword taxonomy, " + taxonomyFile
+                + " could not be loaded: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Replaces the index, e.g. with one compiled from another source
+    public static void install(KeywordIndex index) {
+        CURRENT.set(index);
+        for (Consumer<KeywordIndex> listener : LISTENERS) {
+            listener.accept(index);
+        }
+    }
+
+    private static synchronized KeywordIndex initialize() {
+        if (CURRENT.get() != null) {
+            return CURRENT.get();
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        String file = config.getProperty("taxonomy.file", null);
+        KeywordIndex index = null;
+        if (file != null) {
+            taxonomyFile = Paths.get(file).toAbsolutePath();
+            try {
+                index = loadFile(taxonomyFile);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Warning: could not load keyword taxonomy " + taxonomyFile
+                    + ", using the bundled one: " + e.getMessage());
+            }
+            if (config.getBoolean("taxonomy.watch", true)) {
+                startWatcher(taxonomyFile);
+            }
+        }
+        if (index == null) {
+            index = loadBundled();
+        }
+        CURRENT.set(index);
+        return index;
+    }
+
+    private static KeywordIndex loadFile(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return KeywordIndex.load(input);
+        }
+    }
+
+    private static KeywordIndex loadBundled() {
+        try (InputStream input = KeywordTaxonomy.class.getClassLoader().getResourceAsStream(BUNDLED_TAXONOMY)) {
+            if (input == null) {
+                throw new IllegalStateException(BUNDLED_TAXONOMY + " not found in resources");
+            }
+            return KeywordIndex.load(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load " + BUNDLED_TAXONOMY + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void startWatcher(Path file) {
+        Path directory = file.getParent();
+        WatchService watchService;
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.out.println("Warning: cannot watch " + file + " for changes: " + e.getMessage());
+            return;
+        }
+        Thread watcher = new Thread(() -> watch(watchService, file), "taxonomy-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private static void watch(WatchService watchService, Path file) {
+        try (watchService) {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        // Atomic saves show up as a create of the target name
+                        changed |= file.getFileName().equals(event.context());
+                    }
+                    if (!key.reset()) {
+                        System.out.println("Warning: stopped watching " + file + ", its directory is gone");
+                        return;
+                    }
+                } while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("Warning: taxonomy watcher failed: " + e.getMessage());
+        }
+    }
+}
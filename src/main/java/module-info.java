@@ -2,12 +2,27 @@ module com.resumeanalyzer {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.web;
+    requires jdk.jsobject;
     requires org.apache.pdfbox;
     requires org.apache.poi.ooxml;
     requires com.fasterxml.jackson.databind;
     requires okhttp3;
     requires org.commonmark;
+    requires java.management;
+    requires jdk.httpserver;
 
     exports com.resumeanalyzer;
+    exports com.resumeanalyzer.batch;
+    exports com.resumeanalyzer.cache;
     exports com.resumeanalyzer.config;
+    exports com.resumeanalyzer.dedup;
+    exports com.resumeanalyzer.index;
+    exports com.resumeanalyzer.llm;
+    exports com.resumeanalyzer.matching;
+    exports com.resumeanalyzer.metrics;
+    exports com.resumeanalyzer.results;
+    exports com.resumeanalyzer.scoring;
+    exports com.resumeanalyzer.semantic;
+    exports com.resumeanalyzer.server;
+    exports com.resumeanalyzer.taxonomy;
 } 
\ No newline at end of file